@@ -0,0 +1,218 @@
+package MeetingScheduler;
+
+import MeetingScheduler.domain.BookingRequest;
+import MeetingScheduler.domain.Constants.ConcurrencyMode;
+import MeetingScheduler.exception.RoomNotAvailableException;
+import MeetingScheduler.repository.Repo.BookingRepository;
+import MeetingScheduler.repository.Repo.EmployeeRepository;
+import MeetingScheduler.repository.Repo.MeetingRoomRepository;
+import MeetingScheduler.service.Service.BookingService;
+import MeetingScheduler.service.Service.EmployeeService;
+import MeetingScheduler.service.Service.MeetingRoomService;
+import MeetingScheduler.service.Service.RoomLockRegistry;
+import MeetingScheduler.service.Service.ShardedBookingService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Measures booking throughput as the number of booking threads grows,
+ * comparing lock registry layouts and locking vs optimistic booking. Each
+ * operation tries to book a random room for a random half-hour slot;
+ * conflicts count as completed operations. The contended scenario sends all
+ * threads at a handful of popular rooms. The batch scenario books weekly
+ * recurring slots one call at a time versus through a single bookAll call.
+ * The sharded scenario spreads the rooms over ten locations, each booked
+ * on its own shard thread.
+ *
+ * Usage: BookingThroughputBenchmark [rooms] [bookingsPerThread] [maxThreads] [hotRooms]
+ *
+ * @author Meeting Room Platform Team
+ * @version 1.0
+ */
+public class BookingThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int rooms = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int bookingsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int hotRooms = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        System.out.println("Rooms: " + rooms + ", bookings per thread: " + bookingsPerThread +
+                ", available processors: " + Runtime.getRuntime().availableProcessors());
+        run("single global lock", () -> RoomLockRegistry.striped(1), ConcurrencyMode.LOCKING,
+                rooms, bookingsPerThread, maxThreads);
+        run("striped (256)", () -> RoomLockRegistry.striped(256), ConcurrencyMode.LOCKING,
+                rooms, bookingsPerThread, maxThreads);
+        run("per-room", RoomLockRegistry::perRoom, ConcurrencyMode.LOCKING,
+                rooms, bookingsPerThread, maxThreads);
+        run("optimistic", RoomLockRegistry::perRoom, ConcurrencyMode.OPTIMISTIC,
+                rooms, bookingsPerThread, maxThreads);
+
+        run("contended " + hotRooms + " rooms, per-room lock", RoomLockRegistry::perRoom, ConcurrencyMode.LOCKING,
+                hotRooms, bookingsPerThread, maxThreads);
+        run("contended " + hotRooms + " rooms, optimistic", RoomLockRegistry::perRoom, ConcurrencyMode.OPTIMISTIC,
+                hotRooms, bookingsPerThread, maxThreads);
+
+        runSharded(rooms, bookingsPerThread, maxThreads);
+
+        System.out.println("\n--- batches of 10 weekly slots ---");
+        for (int round = 0; round < 2; round++) {
+            for (ConcurrencyMode mode : ConcurrencyMode.values()) {
+                // First round only warms up the JIT
+                runBatches(mode, rooms, bookingsPerThread / 10, 10, round > 0);
+            }
+        }
+    }
+
+    private static void runBatches(ConcurrencyMode mode, int rooms, int batches, int batchSize, boolean print) {
+        LocalDateTime firstSlot = LocalDate.now().plusDays(1).atStartOfDay();
+        BookingService single = newBookingService(RoomLockRegistry.perRoom(), mode, rooms, 1);
+        BookingService batched = newBookingService(RoomLockRegistry.perRoom(), mode, rooms, 1);
+
+        long start = System.nanoTime();
+        for (int b = 0; b < batches; b++) {
+            for (BookingRequest request : weeklyRequests(b, rooms, batchSize, firstSlot)) {
+                single.bookRoom("BENCH-0", request.getRoomId(), request.getStartTime(), request.getEndTime());
+            }
+        }
+        double separateSeconds = (System.nanoTime() - start) / 1e9;
+
+        start = System.nanoTime();
+        for (int b = 0; b < batches; b++) {
+            batched.bookAll("BENCH-0", weeklyRequests(b, rooms, batchSize, firstSlot));
+        }
+        double batchSeconds = (System.nanoTime() - start) / 1e9;
+
+        if (!print) {
+            return;
+        }
+        long total = (long) batches * batchSize;
+        System.out.printf("%-10s separate calls: %,10.0f bookings/s, bookAll: %,10.0f bookings/s%n",
+                mode, total / separateSeconds, total / batchSeconds);
+    }
+
+    // Batch b books one room at the same half hour for batchSize consecutive weeks
+    private static List<BookingRequest> weeklyRequests(int b, int rooms, int batchSize, LocalDateTime firstSlot) {
+        String roomId = "ROOM-" + (b % rooms);
+        LocalDateTime start = firstSlot.plusMinutes(30L * (b / rooms % (7 * 48)));
+        List<BookingRequest> requests = new ArrayList<>(batchSize);
+        for (int week = 0; week < batchSize; week++) {
+            LocalDateTime slot = start.plusWeeks(week + (long) batchSize * (b / rooms / (7 * 48)));
+            requests.add(new BookingRequest(roomId, slot, slot.plusMinutes(30)));
+        }
+        return requests;
+    }
+
+    private static void run(String label, Supplier<RoomLockRegistry> registry, ConcurrencyMode mode,
+            int rooms, int bookingsPerThread, int maxThreads) throws Exception {
+        System.out.println("\n--- " + label + " ---");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            BookingService bookingService = newBookingService(registry.get(), mode, rooms, threads);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            LocalDateTime firstSlot = LocalDate.now().plusDays(1).atStartOfDay();
+
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String employeeId = "BENCH-" + t;
+                results.add(executor.submit(
+                        () -> book(bookingService, employeeId, rooms, bookingsPerThread, firstSlot)));
+            }
+            int booked = 0;
+            for (Future<Integer> result : results) {
+                booked += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            executor.shutdown();
+
+            long operations = (long) threads * bookingsPerThread;
+            System.out.printf("%2d threads: %,10.0f bookings/s (%d booked, %d conflicts)%n",
+                    threads, operations / seconds, booked, operations - booked);
+        }
+    }
+
+    private static void runSharded(int rooms, int bookingsPerThread, int maxThreads) throws Exception {
+        System.out.println("\n--- sharded by location (10 shards) ---");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            EmployeeService employeeService = new EmployeeService(new EmployeeRepository());
+            for (int i = 0; i < threads; i++) {
+                employeeService.createEmployee("BENCH-" + i, "Benchmark User " + i, "bench" + i + "@company.com");
+            }
+            ShardedBookingService sharded = new ShardedBookingService(employeeService);
+            for (int i = 0; i < rooms; i++) {
+                sharded.createRoom("ROOM-" + i, "Room " + i, 4 + i % 20, "Floor " + (i % 10));
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            LocalDateTime firstSlot = LocalDate.now().plusDays(1).atStartOfDay();
+
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String employeeId = "BENCH-" + t;
+                results.add(executor.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int booked = 0;
+                    for (int i = 0; i < bookingsPerThread; i++) {
+                        LocalDateTime slot = firstSlot.plusMinutes(30L * random.nextInt(365 * 48));
+                        try {
+                            sharded.bookRoom(employeeId, "ROOM-" + random.nextInt(rooms), slot, slot.plusMinutes(30));
+                            booked++;
+                        } catch (RoomNotAvailableException e) {
+                            // conflict: still a completed booking attempt
+                        }
+                    }
+                    return booked;
+                }));
+            }
+            int booked = 0;
+            for (Future<Integer> result : results) {
+                booked += result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            executor.shutdown();
+            sharded.close();
+
+            long operations = (long) threads * bookingsPerThread;
+            System.out.printf("%2d threads: %,10.0f bookings/s (%d booked, %d conflicts)%n",
+                    threads, operations / seconds, booked, operations - booked);
+        }
+    }
+
+    private static BookingService newBookingService(RoomLockRegistry registry, ConcurrencyMode mode,
+            int rooms, int employees) {
+        EmployeeService employeeService = new EmployeeService(new EmployeeRepository());
+        MeetingRoomService roomService = new MeetingRoomService(new MeetingRoomRepository());
+        // One employee per thread: the employee booking index is not built for concurrent writers
+        for (int i = 0; i < employees; i++) {
+            employeeService.createEmployee("BENCH-" + i, "Benchmark User " + i, "bench" + i + "@company.com");
+        }
+        for (int i = 0; i < rooms; i++) {
+            roomService.createRoom("ROOM-" + i, "Room " + i, 4 + i % 20, "Floor " + (i % 10));
+        }
+        return new BookingService(new BookingRepository(), employeeService, roomService, registry, mode);
+    }
+
+    private static int book(BookingService bookingService, String employeeId, int rooms, int count,
+            LocalDateTime firstSlot) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int booked = 0;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = firstSlot.plusMinutes(30L * random.nextInt(365 * 48));
+            try {
+                bookingService.bookRoom(employeeId, "ROOM-" + random.nextInt(rooms), start, start.plusMinutes(30));
+                booked++;
+            } catch (RoomNotAvailableException e) {
+                // conflict: still a completed booking attempt
+            }
+        }
+        return booked;
+    }
+}
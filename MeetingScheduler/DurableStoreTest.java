@@ -0,0 +1,226 @@
+package MeetingScheduler;
+
+import MeetingScheduler.domain.*;
+import MeetingScheduler.domain.Constants.BookingStatus;
+import MeetingScheduler.domain.Constants.ConcurrencyMode;
+import MeetingScheduler.repository.Persistence.DurableStore;
+import MeetingScheduler.repository.Repo.*;
+import MeetingScheduler.service.Service.*;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Recovery tests for the write-ahead log and snapshots behind
+ * {@link DurableStore}. Each test writes through a store, closes it, damages
+ * or keeps the files, then reopens the directory into fresh repositories.
+ */
+public class DurableStoreTest {
+
+    private Path directory;
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("durable-store-test");
+        baseTime = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /** Fresh repositories and services over one open store. */
+    private class Store implements AutoCloseable {
+        final EmployeeRepository employees = new EmployeeRepository();
+        final MeetingRoomRepository rooms = new MeetingRoomRepository();
+        final BookingRepository bookings = new BookingRepository();
+        final RecurringSeriesRepository series = new RecurringSeriesRepository();
+        final BookingArchive archive = new BookingArchive();
+        final DurableStore store;
+        final BookingService bookingService;
+
+        Store() throws IOException {
+            store = DurableStore.open(directory, employees, rooms, bookings, series, archive, 0);
+            EmployeeService employeeService = new EmployeeService(employees);
+            MeetingRoomService roomService = new MeetingRoomService(rooms);
+            bookingService = new BookingService(bookings, series, employeeService, roomService,
+                    RoomLockRegistry.perRoom(), ConcurrencyMode.LOCKING);
+        }
+
+        Booking book(String roomId, int hour) {
+            return bookingService.bookRoom("EMP1", roomId, baseTime.plusHours(hour), baseTime.plusHours(hour + 1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            store.close();
+        }
+    }
+
+    private void deleteDirectory() throws IOException {
+        tearDown();
+    }
+
+    private Store seed() throws IOException {
+        Store store = new Store();
+        store.employees.save(new Employee("EMP1", "Test Employee", "emp1@company.com"));
+        store.rooms.save(new MeetingRoom("ROOM1", "Room 1", 10, "Floor 1"));
+        store.rooms.save(new MeetingRoom("ROOM2", "Room 2", 4, "Floor 2"));
+        return store;
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private Path lastSegment() throws IOException {
+        List<Path> segments = files("wal-");
+        assertFalse(segments.isEmpty(), "Expected at least one log segment");
+        return segments.get(segments.size() - 1);
+    }
+
+    // ========== Snapshot Tests ==========
+
+    @Test
+    @DisplayName("Snapshot round-trip restores every repository")
+    void testSnapshotRoundTrip() throws IOException {
+        String kept;
+        String cancelled;
+        try (Store store = seed()) {
+            kept = store.book("ROOM1", 0).getBookingId();
+            cancelled = store.book("ROOM2", 1).getBookingId();
+            store.bookingService.cancelBooking(cancelled);
+            store.store.snapshot();
+        }
+        assertEquals(1, files("snapshot-").size());
+
+        try (Store recovered = new Store()) {
+            assertTrue(recovered.employees.findById("EMP1").isPresent());
+            assertEquals(2, recovered.rooms.findAll().size());
+            assertEquals(4, recovered.rooms.findById("ROOM2").get().getCapacity());
+            assertEquals(BookingStatus.ACTIVE, recovered.bookings.findById(kept).get().getStatus());
+            assertEquals(BookingStatus.CANCELLED, recovered.bookings.findById(cancelled).get().getStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Log segments written after a snapshot are replayed on top of it")
+    void testReplayAfterSnapshot() throws IOException {
+        String beforeSnapshot;
+        String afterSnapshot;
+        try (Store store = seed()) {
+            beforeSnapshot = store.book("ROOM1", 0).getBookingId();
+            store.store.snapshot();
+            afterSnapshot = store.book("ROOM1", 2).getBookingId();
+            store.bookingService.cancelBooking(beforeSnapshot);
+        }
+
+        try (Store recovered = new Store()) {
+            assertEquals(BookingStatus.CANCELLED, recovered.bookings.findById(beforeSnapshot).get().getStatus());
+            assertEquals(BookingStatus.ACTIVE, recovered.bookings.findById(afterSnapshot).get().getStatus());
+            // The recovered calendar still rejects a double booking
+            assertThrows(RuntimeException.class, () -> recovered.book("ROOM1", 2));
+        }
+    }
+
+    // ========== Damaged Log Tests ==========
+
+    @Test
+    @DisplayName("A torn record at the end of the log is dropped and earlier records survive")
+    void testTornTail() throws IOException {
+        String booked;
+        try (Store store = seed()) {
+            booked = store.book("ROOM1", 0).getBookingId();
+        }
+        Path segment = lastSegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        // A full record header and part of its body, as left by a crash mid-write
+        ByteBuffer torn = ByteBuffer.allocate(10).putInt(64).put(new byte[6]);
+        Files.write(segment, torn.array(), StandardOpenOption.APPEND);
+        assertEquals(bytes.length + 10, Files.size(segment));
+
+        try (Store recovered = new Store()) {
+            assertTrue(recovered.bookings.findById(booked).isPresent());
+            assertEquals(2, recovered.rooms.findAll().size());
+            // The reopened store keeps logging after the damaged tail
+            recovered.book("ROOM1", 3);
+        }
+    }
+
+    @Test
+    @DisplayName("A record length near Integer.MAX_VALUE ends replay instead of allocating it")
+    void testCorruptLength() throws IOException {
+        String booked;
+        try (Store store = seed()) {
+            booked = store.book("ROOM2", 0).getBookingId();
+        }
+        ByteBuffer garbage = ByteBuffer.allocate(12).putInt(0x7ffffffe).putInt(0).putInt(0);
+        Files.write(lastSegment(), garbage.array(), StandardOpenOption.APPEND);
+
+        try (Store recovered = new Store()) {
+            assertTrue(recovered.bookings.findById(booked).isPresent());
+            assertTrue(recovered.employees.findById("EMP1").isPresent());
+        }
+    }
+
+    @Test
+    @DisplayName("A record whose checksum does not match ends replay of its segment")
+    void testCorruptChecksum() throws IOException {
+        String first;
+        try (Store store = seed()) {
+            first = store.book("ROOM1", 0).getBookingId();
+            store.store.awaitDurable();
+            store.book("ROOM1", 1);
+        }
+        Path segment = lastSegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        // Flip the last checksum byte, which belongs to the second booking
+        bytes[bytes.length - 1] ^= 0x5a;
+        Files.write(segment, bytes);
+
+        try (Store recovered = new Store()) {
+            assertTrue(recovered.bookings.findById(first).isPresent());
+            assertEquals(1, recovered.bookings.findAll().size());
+        }
+    }
+
+    // ========== Log Failure Tests ==========
+
+    @Test
+    @DisplayName("A failed rotation fails the log, which then refuses every change")
+    void testFailedRotationFailsLog() throws IOException {
+        Store store = seed();
+        store.book("ROOM1", 0);
+        store.store.awaitDurable();
+        // The open segment survives, but the next one cannot be created
+        deleteDirectory();
+
+        assertThrows(IOException.class, store.store::snapshot);
+        assertThrows(UncheckedIOException.class, store.store::checkWritable);
+        assertThrows(UncheckedIOException.class, () -> store.book("ROOM2", 1));
+        assertThrows(IOException.class, store::close);
+    }
+}
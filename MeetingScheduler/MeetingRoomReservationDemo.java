@@ -1,11 +1,18 @@
 package MeetingScheduler;
 
 import MeetingScheduler.domain.Booking;
+import MeetingScheduler.domain.Constants;
 import MeetingScheduler.domain.MeetingRoom;
+import MeetingScheduler.domain.Page;
+import MeetingScheduler.domain.RecurrenceRule;
+import MeetingScheduler.domain.RecurringSeries;
+import MeetingScheduler.domain.WaitlistEntry;
 
 import MeetingScheduler.exception.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -34,10 +41,12 @@ public class MeetingRoomReservationDemo {
             demonstrateOverlappingBookings();
             demonstrateAvailableRooms();
             demonstrateBookingCancellation();
+            demonstrateRecurringBookings();
             demonstrateListOperations();
 
             // Demonstrate concurrency handling
             demonstrateConcurrentBookings();
+            demonstrateMetrics();
 
             System.out.println("\n=== Demo completed successfully ===");
 
@@ -134,6 +143,18 @@ public class MeetingRoomReservationDemo {
         System.out.println("  Available rooms: " + availableRooms.size());
         availableRooms.forEach(
                 room -> System.out.println("    - " + room.getName() + " (Capacity: " + room.getCapacity() + ")"));
+
+        // Best free rooms for 5 people, preferring Floor 1
+        System.out.println("✓ Suggested rooms for 5 attendees on Floor 1:");
+        facade.suggestRooms(start, end, 5, "Floor 1", 2)
+                .forEach(suggestion -> System.out.println("    - " + suggestion));
+
+        // Earliest hour-long slots when Alice and Bob are both free in ROOM-A or ROOM-B
+        System.out.println("✓ Common free slots for EMP001 and EMP002:");
+        facade.findCommonFreeSlots(Arrays.asList("EMP001", "EMP002"), Arrays.asList("ROOM-A", "ROOM-B"),
+                start, start.plusHours(4), Duration.ofHours(1), 3)
+                .forEach(slot -> System.out.println("    - " + slot.getRoomId() + " "
+                        + slot.getStartTime() + " to " + slot.getEndTime()));
         System.out.println();
     }
 
@@ -150,10 +171,16 @@ public class MeetingRoomReservationDemo {
         System.out.println("✓ Created booking: " + booking.getBookingId());
         System.out.println("  Status: " + booking.getStatus());
 
+        // EMP001 waits for the same slot
+        WaitlistEntry waiting = facade.joinWaitlist("EMP001", "ROOM-C", start, end, 1);
+        System.out.println("✓ EMP001 joined the waitlist: " + waiting.getStatus());
+
         facade.cancelBooking(booking.getBookingId());
         Booking cancelled = facade.getBooking(booking.getBookingId());
         System.out.println("✓ Cancelled booking: " + cancelled.getBookingId());
         System.out.println("  New status: " + cancelled.getStatus());
+        System.out.println("✓ Waitlist entry after cancellation: " + waiting.getStatus()
+                + " (booking " + waiting.getBookingId() + ")");
 
         // Try to cancel again (should fail)
         try {
@@ -165,6 +192,44 @@ public class MeetingRoomReservationDemo {
         System.out.println();
     }
 
+    /**
+     * Demonstrates weekly recurring meetings and their conflict checks.
+     */
+    private static void demonstrateRecurringBookings() {
+        System.out.println("--- Demonstrating Recurring Bookings ---");
+
+        LocalDateTime start = LocalDateTime.now().plusDays(7).withHour(16).withMinute(0);
+        LocalDateTime end = start.plusHours(1);
+
+        RecurringSeries series = facade.bookRecurring("EMP002", "ROOM-C", start, end, RecurrenceRule.weekly(52));
+        System.out.println("✓ Booked series: " + series.getSeriesId() + " (" + series.getRule() + ")");
+        System.out.println("  Occurrences: " + series.getOccurrenceCount() + ", last ends " + series.getLastEnd());
+        facade.listOccurrences(series.getSeriesId(), start, start.plusWeeks(3))
+                .forEach(slot -> System.out.println("    - " + slot));
+
+        // One-off booking colliding with the 10th occurrence (should fail)
+        try {
+            facade.bookRoom("EMP001", "ROOM-C", start.plusWeeks(9).plusMinutes(30), end.plusWeeks(9).plusMinutes(30));
+            System.out.println("✗ Should have failed but didn't!");
+        } catch (RoomNotAvailableException e) {
+            System.out.println("✓ One-off booking over an occurrence prevented: " + e.getMessage());
+        }
+
+        // Overlapping every-other-week series (should fail)
+        try {
+            facade.bookRecurring("EMP003", "ROOM-C", start.plusWeeks(2), end.plusWeeks(2),
+                    RecurrenceRule.count(Constants.RecurrenceFrequency.WEEKLY, 2, 10));
+            System.out.println("✗ Should have failed but didn't!");
+        } catch (RoomNotAvailableException e) {
+            System.out.println("✓ Conflicting series prevented");
+        }
+
+        facade.cancelSeries(series.getSeriesId());
+        Booking freed = facade.bookRoom("EMP001", "ROOM-C", start.plusWeeks(9), end.plusWeeks(9));
+        System.out.println("✓ After cancelling the series, booked: " + freed.getTimeSlot());
+        System.out.println();
+    }
+
     /**
      * Demonstrates listing bookings for rooms and employees.
      */
@@ -184,6 +249,16 @@ public class MeetingRoomReservationDemo {
         List<Booking> employeeBookings = facade.listBookingsForEmployee("EMP001");
         System.out.println("✓ All bookings for EMP001: " + employeeBookings.size());
         employeeBookings.forEach(b -> System.out.println("    - Room: " + b.getRoomId() + ", " + b.getTimeSlot()));
+
+        // Page through all bookings two at a time
+        System.out.println("✓ All bookings, two per page:");
+        String cursor = null;
+        int pageNumber = 1;
+        do {
+            Page<Booking> page = facade.pageBookings(null, null, null, null, cursor, 2);
+            System.out.println("    Page " + pageNumber++ + ": " + page.getItems().size() + " booking(s)");
+            cursor = page.getNextCursor();
+        } while (cursor != null);
         System.out.println();
     }
 
@@ -224,4 +299,13 @@ public class MeetingRoomReservationDemo {
         }
         System.out.println();
     }
+
+    /**
+     * Demonstrates booking metrics: latencies, room lock times, conflict rate and hot rooms.
+     */
+    private static void demonstrateMetrics() {
+        System.out.println("--- Demonstrating Booking Metrics ---");
+        System.out.print(facade.getMetrics(3));
+        System.out.println();
+    }
 }
\ No newline at end of file
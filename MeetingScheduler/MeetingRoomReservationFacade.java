@@ -1,17 +1,44 @@
 package MeetingScheduler;
 
 import MeetingScheduler.domain.Booking;
+import MeetingScheduler.domain.BookingRequest;
 import MeetingScheduler.domain.Employee;
 import MeetingScheduler.domain.MeetingRoom;
+import MeetingScheduler.domain.Page;
+import MeetingScheduler.domain.RecurrenceRule;
+import MeetingScheduler.domain.RecurringSeries;
+import MeetingScheduler.domain.RoomSuggestion;
+import MeetingScheduler.domain.TimeSlot;
+import MeetingScheduler.domain.WaitlistEntry;
+import MeetingScheduler.repository.Repo.BookingArchive;
 import MeetingScheduler.repository.Repo.BookingRepository;
 import MeetingScheduler.repository.Repo.EmployeeRepository;
 import MeetingScheduler.repository.Repo.MeetingRoomRepository;
+import MeetingScheduler.repository.Repo.RecurringSeriesRepository;
+import MeetingScheduler.repository.Repo.WaitlistRepository;
+import MeetingScheduler.repository.Persistence.DurableStore;
+import MeetingScheduler.service.Service.BookingLifecycleScheduler;
+import MeetingScheduler.service.Service.BookingMetrics;
 import MeetingScheduler.service.Service.BookingService;
 import MeetingScheduler.service.Service.EmployeeService;
+import MeetingScheduler.service.Service.FreeBusyService;
 import MeetingScheduler.service.Service.MeetingRoomService;
+import MeetingScheduler.service.Service.RoomLockRegistry;
+import MeetingScheduler.service.Service.RoomRecommendationService;
+import MeetingScheduler.service.Service.ShardedBookingService;
+import MeetingScheduler.domain.Constants.ConcurrencyMode;
+import MeetingScheduler.exception.EntityNotFoundException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Facade pattern implementation for the Meeting Room Reservation System.
@@ -25,26 +52,123 @@ import java.util.List;
  */
 public class MeetingRoomReservationFacade {
 
+    /** System property naming the directory for durable storage; unset means in-memory only. */
+    public static final String DATA_DIR_PROPERTY = "meetingscheduler.dataDir";
+    /** System property giving seconds between metrics snapshots printed to stdout; unset means none. */
+    public static final String METRICS_INTERVAL_PROPERTY = "meetingscheduler.metricsIntervalSeconds";
+    /**
+     * System property that, set to true, partitions rooms by location into
+     * shards with one thread each (see {@link ShardedBookingService}). Sharded
+     * state is in-memory only, so it cannot be combined with a data directory.
+     */
+    public static final String SHARDED_PROPERTY = "meetingscheduler.shardByLocation";
+    private static final int METRICS_TOP_ROOMS = 5;
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 300;
+    private static final Duration LIFECYCLE_TICK = Duration.ofMinutes(1);
+    private static final Duration ARCHIVE_RETENTION = Duration.ofDays(1);
+
     private static volatile MeetingRoomReservationFacade instance;
 
     private final BookingService bookingService;
     private final EmployeeService employeeService;
     private final MeetingRoomService roomService;
+    private final RoomRecommendationService recommendationService;
+    private final FreeBusyService freeBusyService;
+    private final BookingLifecycleScheduler lifecycleScheduler;
+    private final BookingMetrics metrics;
+    private final DurableStore durableStore;
+    // Set when sharding by location; the single-repository services above are then null
+    private final ShardedBookingService sharded;
 
     /**
      * Private constructor for Singleton pattern.
-     * Initializes all services with their dependencies.
+     * Initializes all services with their dependencies, restoring state
+     * from the data directory first if one is configured.
      */
     private MeetingRoomReservationFacade() {
+        if (Boolean.getBoolean(SHARDED_PROPERTY)) {
+            if (System.getProperty(DATA_DIR_PROPERTY) != null) {
+                throw new IllegalStateException(SHARDED_PROPERTY + " cannot be combined with " + DATA_DIR_PROPERTY);
+            }
+            this.employeeService = new EmployeeService(new EmployeeRepository());
+            this.metrics = new BookingMetrics();
+            this.sharded = new ShardedBookingService(employeeService, metrics, Clock.systemDefaultZone(),
+                    LIFECYCLE_TICK, ARCHIVE_RETENTION);
+            sharded.start();
+            this.roomService = null;
+            this.bookingService = null;
+            this.recommendationService = null;
+            this.freeBusyService = null;
+            this.lifecycleScheduler = null;
+            this.durableStore = null;
+            startMetricsExportIfConfigured();
+            return;
+        }
+        this.sharded = null;
+
         // Initialize repositories
         EmployeeRepository employeeRepo = new EmployeeRepository();
         MeetingRoomRepository roomRepo = new MeetingRoomRepository();
         BookingRepository bookingRepo = new BookingRepository();
+        RecurringSeriesRepository seriesRepo = new RecurringSeriesRepository();
+        BookingArchive archive = new BookingArchive();
+
+        String dataDir = System.getProperty(DATA_DIR_PROPERTY);
+        if (dataDir != null) {
+            try {
+                this.durableStore = DurableStore.open(Paths.get(dataDir), employeeRepo, roomRepo, bookingRepo,
+                        seriesRepo, archive, SNAPSHOT_INTERVAL_SECONDS);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open data directory " + dataDir, e);
+            }
+        } else {
+            this.durableStore = null;
+        }
 
         // Initialize services
         this.employeeService = new EmployeeService(employeeRepo);
         this.roomService = new MeetingRoomService(roomRepo);
-        this.bookingService = new BookingService(bookingRepo, employeeService, roomService);
+        this.metrics = new BookingMetrics();
+        Clock clock = Clock.systemDefaultZone();
+        this.bookingService = new BookingService(bookingRepo, seriesRepo, new WaitlistRepository(), employeeService,
+                roomService, RoomLockRegistry.perRoom(), ConcurrencyMode.LOCKING, metrics, clock);
+        this.recommendationService = new RoomRecommendationService(roomRepo, bookingRepo, bookingService);
+        this.freeBusyService = new FreeBusyService(bookingRepo, seriesRepo, employeeService, roomService);
+
+        // Complete bookings as they end and archive them a day later
+        this.lifecycleScheduler = new BookingLifecycleScheduler(bookingService, bookingRepo, archive,
+                clock, LIFECYCLE_TICK, ARCHIVE_RETENTION);
+        lifecycleScheduler.start();
+        startMetricsExportIfConfigured();
+    }
+
+    private void startMetricsExportIfConfigured() {
+        String metricsInterval = System.getProperty(METRICS_INTERVAL_PROPERTY);
+        if (metricsInterval != null) {
+            metrics.startExport(Duration.ofSeconds(Long.parseLong(metricsInterval)), METRICS_TOP_ROOMS,
+                    System.out::print);
+        }
+    }
+
+    /**
+     * Waits for the calling thread's changes to reach the write-ahead log on
+     * disk (shared group commit) before handing the result back.
+     */
+    private <T> T durable(T result) {
+        if (durableStore != null) {
+            durableStore.awaitDurable();
+        }
+        return result;
+    }
+
+    /**
+     * Refuses a change up front once the write-ahead log has failed, rather
+     * than applying it in memory and failing afterwards.
+     */
+    private void checkWritable() {
+        if (durableStore != null) {
+            durableStore.checkWritable();
+        }
     }
 
     /**
@@ -75,7 +199,8 @@ public class MeetingRoomReservationFacade {
      * @return the created employee
      */
     public Employee createEmployee(String employeeId, String name, String email) {
-        return employeeService.createEmployee(employeeId, name, email);
+        checkWritable();
+        return durable(employeeService.createEmployee(employeeId, name, email));
     }
 
     /**
@@ -110,7 +235,11 @@ public class MeetingRoomReservationFacade {
      */
     public MeetingRoom createMeetingRoom(
             String roomId, String name, int capacity, String location) {
-        return roomService.createRoom(roomId, name, capacity, location);
+        if (sharded != null) {
+            return sharded.createRoom(roomId, name, capacity, location);
+        }
+        checkWritable();
+        return durable(roomService.createRoom(roomId, name, capacity, location));
     }
 
     /**
@@ -120,7 +249,7 @@ public class MeetingRoomReservationFacade {
      * @return the meeting room
      */
     public MeetingRoom getMeetingRoom(String roomId) {
-        return roomService.getRoom(roomId);
+        return sharded != null ? sharded.getRoom(roomId) : roomService.getRoom(roomId);
     }
 
     /**
@@ -129,7 +258,7 @@ public class MeetingRoomReservationFacade {
      * @return list of all meeting rooms
      */
     public List<MeetingRoom> getAllMeetingRooms() {
-        return roomService.getAllRooms();
+        return sharded != null ? sharded.getAllRooms() : roomService.getAllRooms();
     }
 
     /**
@@ -139,7 +268,7 @@ public class MeetingRoomReservationFacade {
      * @return list of suitable rooms
      */
     public List<MeetingRoom> getRoomsByCapacity(int minCapacity) {
-        return roomService.getRoomsByCapacity(minCapacity);
+        return sharded != null ? sharded.getRoomsByCapacity(minCapacity) : roomService.getRoomsByCapacity(minCapacity);
     }
 
     /**
@@ -149,7 +278,7 @@ public class MeetingRoomReservationFacade {
      * @return list of rooms at location
      */
     public List<MeetingRoom> getRoomsByLocation(String location) {
-        return roomService.getRoomsByLocation(location);
+        return sharded != null ? sharded.getRoomsByLocation(location) : roomService.getRoomsByLocation(location);
     }
 
     // ========== Core Booking Operations ==========
@@ -173,7 +302,27 @@ public class MeetingRoomReservationFacade {
             String roomId,
             LocalDateTime startTime,
             LocalDateTime endTime) {
-        return bookingService.bookRoom(employeeId, roomId, startTime, endTime);
+        if (sharded != null) {
+            return sharded.bookRoom(employeeId, roomId, startTime, endTime);
+        }
+        checkWritable();
+        return durable(bookingService.bookRoom(employeeId, roomId, startTime, endTime));
+    }
+
+    /**
+     * Books several rooms and/or time slots atomically.
+     * Either all bookings are created or none is.
+     * 
+     * @param employeeId ID of employee making the bookings
+     * @param requests   the rooms and intervals to book
+     * @return the created bookings, in request order
+     */
+    public List<Booking> bookRooms(String employeeId, List<BookingRequest> requests) {
+        if (sharded != null) {
+            return sharded.bookAll(employeeId, requests);
+        }
+        checkWritable();
+        return durable(bookingService.bookAll(employeeId, requests));
     }
 
     /**
@@ -187,9 +336,80 @@ public class MeetingRoomReservationFacade {
     public List<MeetingRoom> getAvailableRooms(
             LocalDateTime startTime,
             LocalDateTime endTime) {
+        if (sharded != null) {
+            return sharded.getAvailableRooms(startTime, endTime);
+        }
         return bookingService.getAvailableRooms(startTime, endTime);
     }
 
+    /**
+     * Finds available rooms with at least the given capacity at a location.
+     * 
+     * @param startTime   start time of desired interval
+     * @param endTime     end time of desired interval
+     * @param minCapacity minimum capacity needed
+     * @param location    required location, or null for any
+     * @return list of matching available rooms
+     */
+    public List<MeetingRoom> findAvailableRooms(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            int minCapacity,
+            String location) {
+        if (sharded != null) {
+            return sharded.findAvailableRooms(startTime, endTime, minCapacity, location);
+        }
+        return bookingService.findAvailableRooms(startTime, endTime, minCapacity, location);
+    }
+
+    /**
+     * Suggests the best free rooms for a meeting, ranked by capacity fit,
+     * preferred location and recent utilization.
+     * 
+     * @param startTime         start time of the meeting
+     * @param endTime           end time of the meeting
+     * @param attendees         number of seats needed
+     * @param preferredLocation location to favour, or null for no preference
+     * @param limit             maximum number of suggestions
+     * @return suggestions, best first
+     */
+    public List<RoomSuggestion> suggestRooms(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            int attendees,
+            String preferredLocation,
+            int limit) {
+        if (sharded != null) {
+            return sharded.suggestRooms(startTime, endTime, attendees, preferredLocation, limit);
+        }
+        return recommendationService.suggestRooms(startTime, endTime, attendees, preferredLocation, limit);
+    }
+
+    /**
+     * Finds the earliest times at which all employees and one of the
+     * candidate rooms are free for a meeting of the given length.
+     * 
+     * @param employeeIds the attendees
+     * @param roomIds     candidate rooms, in order of preference
+     * @param from        earliest start of the search window
+     * @param to          latest end of the search window
+     * @param duration    meeting length
+     * @param limit       maximum number of slots
+     * @return slots in time order, each naming a free room
+     */
+    public List<BookingRequest> findCommonFreeSlots(
+            List<String> employeeIds,
+            List<String> roomIds,
+            LocalDateTime from,
+            LocalDateTime to,
+            Duration duration,
+            int limit) {
+        if (sharded != null) {
+            return sharded.findCommonFreeSlots(employeeIds, roomIds, from, to, duration, limit);
+        }
+        return freeBusyService.findCommonFreeSlots(employeeIds, roomIds, from, to, duration, limit);
+    }
+
     /**
      * Cancels an existing booking.
      * 
@@ -199,7 +419,87 @@ public class MeetingRoomReservationFacade {
      *                                                           found
      */
     public Booking cancelBooking(String bookingId) {
-        return bookingService.cancelBooking(bookingId);
+        if (sharded != null) {
+            return sharded.cancelBooking(bookingId);
+        }
+        checkWritable();
+        return durable(bookingService.cancelBooking(bookingId));
+    }
+
+    /**
+     * Marks a booking as completed once the meeting has ended.
+     * 
+     * @param bookingId the booking ID to complete
+     * @return the completed booking
+     */
+    public Booking completeBooking(String bookingId) {
+        if (sharded != null) {
+            return sharded.completeBooking(bookingId);
+        }
+        checkWritable();
+        return durable(bookingService.completeBooking(bookingId));
+    }
+
+    /**
+     * Books a recurring meeting, e.g. every week for a year, as one series.
+     * 
+     * @param employeeId ID of employee making the booking
+     * @param roomId     ID of room to book
+     * @param startTime  start time of the first occurrence
+     * @param endTime    end time of the first occurrence
+     * @param rule       how the first occurrence repeats
+     * @return the created series
+     */
+    public RecurringSeries bookRecurring(
+            String employeeId,
+            String roomId,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            RecurrenceRule rule) {
+        if (sharded != null) {
+            return sharded.bookRecurring(employeeId, roomId, startTime, endTime, rule);
+        }
+        checkWritable();
+        return durable(bookingService.bookRecurring(employeeId, roomId, startTime, endTime, rule));
+    }
+
+    /**
+     * Cancels all occurrences of a recurring series.
+     * 
+     * @param seriesId the series ID to cancel
+     * @return the cancelled series
+     */
+    public RecurringSeries cancelSeries(String seriesId) {
+        if (sharded != null) {
+            return sharded.cancelSeries(seriesId);
+        }
+        checkWritable();
+        return durable(bookingService.cancelSeries(seriesId));
+    }
+
+    /**
+     * Lists the active recurring series of a room.
+     * 
+     * @param roomId the room ID
+     * @return list of active series
+     */
+    public List<RecurringSeries> listSeriesForRoom(String roomId) {
+        return sharded != null ? sharded.listSeriesForRoom(roomId) : bookingService.listSeriesForRoom(roomId);
+    }
+
+    /**
+     * Expands the occurrences of a series within a time window.
+     * 
+     * @param seriesId the series ID
+     * @param from     window start
+     * @param to       window end
+     * @return occurrence time slots in order
+     */
+    public List<TimeSlot> listOccurrences(String seriesId, LocalDateTime from, LocalDateTime to) {
+        if (sharded != null) {
+            return sharded.listOccurrences(seriesId, from, to);
+        }
+        return bookingService.listOccurrences(seriesId, from, to);
     }
 
     /**
@@ -209,7 +509,7 @@ public class MeetingRoomReservationFacade {
      * @return list of bookings for the room
      */
     public List<Booking> listBookingsForRoom(String roomId) {
-        return bookingService.listBookingsForRoom(roomId);
+        return sharded != null ? sharded.listBookingsForRoom(roomId) : bookingService.listBookingsForRoom(roomId);
     }
 
     /**
@@ -219,6 +519,9 @@ public class MeetingRoomReservationFacade {
      * @return list of active bookings for the room
      */
     public List<Booking> listActiveBookingsForRoom(String roomId) {
+        if (sharded != null) {
+            return sharded.listActiveBookingsForRoom(roomId);
+        }
         return bookingService.listActiveBookingsForRoom(roomId);
     }
 
@@ -229,6 +532,9 @@ public class MeetingRoomReservationFacade {
      * @return list of bookings made by employee
      */
     public List<Booking> listBookingsForEmployee(String employeeId) {
+        if (sharded != null) {
+            return sharded.listBookingsForEmployee(employeeId);
+        }
         return bookingService.listBookingsForEmployee(employeeId);
     }
 
@@ -239,17 +545,86 @@ public class MeetingRoomReservationFacade {
      * @return list of active bookings for employee
      */
     public List<Booking> listActiveBookingsForEmployee(String employeeId) {
+        if (sharded != null) {
+            return sharded.listActiveBookingsForEmployee(employeeId);
+        }
         return bookingService.listActiveBookingsForEmployee(employeeId);
     }
 
     /**
-     * Gets a booking by ID.
+     * Lists all bookings starting on a given date.
+     * 
+     * @param date the start date
+     * @return list of bookings starting that day
+     */
+    public List<Booking> listBookingsForDate(LocalDate date) {
+        return sharded != null ? sharded.listBookingsForDate(date) : bookingService.listBookingsForDate(date);
+    }
+
+    /**
+     * Waits for a room's time slot, booking it as soon as it is free.
+     * 
+     * @param employeeId ID of the employee waiting
+     * @param roomId     ID of the room wanted
+     * @param startTime  start time of the meeting
+     * @param endTime    end time of the meeting
+     * @param priority   higher is served first
+     * @return the waitlist entry, already FULFILLED if the slot was free
+     */
+    public WaitlistEntry joinWaitlist(String employeeId, String roomId, LocalDateTime startTime,
+            LocalDateTime endTime, int priority) {
+        if (sharded != null) {
+            return sharded.joinWaitlist(employeeId, roomId, startTime, endTime, priority);
+        }
+        checkWritable();
+        return durable(bookingService.joinWaitlist(employeeId, roomId, startTime, endTime, priority));
+    }
+
+    /**
+     * Withdraws a waiting entry.
+     * 
+     * @param entryId the entry ID
+     * @return the withdrawn entry
+     */
+    public WaitlistEntry leaveWaitlist(String entryId) {
+        return sharded != null ? sharded.leaveWaitlist(entryId) : bookingService.leaveWaitlist(entryId);
+    }
+
+    /**
+     * Gets a waitlist entry by ID.
+     * 
+     * @param entryId the entry ID
+     * @return the entry
+     */
+    public WaitlistEntry getWaitlistEntry(String entryId) {
+        return sharded != null ? sharded.getWaitlistEntry(entryId) : bookingService.getWaitlistEntry(entryId);
+    }
+
+    /**
+     * Lists the waiting entries of a room.
+     * 
+     * @param roomId the room ID
+     * @return list of waiting entries, ordered by start time
+     */
+    public List<WaitlistEntry> listWaitlist(String roomId) {
+        return sharded != null ? sharded.listWaitlist(roomId) : bookingService.listWaitlist(roomId);
+    }
+
+    /**
+     * Gets a booking by ID, looking in the archive if it is no longer live.
      * 
      * @param bookingId the booking ID
      * @return the booking
      */
     public Booking getBooking(String bookingId) {
-        return bookingService.getBooking(bookingId);
+        if (sharded != null) {
+            return sharded.getBooking(bookingId);
+        }
+        try {
+            return bookingService.getBooking(bookingId);
+        } catch (EntityNotFoundException e) {
+            return lifecycleScheduler.findArchived(bookingId).orElseThrow(() -> e);
+        }
     }
 
     /**
@@ -258,6 +633,66 @@ public class MeetingRoomReservationFacade {
      * @return list of all bookings
      */
     public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+        return sharded != null ? sharded.getAllBookings() : bookingService.getAllBookings();
+    }
+
+    /**
+     * Lazily streams live bookings in start-time order for exports.
+     * 
+     * @param roomId     room to restrict to, or null for all rooms
+     * @param employeeId employee to restrict to, or null for all employees
+     * @param from       earliest start (inclusive), or null
+     * @param to         latest start (exclusive), or null
+     * @return stream of bookings ordered by start time
+     */
+    public Stream<Booking> streamBookings(String roomId, String employeeId, LocalDateTime from, LocalDateTime to) {
+        if (sharded != null) {
+            return sharded.streamBookings(roomId, employeeId, from, to);
+        }
+        return bookingService.streamBookings(roomId, employeeId, from, to);
+    }
+
+    /**
+     * Returns one page of live bookings in start-time order.
+     * 
+     * @param roomId     room to restrict to, or null for all rooms
+     * @param employeeId employee to restrict to, or null for all employees
+     * @param from       earliest start (inclusive), or null
+     * @param to         latest start (exclusive), or null
+     * @param cursor     cursor from the previous page, or null for the first page
+     * @param pageSize   maximum number of bookings in the page
+     * @return the page
+     */
+    public Page<Booking> pageBookings(String roomId, String employeeId, LocalDateTime from, LocalDateTime to,
+            String cursor, int pageSize) {
+        if (sharded != null) {
+            return sharded.pageBookings(roomId, employeeId, from, to, cursor, pageSize);
+        }
+        return bookingService.pageBookings(roomId, employeeId, from, to, cursor, pageSize);
+    }
+
+    // ========== Metrics ==========
+
+    /**
+     * Takes a snapshot of booking latencies, room lock wait and hold times,
+     * the conflict rate and the most requested rooms.
+     * 
+     * @param topRooms how many of the most requested rooms to include
+     * @return the snapshot, cumulative since startup
+     */
+    public BookingMetrics.Snapshot getMetrics(int topRooms) {
+        return metrics.snapshot(topRooms);
+    }
+
+    /**
+     * Exports a metrics snapshot at a fixed interval, replacing any export
+     * started earlier.
+     * 
+     * @param interval time between snapshots
+     * @param topRooms how many of the most requested rooms to include
+     * @param sink     receives each snapshot
+     */
+    public void startMetricsExport(Duration interval, int topRooms, Consumer<BookingMetrics.Snapshot> sink) {
+        metrics.startExport(interval, topRooms, sink);
     }
 }
\ No newline at end of file
@@ -3,13 +3,17 @@ package MeetingScheduler;
 import MeetingScheduler.domain.*;
 import MeetingScheduler.facade.MeetingRoomReservationFacade;
 import MeetingScheduler.exception.*;
+import MeetingScheduler.repository.Repo.BookingRepository;
+import MeetingScheduler.repository.Repo.StartOrderedIndex;
 
 import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Comprehensive test suite for Meeting Room Reservation System.
@@ -420,4 +424,79 @@ public class MeetingRoomReservationTest {
         assertTrue(successCount.get() >= 2,
                 "At least 2 bookings should succeed for different rooms");
     }
-}
\ No newline at end of file
+
+    // ========== Secondary Index Tests ==========
+
+    @Test
+    @DisplayName("Booking indexes should stay consistent under concurrent saves and deletes")
+    void testConcurrentIndexMaintenance() throws Exception {
+        BookingRepository repository = new BookingRepository();
+        int threadCount = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new java.util.ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    // All threads share a few rooms, employees and dates to maximize contention
+                    LocalDateTime slotStart = baseTime.plusDays(200 + i % 3).plusSeconds(thread * perThread + i);
+                    Booking booking = new Booking("IDX-" + thread + "-" + i, "TEST_EMP" + (i % 2 + 1),
+                            "TEST_ROOM" + (i % 2 + 1), new TimeSlot(slotStart, slotStart.plusSeconds(1)));
+                    repository.save(booking);
+                    // Iterate while others write; must never throw
+                    repository.findByRoomId(booking.getRoomId());
+                    if (i % 2 == 0) {
+                        repository.deleteById(booking.getBookingId());
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int expected = threadCount * perThread / 2;
+        assertEquals(expected, repository.findAll().size());
+        assertEquals(expected, repository.findByRoomId("TEST_ROOM2").size(),
+                "Only odd bookings use TEST_ROOM2 and none were deleted");
+        assertEquals(0, repository.findByRoomId("TEST_ROOM1").size(),
+                "Every TEST_ROOM1 booking was deleted");
+        assertEquals(expected, repository.findByEmployeeId("TEST_EMP2").size());
+        int byDate = 0;
+        for (int d = 0; d < 3; d++) {
+            byDate += repository.findByDate(baseTime.plusDays(200 + d).toLocalDate()).size();
+        }
+        assertEquals(expected, byDate, "Date index should match the surviving bookings");
+    }
+
+    @Test
+    @DisplayName("A registered index covers existing bookings and tracks later changes")
+    void testRegisteredIndex() {
+        BookingRepository repository = new BookingRepository();
+        LocalDate day = baseTime.plusDays(300).toLocalDate();
+        Booking early = new Booking("REG-1", "TEST_EMP1", "TEST_ROOM1",
+                new TimeSlot(day.atTime(15, 0), day.atTime(16, 0)));
+        repository.save(early);
+
+        StartOrderedIndex<LocalDate> byDay = repository.addIndex(
+                booking -> booking.getTimeSlot().getStartTime().toLocalDate());
+        assertEquals(1, byDay.get(day).size());
+
+        Booking earlier = new Booking("REG-2", "TEST_EMP2", "TEST_ROOM2",
+                new TimeSlot(day.atTime(9, 0), day.atTime(10, 0)));
+        repository.save(earlier);
+        assertEquals(List.of(earlier, early), List.copyOf(byDay.get(day).values()),
+                "Bookings under a key are ordered by start");
+
+        repository.deleteById(early.getBookingId());
+        assertEquals(List.of(earlier), List.copyOf(byDay.get(day).values()));
+        assertTrue(byDay.get(day.plusDays(1)).isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+package MeetingScheduler;
+
+import MeetingScheduler.domain.*;
+import MeetingScheduler.exception.InvalidBookingException;
+import MeetingScheduler.exception.RoomNotAvailableException;
+import MeetingScheduler.repository.Repo.*;
+import MeetingScheduler.service.Service.*;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link ShardedBookingService}: which shard a room lands in, and
+ * how queries spanning locations merge the shards' results.
+ */
+public class ShardedBookingServiceTest {
+
+    private ShardedBookingService service;
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeService employeeService = new EmployeeService(new EmployeeRepository());
+        employeeService.createEmployee("EMP1", "Employee 1", "emp1@company.com");
+        employeeService.createEmployee("EMP2", "Employee 2", "emp2@company.com");
+        service = new ShardedBookingService(employeeService);
+        service.createRoom("A1", "North 1", 4, "North");
+        service.createRoom("A2", "North 2", 8, "NORTH");
+        service.createRoom("B1", "South 1", 6, "South");
+        service.createRoom("B2", "South 2", 12, "south");
+        baseTime = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    // ========== Routing Tests ==========
+
+    @Test
+    @DisplayName("Locations differing only in case share one shard")
+    void testLocationCaseInsensitive() {
+        List<String> locations = service.getLocations();
+        assertEquals(2, locations.size());
+        assertTrue(locations.containsAll(Arrays.asList("north", "south")));
+        assertEquals(2, service.getRoomsByLocation("north").size());
+        assertEquals(2, service.getRoomsByLocation("SOUTH").size());
+        assertTrue(service.getRoomsByLocation("East").isEmpty());
+    }
+
+    @Test
+    @DisplayName("A batch within one location is atomic across rooms whose locations differ in case")
+    void testBatchWithinLocation() {
+        List<Booking> booked = service.bookAll("EMP1", Arrays.asList(
+                new BookingRequest("A1", baseTime, baseTime.plusHours(1)),
+                new BookingRequest("A2", baseTime, baseTime.plusHours(1))));
+        assertEquals(2, booked.size());
+        assertEquals(4, service.getAllRooms().size());
+    }
+
+    @Test
+    @DisplayName("A batch spanning locations is rejected before anything is booked")
+    void testBatchAcrossLocationsRejected() {
+        assertThrows(InvalidBookingException.class, () -> service.bookAll("EMP1", Arrays.asList(
+                new BookingRequest("A1", baseTime, baseTime.plusHours(1)),
+                new BookingRequest("B1", baseTime, baseTime.plusHours(1)))));
+        assertTrue(service.listBookingsForEmployee("EMP1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Operations by booking ID find the shard that owns the booking")
+    void testCancelFindsOwner() {
+        service.bookRoom("EMP1", "A1", baseTime, baseTime.plusHours(1));
+        Booking south = service.bookRoom("EMP1", "B1", baseTime, baseTime.plusHours(1));
+
+        service.cancelBooking(south.getBookingId());
+        assertFalse(service.getBooking(south.getBookingId()).isActive());
+        assertEquals(1, service.listActiveBookingsForEmployee("EMP1").size());
+        // The freed room can be booked again
+        service.bookRoom("EMP2", "B1", baseTime, baseTime.plusHours(1));
+    }
+
+    @Test
+    @DisplayName("Each shard keeps its own calendar")
+    void testShardsIndependent() {
+        service.bookRoom("EMP1", "A1", baseTime, baseTime.plusHours(1));
+        service.bookRoom("EMP2", "B1", baseTime, baseTime.plusHours(1));
+        assertThrows(RoomNotAvailableException.class,
+                () -> service.bookRoom("EMP2", "A1", baseTime.plusMinutes(30), baseTime.plusHours(2)));
+    }
+
+    // ========== Merge Tests ==========
+
+    @Test
+    @DisplayName("Availability merges every shard")
+    void testAvailabilityAcrossShards() {
+        service.bookRoom("EMP1", "A1", baseTime, baseTime.plusHours(1));
+        service.bookRoom("EMP1", "B2", baseTime, baseTime.plusHours(1));
+        Set<String> free = service.getAvailableRooms(baseTime, baseTime.plusHours(1)).stream()
+                .map(MeetingRoom::getRoomId)
+                .collect(Collectors.toSet());
+        assertEquals(new HashSet<>(Arrays.asList("A2", "B1")), free);
+    }
+
+    @Test
+    @DisplayName("An employee's bookings come back in start order across shards")
+    void testEmployeeBookingsSorted() {
+        service.bookRoom("EMP1", "B1", baseTime.plusHours(3), baseTime.plusHours(4));
+        service.bookRoom("EMP1", "A1", baseTime.plusHours(1), baseTime.plusHours(2));
+        service.bookRoom("EMP1", "B2", baseTime, baseTime.plusHours(1));
+        service.bookRoom("EMP1", "A2", baseTime.plusHours(2), baseTime.plusHours(3));
+
+        List<String> rooms = service.listBookingsForEmployee("EMP1").stream()
+                .map(Booking::getRoomId)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("B2", "A1", "A2", "B1"), rooms);
+    }
+
+    @Test
+    @DisplayName("Pages merge the shards in start order with no booking repeated or skipped")
+    void testPagesAcrossShards() {
+        String[] rooms = { "A1", "B1", "A2", "B2" };
+        for (int i = 0; i < 10; i++) {
+            LocalDateTime start = baseTime.plusMinutes(30L * i);
+            service.bookRoom("EMP1", rooms[i % rooms.length], start, start.plusMinutes(30));
+        }
+
+        List<Booking> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Booking> page = service.pageBookings(null, "EMP1", baseTime, baseTime.plusDays(1), cursor, 3);
+            assertTrue(page.getItems().size() <= 3);
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(10, paged.size());
+        assertEquals(10, paged.stream().map(Booking::getBookingId).distinct().count());
+        for (int i = 1; i < paged.size(); i++) {
+            assertTrue(paged.get(i - 1).getTimeSlot().getStartTime()
+                    .isBefore(paged.get(i).getTimeSlot().getStartTime()));
+        }
+        assertEquals(10, service.streamBookings(null, "EMP1", baseTime, baseTime.plusDays(1)).count());
+    }
+
+    @Test
+    @DisplayName("Suggestions from every shard are ranked together and cut to the limit")
+    void testSuggestionsMerged() {
+        List<RoomSuggestion> suggestions = service.suggestRooms(baseTime, baseTime.plusHours(1), 4, null, 3);
+        assertEquals(3, suggestions.size());
+        for (int i = 1; i < suggestions.size(); i++) {
+            assertTrue(suggestions.get(i - 1).getScore() >= suggestions.get(i).getScore());
+        }
+        // The tightest fit for four attendees is in the north shard
+        assertEquals("A1", suggestions.get(0).getRoom().getRoomId());
+        assertTrue(suggestions.stream()
+                .anyMatch(suggestion -> suggestion.getRoom().getLocation().equalsIgnoreCase("south")));
+    }
+}
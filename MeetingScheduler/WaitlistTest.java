@@ -0,0 +1,243 @@
+package MeetingScheduler;
+
+import MeetingScheduler.domain.*;
+import MeetingScheduler.domain.Constants.ConcurrencyMode;
+import MeetingScheduler.domain.Constants.WaitlistStatus;
+import MeetingScheduler.exception.EntityNotFoundException;
+import MeetingScheduler.repository.Repo.*;
+import MeetingScheduler.service.Service.*;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.*;
+import java.util.List;
+
+/**
+ * Tests for the room waitlist: the order freed slots are handed out in,
+ * withdrawal racing with promotion, and expiry of entries whose slot has
+ * started.
+ */
+public class WaitlistTest {
+
+    private WaitlistRepository waitlistRepository;
+    private BookingRepository bookingRepository;
+    private BookingService bookingService;
+    private MutableClock clock;
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        EmployeeService employeeService = new EmployeeService(new EmployeeRepository());
+        MeetingRoomService roomService = new MeetingRoomService(new MeetingRoomRepository());
+        waitlistRepository = new WaitlistRepository();
+        bookingRepository = new BookingRepository();
+        clock = new MutableClock(LocalDateTime.now());
+        bookingService = new BookingService(bookingRepository, new RecurringSeriesRepository(), waitlistRepository,
+                employeeService, roomService, RoomLockRegistry.perRoom(), ConcurrencyMode.LOCKING,
+                BookingMetrics.disabled(), clock);
+        for (String employee : new String[] { "EMP1", "EMP2", "EMP3", "EMP4" }) {
+            employeeService.createEmployee(employee, employee, employee.toLowerCase() + "@company.com");
+        }
+        roomService.createRoom("ROOM1", "Room 1", 10, "Floor 1");
+        baseTime = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private Booking bookHour(String employeeId) {
+        return bookingService.bookRoom(employeeId, "ROOM1", baseTime, baseTime.plusHours(1));
+    }
+
+    private WaitlistEntry waitForHour(String employeeId, int priority) {
+        return bookingService.joinWaitlist(employeeId, "ROOM1", baseTime, baseTime.plusHours(1), priority);
+    }
+
+    // ========== Priority Tests ==========
+
+    @Test
+    @DisplayName("Freed slots go to the highest priority, then to the earliest joined")
+    void testPriorityOrder() {
+        Booking held = bookHour("EMP1");
+        WaitlistEntry low = waitForHour("EMP2", 1);
+        WaitlistEntry highFirst = waitForHour("EMP3", 5);
+        WaitlistEntry highSecond = waitForHour("EMP4", 5);
+        assertEquals(3, bookingService.listWaitlist("ROOM1").size());
+
+        bookingService.cancelBooking(held.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, highFirst.getStatus());
+        assertTrue(highSecond.isWaiting());
+        assertTrue(low.isWaiting());
+
+        bookingService.cancelBooking(highFirst.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, highSecond.getStatus());
+        assertTrue(low.isWaiting());
+
+        bookingService.cancelBooking(highSecond.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, low.getStatus());
+        assertEquals("EMP2", bookingService.getBooking(low.getBookingId()).getEmployeeId());
+        assertTrue(bookingService.listWaitlist("ROOM1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Only waiting entries overlapping the freed slot are promoted")
+    void testOnlyOverlappingEntriesPromoted() {
+        Booking held = bookHour("EMP1");
+        bookingService.bookRoom("EMP1", "ROOM1", baseTime.plusHours(2), baseTime.plusHours(3));
+        WaitlistEntry later = bookingService.joinWaitlist("EMP2", "ROOM1", baseTime.plusHours(2),
+                baseTime.plusHours(3), 9);
+        WaitlistEntry overlapping = bookingService.joinWaitlist("EMP3", "ROOM1", baseTime.plusMinutes(30),
+                baseTime.plusMinutes(45), 1);
+
+        bookingService.cancelBooking(held.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, overlapping.getStatus());
+        assertTrue(later.isWaiting());
+    }
+
+    // ========== Withdrawal Tests ==========
+
+    @Test
+    @DisplayName("A withdrawn entry is never promoted")
+    void testWithdrawBeforePromote() {
+        Booking held = bookHour("EMP1");
+        WaitlistEntry withdrawn = waitForHour("EMP2", 5);
+        WaitlistEntry waiting = waitForHour("EMP3", 1);
+
+        bookingService.leaveWaitlist(withdrawn.getEntryId());
+        assertEquals(WaitlistStatus.WITHDRAWN, withdrawn.getStatus());
+
+        bookingService.cancelBooking(held.getBookingId());
+        assertNull(withdrawn.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, waiting.getStatus());
+    }
+
+    @Test
+    @DisplayName("A promoted entry can no longer be withdrawn")
+    void testPromoteBeforeWithdraw() {
+        Booking held = bookHour("EMP1");
+        WaitlistEntry entry = waitForHour("EMP2", 1);
+
+        bookingService.cancelBooking(held.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, entry.getStatus());
+        assertThrows(IllegalStateException.class, () -> bookingService.leaveWaitlist(entry.getEntryId()));
+        assertTrue(bookingService.getBooking(entry.getBookingId()).isActive());
+    }
+
+    // ========== Expiry Tests ==========
+
+    @Test
+    @DisplayName("Entries whose slot has started expire and are forgotten")
+    void testExpiry() {
+        Booking held = bookHour("EMP1");
+        WaitlistEntry started = waitForHour("EMP2", 1);
+        Booking laterHeld = bookingService.bookRoom("EMP1", "ROOM1", baseTime.plusHours(2), baseTime.plusHours(3));
+        WaitlistEntry upcoming = bookingService.joinWaitlist("EMP3", "ROOM1", baseTime.plusHours(2),
+                baseTime.plusHours(3), 1);
+
+        List<WaitlistEntry> expired = bookingService.expireWaitlist(baseTime.plusMinutes(1));
+        assertEquals(1, expired.size());
+        assertSame(started, expired.get(0));
+        assertEquals(WaitlistStatus.EXPIRED, started.getStatus());
+        assertThrows(EntityNotFoundException.class, () -> bookingService.getWaitlistEntry(started.getEntryId()));
+        assertEquals(1, bookingService.listWaitlist("ROOM1").size());
+
+        // The expired entry is not booked when its slot frees up
+        bookingService.cancelBooking(held.getBookingId());
+        assertNull(started.getBookingId());
+        assertTrue(bookingRepository.isRoomAvailable("ROOM1", new TimeSlot(baseTime, baseTime.plusHours(1))));
+
+        bookingService.cancelBooking(laterHeld.getBookingId());
+        assertEquals(WaitlistStatus.FULFILLED, upcoming.getStatus());
+    }
+
+    @Test
+    @DisplayName("Entries that stopped waiting are forgotten once their slot starts")
+    void testFinishedEntriesDropped() {
+        WaitlistEntry fulfilled = waitForHour("EMP2", 1);
+        assertEquals(WaitlistStatus.FULFILLED, fulfilled.getStatus());
+
+        assertTrue(bookingService.expireWaitlist(baseTime.minusMinutes(1)).isEmpty());
+        assertSame(fulfilled, bookingService.getWaitlistEntry(fulfilled.getEntryId()));
+
+        assertTrue(bookingService.expireWaitlist(baseTime.plusMinutes(1)).isEmpty());
+        assertFalse(waitlistRepository.findById(fulfilled.getEntryId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Expired entries are no longer offered freed slots")
+    void testExpiredNotCandidates() {
+        bookingService.bookRoom("EMP1", "ROOM1", baseTime, baseTime.plusHours(8));
+        bookingService.joinWaitlist("EMP2", "ROOM1", baseTime, baseTime.plusHours(8), 1);
+        Booking later = bookingService.bookRoom("EMP1", "ROOM1", baseTime.plusHours(9), baseTime.plusHours(10));
+        WaitlistEntry laterEntry = bookingService.joinWaitlist("EMP3", "ROOM1", baseTime.plusHours(9),
+                baseTime.plusHours(10), 1);
+        TimeSlot inside = new TimeSlot(baseTime.plusHours(3), baseTime.plusHours(4));
+        assertEquals(1, waitlistRepository.findCandidates("ROOM1", inside.getStartNanos(),
+                inside.getEndNanos()).size());
+
+        bookingService.expireWaitlist(baseTime.plusMinutes(1));
+        assertTrue(waitlistRepository.findCandidates("ROOM1", inside.getStartNanos(),
+                inside.getEndNanos()).isEmpty());
+        List<WaitlistEntry> candidates = waitlistRepository.findCandidates("ROOM1",
+                later.getTimeSlot().getStartNanos(), later.getTimeSlot().getEndNanos());
+        assertEquals(1, candidates.size());
+        assertSame(laterEntry, candidates.get(0));
+    }
+
+    @Test
+    @DisplayName("The lifecycle scheduler expires waitlist entries as time passes")
+    void testSchedulerExpires() {
+        clock.now = instantOf(baseTime.minusMinutes(5));
+        BookingLifecycleScheduler scheduler = new BookingLifecycleScheduler(bookingService, bookingRepository,
+                new BookingArchive(), clock, Duration.ofMinutes(1), Duration.ofDays(1));
+        bookHour("EMP1");
+        WaitlistEntry entry = waitForHour("EMP2", 1);
+
+        scheduler.advance();
+        assertTrue(entry.isWaiting());
+
+        clock.now = clock.now.plus(Duration.ofMinutes(10));
+        scheduler.advance();
+        assertEquals(WaitlistStatus.EXPIRED, entry.getStatus());
+        assertTrue(bookingService.listWaitlist("ROOM1").isEmpty());
+        scheduler.close();
+    }
+
+    @Test
+    @DisplayName("Promotion expires entries whose slot has started by the service clock")
+    void testPromotionUsesClock() {
+        Booking held = bookHour("EMP1");
+        WaitlistEntry entry = waitForHour("EMP2", 1);
+
+        clock.now = instantOf(baseTime.plusMinutes(10));
+        bookingService.cancelBooking(held.getBookingId());
+        assertEquals(WaitlistStatus.EXPIRED, entry.getStatus());
+        assertNull(entry.getBookingId());
+        assertTrue(bookingService.listWaitlist("ROOM1").isEmpty());
+    }
+
+    private static Instant instantOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static final class MutableClock extends Clock {
+        Instant now;
+
+        MutableClock(LocalDateTime start) {
+            this.now = instantOf(start);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
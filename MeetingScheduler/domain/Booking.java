@@ -23,13 +23,28 @@ public class Booking {
      */
 
     public Booking(String bookingId, String employeeId, String roomId, TimeSlot timeSlot) {
+        this(bookingId, employeeId, roomId, timeSlot, LocalDateTime.now(), BookingStatus.ACTIVE);
+    }
+
+    /**
+     * Restores a previously created booking, e.g. from persistent storage.
+     * 
+     * @param bookingId  unique identifier
+     * @param employeeId ID of the employee who made the booking
+     * @param roomId     ID of the booked room
+     * @param timeSlot   time interval for the booking
+     * @param createdAt  when the booking was originally made
+     * @param status     the booking's last known status
+     */
+    public Booking(String bookingId, String employeeId, String roomId, TimeSlot timeSlot,
+            LocalDateTime createdAt, BookingStatus status) {
         validateBooking(bookingId, employeeId, roomId, timeSlot);
         this.bookingId = bookingId;
         this.employeeId = employeeId;
         this.roomId = roomId;
         this.timeSlot = timeSlot;
-        this.createdAt = LocalDateTime.now();
-        this.status = BookingStatus.ACTIVE;
+        this.createdAt = createdAt;
+        this.status = status;
     }
 
     private void validateBooking(String bookingId, String empId, String rmId, TimeSlot slot) {
@@ -0,0 +1,46 @@
+package MeetingScheduler.domain;
+
+import java.time.LocalDateTime;
+
+/**
+ * One room and time interval within a batch booking.
+ * The time slot itself is validated when the batch is booked.
+ */
+public class BookingRequest {
+    private final String roomId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+
+    public BookingRequest(String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+        validateRequest(roomId, startTime, endTime);
+        this.roomId = roomId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    private void validateRequest(String rmId, LocalDateTime start, LocalDateTime end) {
+        if (rmId == null || rmId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Room ID cannot be null or empty");
+        }
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("Start time and end time cannot be null");
+        }
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BookingRequest{room='%s', %s to %s}", roomId, startTime, endTime);
+    }
+}
@@ -6,4 +6,27 @@ public class Constants {
         CANCELLED,
         COMPLETED
     }
+
+    /**
+     * How BookingService serializes writers to the same room.
+     * LOCKING holds the room's write lock while checking and saving;
+     * OPTIMISTIC validates against a calendar snapshot and commits via CAS,
+     * retrying if another booking for the room committed first.
+     */
+    public enum ConcurrencyMode {
+        LOCKING,
+        OPTIMISTIC
+    }
+
+    public enum WaitlistStatus {
+        WAITING,
+        FULFILLED,
+        WITHDRAWN,
+        EXPIRED
+    }
+
+    public enum RecurrenceFrequency {
+        DAILY,
+        WEEKLY
+    }
 }
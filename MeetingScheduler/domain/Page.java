@@ -0,0 +1,40 @@
+package MeetingScheduler.domain;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a cursor-paginated query.
+ * Pass {@link #getNextCursor()} back to the same query to get the next page.
+ *
+ * @param <T> the item type
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Opaque position after the last item, or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page{items=%d, next=%s}", items.size(), nextCursor);
+    }
+}
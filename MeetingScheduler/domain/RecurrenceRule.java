@@ -0,0 +1,123 @@
+package MeetingScheduler.domain;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+
+import MeetingScheduler.domain.Constants.RecurrenceFrequency;
+
+/**
+ * RRULE-style recurrence: FREQ (daily or weekly), INTERVAL, and either COUNT
+ * or UNTIL. Every occurrence is a fixed number of days after the previous
+ * one, so occurrence k of a series starts at {@code first + k * period}.
+ */
+public class RecurrenceRule {
+    private static final int MAX_OCCURRENCES = 10_000;
+
+    private final RecurrenceFrequency frequency;
+    private final int interval;
+    private final int count;
+    private final LocalDate until;
+
+    private RecurrenceRule(RecurrenceFrequency frequency, int interval, int count, LocalDate until) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence frequency cannot be null");
+        }
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Recurrence interval must be positive");
+        }
+        if (until == null && (count <= 0 || count > MAX_OCCURRENCES)) {
+            throw new IllegalArgumentException("Occurrence count must be between 1 and " + MAX_OCCURRENCES);
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Repeats every {@code interval} days or weeks, {@code count} times in total.
+     */
+    public static RecurrenceRule count(RecurrenceFrequency frequency, int interval, int count) {
+        return new RecurrenceRule(frequency, interval, count, null);
+    }
+
+    /**
+     * Repeats every {@code interval} days or weeks while occurrences start on or before {@code until}.
+     */
+    public static RecurrenceRule until(RecurrenceFrequency frequency, int interval, LocalDate until) {
+        if (until == null) {
+            throw new IllegalArgumentException("Until date cannot be null");
+        }
+        return new RecurrenceRule(frequency, interval, 0, until);
+    }
+
+    /**
+     * Parses the format produced by {@link #toString()}, e.g. {@code FREQ=WEEKLY;INTERVAL=1;COUNT=52}.
+     */
+    public static RecurrenceRule parse(String text) {
+        Map<String, String> parts = new HashMap<>();
+        for (String part : text.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule: " + text);
+            }
+            parts.put(part.substring(0, eq), part.substring(eq + 1));
+        }
+        RecurrenceFrequency frequency = RecurrenceFrequency.valueOf(parts.get("FREQ"));
+        int interval = Integer.parseInt(parts.getOrDefault("INTERVAL", "1"));
+        if (parts.containsKey("UNTIL")) {
+            return until(frequency, interval, LocalDate.parse(parts.get("UNTIL")));
+        }
+        return count(frequency, interval, Integer.parseInt(parts.get("COUNT")));
+    }
+
+    public static RecurrenceRule weekly(int count) {
+        return count(RecurrenceFrequency.WEEKLY, 1, count);
+    }
+
+    public static RecurrenceRule daily(int count) {
+        return count(RecurrenceFrequency.DAILY, 1, count);
+    }
+
+    /**
+     * Days between consecutive occurrences.
+     */
+    public int getPeriodDays() {
+        return frequency == RecurrenceFrequency.WEEKLY ? 7 * interval : interval;
+    }
+
+    /**
+     * Number of occurrences for a series whose first occurrence starts at {@code firstStart}.
+     */
+    public int occurrenceCount(LocalDateTime firstStart) {
+        if (until == null) {
+            return count;
+        }
+        long days = ChronoUnit.DAYS.between(firstStart.toLocalDate(), until);
+        if (days < 0) {
+            throw new IllegalArgumentException("Until date is before the first occurrence");
+        }
+        long occurrences = days / getPeriodDays() + 1;
+        if (occurrences > MAX_OCCURRENCES) {
+            throw new IllegalArgumentException("Recurrence exceeds " + MAX_OCCURRENCES + " occurrences");
+        }
+        return (int) occurrences;
+    }
+
+    public RecurrenceFrequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    @Override
+    public String toString() {
+        return "FREQ=" + frequency + ";INTERVAL=" + interval
+                + (until == null ? ";COUNT=" + count : ";UNTIL=" + until);
+    }
+}
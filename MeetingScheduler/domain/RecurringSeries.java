@@ -0,0 +1,289 @@
+package MeetingScheduler.domain;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import MeetingScheduler.domain.Constants.BookingStatus;
+
+/**
+ * A recurring meeting stored as its first occurrence plus a recurrence rule.
+ *
+ * Occurrences are never materialized: occurrence k is computed on demand as
+ * the first slot shifted by k periods. Because an occurrence is never longer
+ * than the period, occurrences are disjoint and ordered, so overlap checks
+ * against an interval or another series are arithmetic on offsets from the
+ * first start instead of a scan over every occurrence.
+ */
+public class RecurringSeries {
+    private final String seriesId;
+    private final String employeeId;
+    private final String roomId;
+    private final TimeSlot firstSlot;
+    private final RecurrenceRule rule;
+    private final int occurrenceCount;
+    private final long firstStartNanos;
+    private final long periodNanos;
+    private final long durationNanos;
+    private final LocalDateTime createdAt;
+    private volatile BookingStatus status;
+
+    /**
+     * Constructs an ACTIVE recurring series.
+     *
+     * @param seriesId   unique identifier (auto-generated)
+     * @param employeeId ID of the employee owning the series
+     * @param roomId     ID of the room being booked
+     * @param firstSlot  time interval of the first occurrence
+     * @param rule       how the first occurrence repeats
+     */
+    public RecurringSeries(String seriesId, String employeeId, String roomId, TimeSlot firstSlot,
+            RecurrenceRule rule) {
+        this(seriesId, employeeId, roomId, firstSlot, rule, LocalDateTime.now(), BookingStatus.ACTIVE);
+    }
+
+    /**
+     * Restores a previously created series, e.g. from persistent storage.
+     *
+     * @param seriesId   unique identifier
+     * @param employeeId ID of the employee owning the series
+     * @param roomId     ID of the booked room
+     * @param firstSlot  time interval of the first occurrence
+     * @param rule       how the first occurrence repeats
+     * @param createdAt  when the series was originally booked
+     * @param status     the series' last known status
+     */
+    public RecurringSeries(String seriesId, String employeeId, String roomId, TimeSlot firstSlot,
+            RecurrenceRule rule, LocalDateTime createdAt, BookingStatus status) {
+        validateSeries(seriesId, employeeId, roomId, firstSlot, rule);
+        this.seriesId = seriesId;
+        this.employeeId = employeeId;
+        this.roomId = roomId;
+        this.firstSlot = firstSlot;
+        this.rule = rule;
+        this.occurrenceCount = rule.occurrenceCount(firstSlot.getStartTime());
+        this.periodNanos = ChronoUnit.DAYS.getDuration().toNanos() * rule.getPeriodDays();
+        this.firstStartNanos = firstSlot.getStartNanos();
+        this.durationNanos = firstSlot.getEndNanos() - firstStartNanos;
+        if (durationNanos > periodNanos) {
+            throw new IllegalArgumentException("Occurrence is longer than the recurrence period");
+        }
+        this.createdAt = createdAt;
+        this.status = status;
+    }
+
+    private void validateSeries(String id, String empId, String rmId, TimeSlot slot, RecurrenceRule recurrence) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Series ID cannot be null or empty");
+        }
+        if (empId == null || empId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        if (rmId == null || rmId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Room ID cannot be null or empty");
+        }
+        if (slot == null) {
+            throw new IllegalArgumentException("Time slot cannot be null");
+        }
+        if (recurrence == null) {
+            throw new IllegalArgumentException("Recurrence rule cannot be null");
+        }
+    }
+
+    /**
+     * Returns occurrence {@code k} (zero-based).
+     *
+     * @param k occurrence index
+     * @return the occurrence's time slot
+     */
+    public TimeSlot occurrence(long k) {
+        if (k < 0 || k >= occurrenceCount) {
+            throw new IndexOutOfBoundsException("Occurrence " + k + " of " + occurrenceCount);
+        }
+        LocalDateTime start = firstSlot.getStartTime().plusDays(k * rule.getPeriodDays());
+        return TimeSlot.derived(start, start.plusNanos(durationNanos));
+    }
+
+    /**
+     * Lazily expands all occurrences in order.
+     *
+     * @return stream of occurrence time slots
+     */
+    public Stream<TimeSlot> occurrences() {
+        return LongStream.range(0, occurrenceCount).mapToObj(this::occurrence);
+    }
+
+    /**
+     * Lazily expands the occurrences overlapping [from, to), in order.
+     * Only the matching occurrences are computed.
+     *
+     * @param from window start (inclusive)
+     * @param to   window end (exclusive)
+     * @return stream of occurrence time slots
+     */
+    public Stream<TimeSlot> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+        long fromOffset = offsetOf(from);
+        long toOffset = offsetOf(to);
+        // First occurrence ending after `from`, last one starting before `to`
+        long first = fromOffset < durationNanos ? 0 : (fromOffset - durationNanos) / periodNanos + 1;
+        long last = toOffset <= 0 ? -1 : Math.min(occurrenceCount - 1, (toOffset - 1) / periodNanos);
+        return LongStream.rangeClosed(first, last).mapToObj(this::occurrence);
+    }
+
+    /**
+     * Checks whether any occurrence overlaps [start, end) in O(1).
+     * Only the last occurrence starting before {@code end} can overlap: every
+     * earlier one also ends earlier.
+     *
+     * @param start interval start (inclusive)
+     * @param end   interval end (exclusive)
+     * @return true if an occurrence overlaps the interval
+     */
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return overlapsNanos(TimeSlot.toEpochNanos(start), TimeSlot.toEpochNanos(end));
+    }
+
+    public boolean overlaps(TimeSlot timeSlot) {
+        return overlapsNanos(timeSlot.getStartNanos(), timeSlot.getEndNanos());
+    }
+
+    private boolean overlapsNanos(long start, long end) {
+        long endOffset = end - firstStartNanos;
+        if (endOffset <= 0) {
+            return false;
+        }
+        long k = Math.min((endOffset - 1) / periodNanos, occurrenceCount - 1);
+        return k * periodNanos + durationNanos > start - firstStartNanos;
+    }
+
+    /**
+     * Checks whether any occurrence of this series overlaps any occurrence of another.
+     *
+     * Occurrence starts differ by {@code delta + j * pB - i * pA}, which only
+     * takes values congruent to {@code delta} modulo gcd(pA, pB). If no such
+     * value falls within the two durations the series can never collide, and
+     * the check stops there. Otherwise the series with fewer occurrences in
+     * the common span is walked, each occurrence checked in O(1) against the other.
+     *
+     * @param other the other series
+     * @return true if the series collide at least once
+     */
+    public boolean overlaps(RecurringSeries other) {
+        long delta = other.firstStartNanos - firstStartNanos;
+        long gcd = gcd(periodNanos, other.periodNanos);
+        long residue = Math.floorMod(delta, gcd);
+        if (residue >= durationNanos && gcd - residue >= other.durationNanos) {
+            return false;
+        }
+
+        LocalDateTime from = max(firstSlot.getStartTime(), other.firstSlot.getStartTime());
+        LocalDateTime to = min(getLastEnd(), other.getLastEnd());
+        if (!from.isBefore(to)) {
+            return false;
+        }
+        RecurringSeries walked = periodNanos >= other.periodNanos ? this : other;
+        RecurringSeries probed = walked == this ? other : this;
+        return walked.occurrencesBetween(from, to).anyMatch(probed::overlaps);
+    }
+
+    private long offsetOf(LocalDateTime time) {
+        return TimeSlot.toEpochNanos(time) - firstStartNanos;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /**
+     * Cancels the series if it's currently active.
+     *
+     * @throws IllegalStateException if series is not active
+     */
+    public synchronized void cancel() {
+        if (!isActive()) {
+            throw new IllegalStateException(
+                    "Cannot cancel series - current status: " + status);
+        }
+        this.status = BookingStatus.CANCELLED;
+    }
+
+    public boolean isActive() {
+        return status == BookingStatus.ACTIVE;
+    }
+
+    public String getSeriesId() {
+        return seriesId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public TimeSlot getFirstSlot() {
+        return firstSlot;
+    }
+
+    public RecurrenceRule getRule() {
+        return rule;
+    }
+
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    /**
+     * End of the last occurrence; the series occupies nothing after it.
+     */
+    public LocalDateTime getLastEnd() {
+        return occurrence(occurrenceCount - 1).getEndTime();
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public BookingStatus getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        RecurringSeries series = (RecurringSeries) o;
+        return Objects.equals(seriesId, series.seriesId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seriesId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "RecurringSeries{id='%s', employee='%s', room='%s', first=%s, rule=%s, status=%s}",
+                seriesId, employeeId, roomId, firstSlot, rule, status);
+    }
+}
@@ -0,0 +1,47 @@
+package MeetingScheduler.domain;
+
+/**
+ * A room proposed for a meeting, with the score it was ranked by.
+ * Scores range from 0 to 1; higher is better.
+ */
+public class RoomSuggestion {
+    private final MeetingRoom room;
+    private final double score;
+    private final double capacityFit;
+    private final double utilization;
+
+    public RoomSuggestion(MeetingRoom room, double score, double capacityFit, double utilization) {
+        this.room = room;
+        this.score = score;
+        this.capacityFit = capacityFit;
+        this.utilization = utilization;
+    }
+
+    public MeetingRoom getRoom() {
+        return room;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    /**
+     * Share of the room's seats the meeting would use.
+     */
+    public double getCapacityFit() {
+        return capacityFit;
+    }
+
+    /**
+     * Share of recent bookable time the room was booked for.
+     */
+    public double getUtilization() {
+        return utilization;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RoomSuggestion{room='%s', score=%.3f, fit=%.2f, utilization=%.2f}",
+                room.getRoomId(), score, capacityFit, utilization);
+    }
+}
@@ -1,19 +1,85 @@
 package MeetingScheduler.domain;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.time.ZoneOffset;
 
+/**
+ * A half-open time interval [start, end).
+ *
+ * Besides the LocalDateTime values the API works with, a slot keeps both
+ * ends as epoch nanoseconds (local time read as UTC), so overlap checks and
+ * the booking indexes compare primitive longs instead of date objects.
+ * Nanoseconds keep the comparison exact; the range they cover
+ * (years 1677 to 2262) is checked on construction. The booking indexes copy
+ * these longs into their own nodes rather than into flat arrays, since a
+ * room's calendar is a persistent treap that must insert and remove in
+ * O(log n) without copying the room's whole history.
+ *
+ * Only slots for new bookings are checked against the clock; query windows
+ * come from {@link #window(LocalDateTime, LocalDateTime)}, which skips that
+ * check so availability searches never read the time.
+ */
 public class TimeSlot {
     private final LocalDateTime startTime;
     private final LocalDateTime endTime;
+    private final long startNanos;
+    private final long endNanos;
 
     public TimeSlot(LocalDateTime startTime, LocalDateTime endTime) {
         validateTimeSlot(startTime, endTime);
+        if (startTime.isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Cannot create time slot in the past");
+        }
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.startNanos = toEpochNanos(startTime);
+        this.endNanos = toEpochNanos(endTime);
+    }
+
+    private TimeSlot(LocalDateTime startTime, LocalDateTime endTime, boolean validated) {
         this.startTime = startTime;
         this.endTime = endTime;
+        this.startNanos = toEpochNanos(startTime);
+        this.endNanos = toEpochNanos(endTime);
+    }
+
+    /**
+     * Converts a local time to nanoseconds since 1970-01-01T00:00 (local time read as UTC).
+     *
+     * @param time the time
+     * @return epoch nanoseconds
+     * @throws IllegalArgumentException if the time is outside the years 1677 to 2262
+     */
+    public static long toEpochNanos(LocalDateTime time) {
+        try {
+            return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L),
+                    time.getNano());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Time out of supported range: " + time);
+        }
+    }
+
+    /**
+     * Creates a slot derived from an already validated one (such as an
+     * occurrence of a recurring series, or a slot restored from storage),
+     * skipping the "not in the past" check.
+     */
+    public static TimeSlot derived(LocalDateTime startTime, LocalDateTime endTime) {
+        return new TimeSlot(startTime, endTime, true);
     }
 
-    private void validateTimeSlot(LocalDateTime start, LocalDateTime end) {
+    /**
+     * Creates a slot to search with, such as an availability query window,
+     * which may lie in the past and is never booked itself.
+     *
+     * @throws IllegalArgumentException if either end is null or start is not before end
+     */
+    public static TimeSlot window(LocalDateTime startTime, LocalDateTime endTime) {
+        validateTimeSlot(startTime, endTime);
+        return new TimeSlot(startTime, endTime, true);
+    }
+
+    private static void validateTimeSlot(LocalDateTime start, LocalDateTime end) {
         if (start == null || end == null) {
             throw new IllegalArgumentException("Start time and end time cannot be null");
         }
@@ -23,9 +89,6 @@ public class TimeSlot {
         if (start.equals(end)) {
             throw new IllegalArgumentException("Start time and end time cannot be the same");
         }
-        if (start.isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Cannot create time slot in the past");
-        }
     }
 
     public boolean overlaps(TimeSlot other) {
@@ -33,8 +96,7 @@ public class TimeSlot {
             return false;
         }
         // Overlap occurs if: start1 < end2 AND start2 < end1
-        return this.startTime.isBefore(other.endTime) &&
-                other.startTime.isBefore(this.endTime);
+        return startNanos < other.endNanos && other.startNanos < endNanos;
     }
 
     public LocalDateTime getStartTime() {
@@ -45,6 +107,20 @@ public class TimeSlot {
         return endTime;
     }
 
+    /**
+     * Start as epoch nanoseconds, see {@link #toEpochNanos(LocalDateTime)}.
+     */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * End as epoch nanoseconds, see {@link #toEpochNanos(LocalDateTime)}.
+     */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -52,13 +128,12 @@ public class TimeSlot {
         if (o == null || getClass() != o.getClass())
             return false;
         TimeSlot timeSlot = (TimeSlot) o;
-        return Objects.equals(startTime, timeSlot.startTime) &&
-                Objects.equals(endTime, timeSlot.endTime);
+        return startNanos == timeSlot.startNanos && endNanos == timeSlot.endNanos;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(startTime, endTime);
+        return Long.hashCode(startNanos) * 31 + Long.hashCode(endNanos);
     }
 
     @Override
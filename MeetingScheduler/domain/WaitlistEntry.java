@@ -0,0 +1,164 @@
+package MeetingScheduler.domain;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+import MeetingScheduler.domain.Constants.WaitlistStatus;
+
+/**
+ * A request to book a room for a time slot as soon as the slot frees up.
+ * Higher priorities are served first; equal priorities in joining order.
+ */
+public class WaitlistEntry {
+    private final String entryId;
+    private final String employeeId;
+    private final String roomId;
+    private final TimeSlot timeSlot;
+    private final int priority;
+    private final long sequence;
+    private final LocalDateTime createdAt;
+    private volatile WaitlistStatus status;
+    private volatile String bookingId;
+
+    /**
+     * Constructs a WAITING entry.
+     * 
+     * @param entryId    unique identifier (auto-generated)
+     * @param employeeId ID of the employee waiting
+     * @param roomId     ID of the room wanted
+     * @param timeSlot   time interval wanted
+     * @param priority   higher is served first
+     * @param sequence   joining order, breaks priority ties
+     */
+    public WaitlistEntry(String entryId, String employeeId, String roomId, TimeSlot timeSlot, int priority,
+            long sequence) {
+        validateEntry(entryId, employeeId, roomId, timeSlot);
+        this.entryId = entryId;
+        this.employeeId = employeeId;
+        this.roomId = roomId;
+        this.timeSlot = timeSlot;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.createdAt = LocalDateTime.now();
+        this.status = WaitlistStatus.WAITING;
+    }
+
+    private void validateEntry(String id, String empId, String rmId, TimeSlot slot) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("Entry ID cannot be null or empty");
+        }
+        if (empId == null || empId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Employee ID cannot be null or empty");
+        }
+        if (rmId == null || rmId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Room ID cannot be null or empty");
+        }
+        if (slot == null) {
+            throw new IllegalArgumentException("Time slot cannot be null");
+        }
+    }
+
+    /**
+     * Marks the entry as fulfilled by a booking, if it is still waiting.
+     * 
+     * @param booking the booking made for this entry
+     * @return true if fulfilled, false if the entry was no longer waiting
+     */
+    public synchronized boolean fulfil(Booking booking) {
+        if (status != WaitlistStatus.WAITING) {
+            return false;
+        }
+        this.bookingId = booking.getBookingId();
+        this.status = WaitlistStatus.FULFILLED;
+        return true;
+    }
+
+    /**
+     * Withdraws the entry.
+     * 
+     * @throws IllegalStateException if the entry is not waiting
+     */
+    public synchronized void withdraw() {
+        if (status != WaitlistStatus.WAITING) {
+            throw new IllegalStateException("Cannot withdraw waitlist entry - current status: " + status);
+        }
+        this.status = WaitlistStatus.WITHDRAWN;
+    }
+
+    /**
+     * Marks the entry as expired if it is still waiting, e.g. once its slot has started.
+     * 
+     * @return true if expired, false if the entry was no longer waiting
+     */
+    public synchronized boolean expire() {
+        if (status != WaitlistStatus.WAITING) {
+            return false;
+        }
+        this.status = WaitlistStatus.EXPIRED;
+        return true;
+    }
+
+    public boolean isWaiting() {
+        return status == WaitlistStatus.WAITING;
+    }
+
+    public String getEntryId() {
+        return entryId;
+    }
+
+    public String getEmployeeId() {
+        return employeeId;
+    }
+
+    public String getRoomId() {
+        return roomId;
+    }
+
+    public TimeSlot getTimeSlot() {
+        return timeSlot;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * ID of the booking that fulfilled this entry, or null.
+     */
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        WaitlistEntry entry = (WaitlistEntry) o;
+        return Objects.equals(entryId, entry.entryId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entryId);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WaitlistEntry{id='%s', employee='%s', room='%s', timeSlot=%s, priority=%d, status=%s}",
+                entryId, employeeId, roomId, timeSlot, priority, status);
+    }
+}
@@ -0,0 +1,835 @@
+package MeetingScheduler.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import MeetingScheduler.domain.Booking;
+import MeetingScheduler.domain.Constants.BookingStatus;
+import MeetingScheduler.domain.Employee;
+import MeetingScheduler.domain.MeetingRoom;
+import MeetingScheduler.domain.RecurrenceRule;
+import MeetingScheduler.domain.RecurringSeries;
+import MeetingScheduler.domain.TimeSlot;
+import MeetingScheduler.repository.Repo.BookingArchive;
+import MeetingScheduler.repository.Repo.BookingEventListener;
+import MeetingScheduler.repository.Repo.BookingRepository;
+import MeetingScheduler.repository.Repo.EmployeeRepository;
+import MeetingScheduler.repository.Repo.MeetingRoomRepository;
+import MeetingScheduler.repository.Repo.RecurringSeriesRepository;
+import MeetingScheduler.repository.Repo.SeriesEventListener;
+
+public class Persistence {
+
+    /**
+     * Append-only log of length-prefixed, CRC-checked records with group commit.
+     *
+     * Appending only copies the record into a shared buffer. A single flusher
+     * thread writes whatever has accumulated and fsyncs it once, so every
+     * writer that appended while the previous fsync was in flight shares the
+     * next one. Callers needing durability wait for their own last record via
+     * {@link #awaitDurable()}, after releasing any locks.
+     *
+     * The log is split into numbered segments; {@link #rotate()} starts a new
+     * one so that a snapshot can retire everything before it. A torn record
+     * at the end of a segment (crash mid-write) fails its length or CRC check
+     * and ends replay of that segment.
+     *
+     * A failed write is fatal. The records it took from the buffer may be
+     * lost or torn on disk, so the log never writes past them and never
+     * reports later records durable: every later append and wait fails.
+     * Reopening the directory continues in a new segment.
+     */
+    public static class WriteAheadLog implements Closeable {
+        private final Path directory;
+        // Guards the buffer and sequence numbers; never held across I/O
+        private final ReentrantLock bufferLock;
+        private final Condition pending;
+        private final Condition flushed;
+        // Serializes writes to the current segment between the flusher and rotate()
+        private final Object channelLock;
+        private final ThreadLocal<long[]> lastAppended;
+        private final Thread flusher;
+
+        private ByteArrayOutputStream buffer;
+        private long appendedSequence;
+        private long durableSequence;
+        private FileChannel channel;
+        private long segment;
+        private boolean closed;
+        private IOException failure;
+
+        /**
+         * Opens a log writing to a new segment numbered {@code segment}.
+         *
+         * @param directory where segments live
+         * @param segment   number of the first segment to write
+         * @throws IOException if the segment cannot be created
+         */
+        public WriteAheadLog(Path directory, long segment) throws IOException {
+            this.directory = directory;
+            this.bufferLock = new ReentrantLock();
+            this.pending = bufferLock.newCondition();
+            this.flushed = bufferLock.newCondition();
+            this.channelLock = new Object();
+            this.lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+            this.buffer = new ByteArrayOutputStream();
+            this.segment = segment;
+            this.channel = openSegment(segment);
+            this.flusher = new Thread(this::flushLoop, "wal-flusher");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        }
+
+        /**
+         * Appends a record without waiting for it to reach disk.
+         *
+         * @param payload the record body
+         */
+        public void append(byte[] payload) {
+            byte[] framed = frame(payload);
+            bufferLock.lock();
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                checkNotFailed();
+                buffer.write(framed, 0, framed.length);
+                lastAppended.get()[0] = ++appendedSequence;
+                pending.signal();
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        /**
+         * Fails if the log can no longer write, so that callers can refuse a
+         * change before applying it.
+         *
+         * @throws UncheckedIOException if an earlier write failed
+         */
+        public void checkWritable() {
+            bufferLock.lock();
+            try {
+                checkNotFailed();
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        // Caller holds bufferLock
+        private void checkNotFailed() {
+            if (failure != null) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+        }
+
+        /**
+         * Blocks until every record appended by the calling thread is on disk.
+         *
+         * @throws UncheckedIOException if the log could not be written
+         */
+        public void awaitDurable() {
+            long sequence = lastAppended.get()[0];
+            bufferLock.lock();
+            try {
+                while (durableSequence < sequence) {
+                    if (failure != null) {
+                        throw new UncheckedIOException("Write-ahead log failed", failure);
+                    }
+                    flushed.awaitUninterruptibly();
+                }
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        /**
+         * Flushes everything appended so far and continues in a new segment.
+         *
+         * @return the new segment number; all earlier records are in earlier segments
+         * @throws IOException if the old segment cannot be flushed or the new one
+         *                     created; the log is then failed
+         */
+        public long rotate() throws IOException {
+            synchronized (channelLock) {
+                writeBatch();
+                try {
+                    channel.close();
+                    segment++;
+                    channel = openSegment(segment);
+                } catch (IOException e) {
+                    throw fail(e);
+                }
+                return segment;
+            }
+        }
+
+        /**
+         * Deletes segments numbered below {@code segment}.
+         *
+         * @param segment first segment to keep
+         * @throws IOException if listing or deleting fails
+         */
+        public void deleteSegmentsBefore(long segment) throws IOException {
+            for (long number : listSegments(directory)) {
+                if (number < segment) {
+                    Files.deleteIfExists(segmentPath(directory, number));
+                }
+            }
+        }
+
+        private void flushLoop() {
+            while (true) {
+                bufferLock.lock();
+                try {
+                    while (appendedSequence == durableSequence && !closed) {
+                        pending.awaitUninterruptibly();
+                    }
+                    if (appendedSequence == durableSequence) {
+                        return;
+                    }
+                } finally {
+                    bufferLock.unlock();
+                }
+                synchronized (channelLock) {
+                    try {
+                        writeBatch();
+                    } catch (IOException e) {
+                        // writeBatch recorded the failure and woke the waiters
+                        return;
+                    }
+                }
+            }
+        }
+
+        // Caller holds channelLock. Any failure fails the log, as the batch has
+        // already left the buffer.
+        private void writeBatch() throws IOException {
+            byte[] batch;
+            long batchSequence;
+            bufferLock.lock();
+            try {
+                if (failure != null) {
+                    throw failure;
+                }
+                batch = buffer.toByteArray();
+                buffer.reset();
+                batchSequence = appendedSequence;
+            } finally {
+                bufferLock.unlock();
+            }
+            if (batch.length > 0) {
+                try {
+                    ByteBuffer bytes = ByteBuffer.wrap(batch);
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    throw fail(e);
+                }
+            }
+            bufferLock.lock();
+            try {
+                durableSequence = Math.max(durableSequence, batchSequence);
+                flushed.signalAll();
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        private IOException fail(IOException e) {
+            bufferLock.lock();
+            try {
+                if (failure == null) {
+                    failure = e;
+                }
+                flushed.signalAll();
+                return failure;
+            } finally {
+                bufferLock.unlock();
+            }
+        }
+
+        private FileChannel openSegment(long number) throws IOException {
+            return FileChannel.open(segmentPath(directory, number),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+
+        /**
+         * Flushes outstanding records and stops the flusher.
+         */
+        @Override
+        public void close() throws IOException {
+            bufferLock.lock();
+            try {
+                closed = true;
+                pending.signal();
+            } finally {
+                bufferLock.unlock();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (channelLock) {
+                channel.close();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        static Path segmentPath(Path directory, long number) {
+            return directory.resolve(String.format("wal-%020d.log", number));
+        }
+
+        static List<Long> listSegments(Path directory) throws IOException {
+            return listNumbered(directory, "wal-", ".log");
+        }
+
+        static byte[] frame(byte[] payload) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            return ByteBuffer.allocate(payload.length + 8)
+                    .putInt(payload.length)
+                    .put(payload)
+                    .putInt((int) crc.getValue())
+                    .array();
+        }
+
+        /**
+         * Reads the intact records of a file written as framed records,
+         * stopping at the first torn or corrupt one.
+         *
+         * @param file     the segment or snapshot file
+         * @param consumer receives each record body in order
+         * @throws IOException if the file cannot be read
+         */
+        static void read(Path file, Consumer<byte[]> consumer) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+            CRC32 crc = new CRC32();
+            while (bytes.remaining() >= 8) {
+                int length = bytes.getInt();
+                // Compared so that a garbage length near Integer.MAX_VALUE cannot overflow
+                if (length < 0 || length > bytes.remaining() - 4) {
+                    return;
+                }
+                byte[] payload = new byte[length];
+                bytes.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if (bytes.getInt() != (int) crc.getValue()) {
+                    return;
+                }
+                consumer.accept(payload);
+            }
+        }
+    }
+
+    /**
+     * Makes the employee, room, booking and recurring series repositories,
+     * and the archive of finished bookings, durable. Every change the repositories report is appended to a
+     * {@link WriteAheadLog}; a periodic snapshot writes the full state to a
+     * compact file and drops the log segments it covers.
+     *
+     * Records describe resulting state rather than operations, and a booking
+     * only ever moves from ACTIVE to a final status, so replay is insensitive
+     * to the order of records for one booking (optimistic writers may log a
+     * cancellation before the booking itself). Recovery loads the latest
+     * snapshot, folds in the later segments, then rebuilds bookings room by
+     * room in parallel; rooms share no calendar, so the rebuilds never contend.
+     */
+    public static class DurableStore implements BookingEventListener, SeriesEventListener, Closeable {
+        private static final byte EMPLOYEE = 1;
+        private static final byte ROOM = 2;
+        private static final byte BOOKING = 3;
+        private static final byte BOOKING_RELEASED = 4;
+        private static final byte BOOKING_DELETED = 5;
+        private static final byte SERIES = 6;
+        private static final byte SERIES_RELEASED = 7;
+        private static final byte SERIES_DELETED = 8;
+        private static final byte BOOKING_ARCHIVED = 9;
+
+        private final Path directory;
+        private final EmployeeRepository employeeRepository;
+        private final MeetingRoomRepository roomRepository;
+        private final BookingRepository bookingRepository;
+        private final RecurringSeriesRepository seriesRepository;
+        private final BookingArchive archive;
+        private final ScheduledExecutorService snapshotter;
+        private WriteAheadLog log;
+
+        private DurableStore(Path directory, EmployeeRepository employeeRepository,
+                MeetingRoomRepository roomRepository, BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository, BookingArchive archive) {
+            this.directory = directory;
+            this.employeeRepository = employeeRepository;
+            this.roomRepository = roomRepository;
+            this.bookingRepository = bookingRepository;
+            this.seriesRepository = seriesRepository;
+            this.archive = archive;
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "store-snapshotter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Recovers the repositories from {@code directory} and starts logging
+         * their changes. The repositories must be empty and must not be used
+         * until this returns.
+         *
+         * @param directory             where snapshots and log segments live
+         * @param employeeRepository    employees to restore and log
+         * @param roomRepository        rooms to restore and log
+         * @param bookingRepository     bookings to restore and log
+         * @param seriesRepository      recurring series to restore and log
+         * @param archive               archived bookings to restore and log
+         * @param snapshotIntervalSeconds how often to snapshot, or 0 to snapshot only on demand
+         * @return the open store
+         * @throws IOException if recovery or opening the log fails
+         */
+        public static DurableStore open(Path directory, EmployeeRepository employeeRepository,
+                MeetingRoomRepository roomRepository, BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository, BookingArchive archive,
+                long snapshotIntervalSeconds) throws IOException {
+            Files.createDirectories(directory);
+            DurableStore store = new DurableStore(directory, employeeRepository, roomRepository,
+                    bookingRepository, seriesRepository, archive);
+            long nextSegment = store.recover();
+
+            store.log = new WriteAheadLog(directory, nextSegment);
+            employeeRepository.addSaveListener(store::onEmployeeSaved);
+            roomRepository.addSaveListener(store::onRoomSaved);
+            bookingRepository.addListener(store);
+            seriesRepository.addListener(store);
+            if (snapshotIntervalSeconds > 0) {
+                store.snapshotter.scheduleWithFixedDelay(store::snapshotQuietly,
+                        snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+            }
+            return store;
+        }
+
+        /**
+         * Blocks until every change made by the calling thread is on disk.
+         * Call after the repository operation returned, outside any room lock.
+         */
+        public void awaitDurable() {
+            log.awaitDurable();
+        }
+
+        /**
+         * Fails if changes can no longer be logged. Call before making a
+         * change, so a failed log refuses it instead of it being applied in
+         * memory only.
+         *
+         * @throws UncheckedIOException if the log has failed
+         */
+        public void checkWritable() {
+            log.checkWritable();
+        }
+
+        // --- logging ---
+
+        private void onEmployeeSaved(Employee employee) {
+            log.append(encode(out -> {
+                out.writeByte(EMPLOYEE);
+                out.writeUTF(employee.getEmployeeId());
+                out.writeUTF(employee.getName());
+                out.writeUTF(employee.getEmail());
+            }));
+        }
+
+        private void onRoomSaved(MeetingRoom room) {
+            log.append(encode(out -> writeRoom(out, room)));
+        }
+
+        @Override
+        public void onBooked(Booking booking) {
+            log.append(encode(out -> writeBooking(out, BOOKING, booking)));
+        }
+
+        @Override
+        public void onReleased(Booking booking) {
+            log.append(encode(out -> {
+                out.writeByte(BOOKING_RELEASED);
+                out.writeUTF(booking.getBookingId());
+                out.writeUTF(booking.getRoomId());
+                out.writeByte(booking.getStatus().ordinal());
+            }));
+        }
+
+        @Override
+        public void onDeleted(Booking booking) {
+            log.append(encode(out -> {
+                out.writeByte(BOOKING_DELETED);
+                out.writeUTF(booking.getBookingId());
+                out.writeUTF(booking.getRoomId());
+            }));
+        }
+
+        @Override
+        public void onArchived(Booking booking) {
+            log.append(encode(out -> writeBooking(out, BOOKING_ARCHIVED, booking)));
+        }
+
+        @Override
+        public void onSeriesSaved(RecurringSeries series) {
+            log.append(encode(out -> writeSeries(out, series)));
+        }
+
+        @Override
+        public void onSeriesReleased(RecurringSeries series) {
+            log.append(encode(out -> {
+                out.writeByte(SERIES_RELEASED);
+                out.writeUTF(series.getSeriesId());
+                out.writeByte(series.getStatus().ordinal());
+            }));
+        }
+
+        @Override
+        public void onSeriesDeleted(RecurringSeries series) {
+            log.append(encode(out -> {
+                out.writeByte(SERIES_DELETED);
+                out.writeUTF(series.getSeriesId());
+            }));
+        }
+
+        private static void writeRoom(DataOutputStream out, MeetingRoom room) throws IOException {
+            out.writeByte(ROOM);
+            out.writeUTF(room.getRoomId());
+            out.writeUTF(room.getName());
+            out.writeInt(room.getCapacity());
+            out.writeUTF(room.getLocation());
+        }
+
+        private static void writeBooking(DataOutputStream out, byte type, Booking booking) throws IOException {
+            out.writeByte(type);
+            out.writeUTF(booking.getBookingId());
+            out.writeUTF(booking.getRoomId());
+            out.writeUTF(booking.getEmployeeId());
+            writeTime(out, booking.getTimeSlot().getStartTime());
+            writeTime(out, booking.getTimeSlot().getEndTime());
+            writeTime(out, booking.getCreatedAt());
+            out.writeByte(booking.getStatus().ordinal());
+        }
+
+        private static void writeSeries(DataOutputStream out, RecurringSeries series) throws IOException {
+            out.writeByte(SERIES);
+            out.writeUTF(series.getSeriesId());
+            out.writeUTF(series.getRoomId());
+            out.writeUTF(series.getEmployeeId());
+            writeTime(out, series.getFirstSlot().getStartTime());
+            writeTime(out, series.getFirstSlot().getEndTime());
+            out.writeUTF(series.getRule().toString());
+            writeTime(out, series.getCreatedAt());
+            out.writeByte(series.getStatus().ordinal());
+        }
+
+        private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+
+        private static LocalDateTime readTime(DataInputStream in) throws IOException {
+            return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        }
+
+        private interface RecordWriter {
+            void write(DataOutputStream out) throws IOException;
+        }
+
+        private static byte[] encode(RecordWriter writer) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                writer.write(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+
+        // --- snapshots ---
+
+        /**
+         * Writes the full state to a new snapshot and deletes the log segments
+         * and snapshots it supersedes. Writers are not blocked while the
+         * snapshot is written.
+         *
+         * Records appended before the log rotates describe changes already
+         * applied to the repositories, so the snapshot, which is read after
+         * the rotation, includes them. Changes racing with the snapshot may
+         * appear in both the snapshot and the new segment; replay tolerates
+         * that.
+         *
+         * @throws IOException if the snapshot cannot be written
+         */
+        public synchronized void snapshot() throws IOException {
+            long segment = log.rotate();
+            Path temp = directory.resolve("snapshot-" + segment + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+                for (Employee employee : employeeRepository.findAll()) {
+                    out.write(WriteAheadLog.frame(encode(o -> {
+                        o.writeByte(EMPLOYEE);
+                        o.writeUTF(employee.getEmployeeId());
+                        o.writeUTF(employee.getName());
+                        o.writeUTF(employee.getEmail());
+                    })));
+                }
+                for (MeetingRoom room : roomRepository.findAll()) {
+                    out.write(WriteAheadLog.frame(encode(o -> writeRoom(o, room))));
+                }
+                // Streamed from the start index rather than copied, so memory stays flat
+                Iterator<Booking> bookings = bookingRepository.streamBookings(null, null, null, null, null).iterator();
+                while (bookings.hasNext()) {
+                    Booking booking = bookings.next();
+                    out.write(WriteAheadLog.frame(encode(o -> writeBooking(o, BOOKING, booking))));
+                }
+                for (Booking booking : archive.findAll()) {
+                    out.write(WriteAheadLog.frame(encode(o -> writeBooking(o, BOOKING_ARCHIVED, booking))));
+                }
+                for (RecurringSeries series : seriesRepository.findAll()) {
+                    out.write(WriteAheadLog.frame(encode(o -> writeSeries(o, series))));
+                }
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(temp, snapshotPath(segment), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            // The rename must be on disk before anything it supersedes is deleted
+            forceDirectory(directory);
+
+            for (long older : listNumbered(directory, "snapshot-", ".dat")) {
+                if (older < segment) {
+                    Files.deleteIfExists(snapshotPath(older));
+                }
+            }
+            log.deleteSegmentsBefore(segment);
+        }
+
+        private static void forceDirectory(Path directory) throws IOException {
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            }
+        }
+
+        private void snapshotQuietly() {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                // A failed rotation fails the log, which then refuses changes; any other
+                // failure leaves the log intact, so the next attempt may succeed
+                System.err.println("Snapshot failed: " + e.getMessage());
+            }
+        }
+
+        private Path snapshotPath(long segment) {
+            return directory.resolve("snapshot-" + segment + ".dat");
+        }
+
+        // --- recovery ---
+
+        /** Merged state of one booking or series across snapshot and log records. */
+        private static class Restored<T> {
+            T value;
+            BookingStatus status = BookingStatus.ACTIVE;
+            boolean deleted;
+            boolean archived;
+
+            void merge(BookingStatus next) {
+                // Final statuses never revert to ACTIVE
+                if (status == BookingStatus.ACTIVE) {
+                    status = next;
+                }
+            }
+        }
+
+        /**
+         * Loads the latest snapshot and replays the segments after it.
+         *
+         * @return the number of the next segment to write
+         */
+        private long recover() throws IOException {
+            List<Long> snapshots = listNumbered(directory, "snapshot-", ".dat");
+            long firstSegment = snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+
+            Map<String, Employee> employees = new LinkedHashMap<>();
+            Map<String, MeetingRoom> rooms = new LinkedHashMap<>();
+            Map<String, Map<String, Restored<Booking>>> bookingsByRoom = new HashMap<>();
+            Map<String, Restored<RecurringSeries>> series = new LinkedHashMap<>();
+            Consumer<byte[]> apply = payload -> applyRecord(payload, employees, rooms, bookingsByRoom, series);
+
+            if (!snapshots.isEmpty()) {
+                WriteAheadLog.read(snapshotPath(firstSegment), apply);
+            }
+            long nextSegment = firstSegment;
+            for (long segment : WriteAheadLog.listSegments(directory)) {
+                if (segment >= firstSegment) {
+                    WriteAheadLog.read(WriteAheadLog.segmentPath(directory, segment), apply);
+                }
+                nextSegment = Math.max(nextSegment, segment + 1);
+            }
+
+            employees.values().forEach(employeeRepository::save);
+            rooms.values().forEach(roomRepository::save);
+            bookingsByRoom.values().parallelStream().forEach(roomBookings -> {
+                for (Restored<Booking> restored : roomBookings.values()) {
+                    if (restored.deleted || restored.value == null) {
+                        continue;
+                    }
+                    Booking booking = restored.value;
+                    Booking merged = new Booking(booking.getBookingId(), booking.getEmployeeId(),
+                            booking.getRoomId(), booking.getTimeSlot(), booking.getCreatedAt(), restored.status);
+                    if (restored.archived) {
+                        archive.add(merged);
+                    } else {
+                        bookingRepository.save(merged);
+                    }
+                }
+            });
+            for (Restored<RecurringSeries> restored : series.values()) {
+                if (!restored.deleted && restored.value != null) {
+                    RecurringSeries value = restored.value;
+                    seriesRepository.save(new RecurringSeries(value.getSeriesId(), value.getEmployeeId(),
+                            value.getRoomId(), value.getFirstSlot(), value.getRule(), value.getCreatedAt(),
+                            restored.status));
+                }
+            }
+            return nextSegment;
+        }
+
+        private static void applyRecord(byte[] payload, Map<String, Employee> employees,
+                Map<String, MeetingRoom> rooms, Map<String, Map<String, Restored<Booking>>> bookingsByRoom,
+                Map<String, Restored<RecurringSeries>> series) {
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+                byte type = in.readByte();
+                switch (type) {
+                    case EMPLOYEE: {
+                        Employee employee = new Employee(in.readUTF(), in.readUTF(), in.readUTF());
+                        employees.put(employee.getEmployeeId(), employee);
+                        break;
+                    }
+                    case ROOM: {
+                        MeetingRoom room = new MeetingRoom(in.readUTF(), in.readUTF(), in.readInt(), in.readUTF());
+                        rooms.put(room.getRoomId(), room);
+                        break;
+                    }
+                    case BOOKING:
+                    case BOOKING_ARCHIVED: {
+                        String bookingId = in.readUTF();
+                        String roomId = in.readUTF();
+                        String employeeId = in.readUTF();
+                        TimeSlot slot = TimeSlot.derived(readTime(in), readTime(in));
+                        LocalDateTime createdAt = readTime(in);
+                        BookingStatus status = BookingStatus.values()[in.readByte()];
+                        Restored<Booking> restored = booking(bookingsByRoom, roomId, bookingId);
+                        restored.value = new Booking(bookingId, employeeId, roomId, slot, createdAt, status);
+                        restored.merge(status);
+                        // Archiving is final; a racing snapshot may still list the booking as live
+                        restored.archived |= type == BOOKING_ARCHIVED;
+                        break;
+                    }
+                    case BOOKING_RELEASED: {
+                        String bookingId = in.readUTF();
+                        booking(bookingsByRoom, in.readUTF(), bookingId).merge(BookingStatus.values()[in.readByte()]);
+                        break;
+                    }
+                    case BOOKING_DELETED: {
+                        String bookingId = in.readUTF();
+                        booking(bookingsByRoom, in.readUTF(), bookingId).deleted = true;
+                        break;
+                    }
+                    case SERIES: {
+                        String seriesId = in.readUTF();
+                        String roomId = in.readUTF();
+                        String employeeId = in.readUTF();
+                        TimeSlot firstSlot = TimeSlot.derived(readTime(in), readTime(in));
+                        RecurrenceRule rule = RecurrenceRule.parse(in.readUTF());
+                        LocalDateTime createdAt = readTime(in);
+                        BookingStatus status = BookingStatus.values()[in.readByte()];
+                        Restored<RecurringSeries> restored = series.computeIfAbsent(seriesId, k -> new Restored<>());
+                        restored.value = new RecurringSeries(seriesId, employeeId, roomId, firstSlot, rule,
+                                createdAt, status);
+                        restored.merge(status);
+                        break;
+                    }
+                    case SERIES_RELEASED: {
+                        String seriesId = in.readUTF();
+                        series.computeIfAbsent(seriesId, k -> new Restored<>())
+                                .merge(BookingStatus.values()[in.readByte()]);
+                        break;
+                    }
+                    case SERIES_DELETED:
+                        series.computeIfAbsent(in.readUTF(), k -> new Restored<>()).deleted = true;
+                        break;
+                    default:
+                        throw new IllegalStateException("Unknown record type " + type);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static Restored<Booking> booking(Map<String, Map<String, Restored<Booking>>> bookingsByRoom,
+                String roomId, String bookingId) {
+            return bookingsByRoom.computeIfAbsent(roomId, k -> new HashMap<>())
+                    .computeIfAbsent(bookingId, k -> new Restored<>());
+        }
+
+        /**
+         * Stops periodic snapshots and flushes the log.
+         */
+        @Override
+        public void close() throws IOException {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            log.close();
+        }
+    }
+
+    // Sorted numbers N of files named prefix + N + suffix
+    private static List<Long> listNumbered(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                    .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
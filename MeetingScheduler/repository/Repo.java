@@ -1,20 +1,53 @@
 package MeetingScheduler.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 import MeetingScheduler.domain.TimeSlot;
 import MeetingScheduler.domain.Booking;
+import MeetingScheduler.domain.Constants.BookingStatus;
 import MeetingScheduler.domain.Employee;
 import MeetingScheduler.domain.MeetingRoom;
+import MeetingScheduler.domain.RecurringSeries;
+import MeetingScheduler.domain.WaitlistEntry;
 
 public class Repo {
 
     public static class EmployeeRepository {
         private final Map<String, Employee> employees;
+        private final List<Consumer<Employee>> saveListeners;
 
         public EmployeeRepository() {
             this.employees = new ConcurrentHashMap<>();
+            this.saveListeners = new CopyOnWriteArrayList<>();
+        }
+
+        /**
+         * Registers a callback invoked after every saved employee.
+         * 
+         * @param listener the callback
+         */
+        public void addSaveListener(Consumer<Employee> listener) {
+            saveListeners.add(listener);
         }
 
         /**
@@ -25,6 +58,7 @@ public class Repo {
          */
         public Employee save(Employee employee) {
             employees.put(employee.getEmployeeId(), employee);
+            saveListeners.forEach(listener -> listener.accept(employee));
             return employee;
         }
 
@@ -72,12 +106,29 @@ public class Repo {
     /**
      * Repository for managing MeetingRoom entities.
      * Thread-safe implementation using ConcurrentHashMap.
+     * 
+     * Rooms are also indexed by location and then by capacity, so location
+     * and capacity queries walk only matching rooms, smallest first.
      */
     public static class MeetingRoomRepository {
         private final Map<String, MeetingRoom> rooms;
+        // lower-cased location -> capacity -> roomId -> room
+        private final Map<String, ConcurrentSkipListMap<Integer, Map<String, MeetingRoom>>> capacityIndex;
+        private final List<Consumer<MeetingRoom>> saveListeners;
 
         public MeetingRoomRepository() {
             this.rooms = new ConcurrentHashMap<>();
+            this.capacityIndex = new ConcurrentHashMap<>();
+            this.saveListeners = new CopyOnWriteArrayList<>();
+        }
+
+        /**
+         * Registers a callback invoked after every saved room.
+         * 
+         * @param listener the callback
+         */
+        public void addSaveListener(Consumer<MeetingRoom> listener) {
+            saveListeners.add(listener);
         }
 
         /**
@@ -87,10 +138,53 @@ public class Repo {
          * @return the saved meeting room
          */
         public MeetingRoom save(MeetingRoom room) {
-            rooms.put(room.getRoomId(), room);
+            MeetingRoom previous = rooms.put(room.getRoomId(), room);
+            if (previous != null) {
+                unindex(previous);
+            }
+            capacityIndex.computeIfAbsent(room.getLocation().toLowerCase(), k -> new ConcurrentSkipListMap<>())
+                    .computeIfAbsent(room.getCapacity(), k -> new ConcurrentHashMap<>())
+                    .put(room.getRoomId(), room);
+            saveListeners.forEach(listener -> listener.accept(room));
             return room;
         }
 
+        // Empty capacity buckets are kept; there are few distinct capacities
+        private void unindex(MeetingRoom room) {
+            ConcurrentSkipListMap<Integer, Map<String, MeetingRoom>> capacities =
+                    capacityIndex.get(room.getLocation().toLowerCase());
+            if (capacities != null) {
+                capacities.getOrDefault(room.getCapacity(), Collections.emptyMap()).remove(room.getRoomId(), room);
+            }
+        }
+
+        /**
+         * Lists the distinct room locations (lower-cased).
+         * 
+         * @return list of locations
+         */
+        public List<String> findLocations() {
+            return new ArrayList<>(capacityIndex.keySet());
+        }
+
+        /**
+         * Lazily streams the rooms at a location with at least the given
+         * capacity, in ascending capacity order.
+         * 
+         * @param location    the location (case-insensitive)
+         * @param minCapacity minimum capacity required
+         * @return stream of rooms, smallest first
+         */
+        public Stream<MeetingRoom> streamByCapacity(String location, int minCapacity) {
+            ConcurrentSkipListMap<Integer, Map<String, MeetingRoom>> capacities =
+                    capacityIndex.get(location.toLowerCase());
+            if (capacities == null) {
+                return Stream.empty();
+            }
+            return capacities.tailMap(minCapacity).values().stream()
+                    .flatMap(bucket -> bucket.values().stream());
+        }
+
         /**
          * Finds a meeting room by ID.
          * 
@@ -118,8 +212,8 @@ public class Repo {
          * @return list of rooms meeting the capacity requirement
          */
         public List<MeetingRoom> findByMinCapacity(int minCapacity) {
-            return rooms.values().stream()
-                    .filter(room -> room.getCapacity() >= minCapacity)
+            return capacityIndex.keySet().stream()
+                    .flatMap(location -> streamByCapacity(location, minCapacity))
                     .collect(Collectors.toList());
         }
 
@@ -130,8 +224,7 @@ public class Repo {
          * @return list of rooms at the specified location
          */
         public List<MeetingRoom> findByLocation(String location) {
-            return rooms.values().stream()
-                    .filter(room -> room.getLocation().equalsIgnoreCase(location))
+            return streamByCapacity(location, Integer.MIN_VALUE)
                     .collect(Collectors.toList());
         }
 
@@ -152,23 +245,626 @@ public class Repo {
          * @return true if deleted, false if not found
          */
         public boolean deleteById(String roomId) {
-            return rooms.remove(roomId) != null;
+            MeetingRoom removed = rooms.remove(roomId);
+            if (removed != null) {
+                unindex(removed);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Interval index of the ACTIVE bookings of a single room, keyed by start time.
+     * 
+     * Active bookings of a room never overlap, so ordering them by start also
+     * orders them by end. The only candidate that can overlap [start, end) is
+     * therefore the last booking starting before {@code end}: if it finishes by
+     * {@code start}, every earlier booking does too. That makes an overlap check
+     * a single O(log n) lookup regardless of how much history the room has,
+     * since cancelled and completed bookings are removed.
+     * 
+     * The calendar is an immutable, versioned {@link Snapshot} (a persistent
+     * treap with path copying) swapped atomically via CAS. Readers never block
+     * and always see a consistent version; writers either hold the room lock
+     * (locking mode) or validate against a snapshot and retry if another
+     * writer committed first (optimistic mode). A booking blocks its interval
+     * until it is removed, even if it was already marked cancelled.
+     */
+    public static class RoomCalendar {
+        private final AtomicReference<Snapshot> current;
+
+        public RoomCalendar() {
+            this.current = new AtomicReference<>(Snapshot.EMPTY);
+        }
+
+        /**
+         * Immutable version of a room calendar. Updates return a new snapshot
+         * sharing all untouched nodes with this one.
+         */
+        public static final class Snapshot {
+            static final Snapshot EMPTY = new Snapshot(null, 0, 0);
+
+            private final Node root;
+            private final int size;
+            private final long version;
+
+            private Snapshot(Node root, int size, long version) {
+                this.root = root;
+                this.size = size;
+                this.version = version;
+            }
+
+            /**
+             * Checks whether any booking in this version overlaps [start, end).
+             * 
+             * @param start interval start (inclusive)
+             * @param end   interval end (exclusive)
+             * @return true if an overlapping booking exists
+             */
+            public boolean hasOverlap(LocalDateTime start, LocalDateTime end) {
+                return hasOverlap(TimeSlot.toEpochNanos(start), TimeSlot.toEpochNanos(end));
+            }
+
+            public boolean hasOverlap(TimeSlot timeSlot) {
+                return hasOverlap(timeSlot.getStartNanos(), timeSlot.getEndNanos());
+            }
+
+            /**
+             * Same as {@link #hasOverlap(LocalDateTime, LocalDateTime)} for epoch nanoseconds.
+             * 
+             * @param start interval start (inclusive)
+             * @param end   interval end (exclusive)
+             * @return true if an overlapping booking exists
+             */
+            public boolean hasOverlap(long start, long end) {
+                Node candidate = null;
+                for (Node node = root; node != null;) {
+                    if (node.start < end) {
+                        candidate = node;
+                        node = node.right;
+                    } else {
+                        node = node.left;
+                    }
+                }
+                return candidate != null && candidate.end > start;
+            }
+
+            Booking get(long start) {
+                for (Node node = root; node != null;) {
+                    if (start == node.start) {
+                        return node.booking;
+                    }
+                    node = start < node.start ? node.left : node.right;
+                }
+                return null;
+            }
+
+            Snapshot with(Booking booking) {
+                return new Snapshot(Node.insert(root, new Node(booking)), size + 1, version + 1);
+            }
+
+            Snapshot without(long start) {
+                return new Snapshot(Node.remove(root, start), size - 1, version + 1);
+            }
+
+            Snapshot bumped() {
+                return new Snapshot(root, size, version + 1);
+            }
+
+            /**
+             * Returns the bookings overlapping [start, end) in O(log n + k), ordered by start.
+             * 
+             * @param start interval start (inclusive)
+             * @param end   interval end (exclusive)
+             * @return overlapping bookings
+             */
+            public List<Booking> findOverlapping(LocalDateTime start, LocalDateTime end) {
+                return findOverlapping(TimeSlot.toEpochNanos(start), TimeSlot.toEpochNanos(end));
+            }
+
+            /**
+             * Same as {@link #findOverlapping(LocalDateTime, LocalDateTime)} for epoch nanoseconds.
+             * 
+             * @param start interval start (inclusive)
+             * @param end   interval end (exclusive)
+             * @return overlapping bookings
+             */
+            public List<Booking> findOverlapping(long start, long end) {
+                List<Booking> result = new ArrayList<>();
+                collectOverlapping(root, start, end, result);
+                return result;
+            }
+
+            private static void collectOverlapping(Node node, long start, long end, List<Booking> result) {
+                if (node == null) {
+                    return;
+                }
+                if (node.start >= end) {
+                    collectOverlapping(node.left, start, end, result);
+                    return;
+                }
+                // Ends grow with starts, so nothing left of a node ending by `start` overlaps
+                if (node.end > start) {
+                    collectOverlapping(node.left, start, end, result);
+                    result.add(node.booking);
+                }
+                collectOverlapping(node.right, start, end, result);
+            }
+
+            /**
+             * Returns all bookings in this version ordered by start time.
+             * 
+             * @return list of bookings
+             */
+            public List<Booking> findAll() {
+                List<Booking> result = new ArrayList<>(size);
+                Deque<Node> stack = new ArrayDeque<>();
+                for (Node node = root; node != null || !stack.isEmpty();) {
+                    if (node != null) {
+                        stack.push(node);
+                        node = node.left;
+                    } else {
+                        node = stack.pop();
+                        result.add(node.booking);
+                        node = node.right;
+                    }
+                }
+                return result;
+            }
+
+            public int size() {
+                return size;
+            }
+
+            public long getVersion() {
+                return version;
+            }
+        }
+
+        /**
+         * Treap node. Heap order on random priorities keeps the expected depth
+         * logarithmic; updates copy only the path from the root. The booking's
+         * interval is copied in as epoch nanoseconds so searches compare longs
+         * and never touch the booking itself.
+         */
+        private static final class Node {
+            final long start;
+            final long end;
+            final Booking booking;
+            final int priority;
+            final Node left;
+            final Node right;
+
+            Node(Booking booking) {
+                this(booking.getTimeSlot().getStartNanos(), booking.getTimeSlot().getEndNanos(), booking,
+                        ThreadLocalRandom.current().nextInt(), null, null);
+            }
+
+            private Node(long start, long end, Booking booking, int priority, Node left, Node right) {
+                this.start = start;
+                this.end = end;
+                this.booking = booking;
+                this.priority = priority;
+                this.left = left;
+                this.right = right;
+            }
+
+            Node withChildren(Node newLeft, Node newRight) {
+                return new Node(start, end, booking, priority, newLeft, newRight);
+            }
+
+            static Node insert(Node node, Node inserted) {
+                if (node == null) {
+                    return inserted;
+                }
+                if (inserted.priority > node.priority) {
+                    Node[] parts = split(node, inserted.start);
+                    return inserted.withChildren(parts[0], parts[1]);
+                }
+                if (inserted.start < node.start) {
+                    return node.withChildren(insert(node.left, inserted), node.right);
+                }
+                return node.withChildren(node.left, insert(node.right, inserted));
+            }
+
+            // Splits into nodes starting before `key` and nodes starting at or after it
+            static Node[] split(Node node, long key) {
+                if (node == null) {
+                    return new Node[2];
+                }
+                if (node.start < key) {
+                    Node[] parts = split(node.right, key);
+                    return new Node[] { node.withChildren(node.left, parts[0]), parts[1] };
+                }
+                Node[] parts = split(node.left, key);
+                return new Node[] { parts[0], node.withChildren(parts[1], node.right) };
+            }
+
+            static Node remove(Node node, long key) {
+                if (node == null) {
+                    return null;
+                }
+                if (key == node.start) {
+                    return merge(node.left, node.right);
+                }
+                return key < node.start
+                        ? node.withChildren(remove(node.left, key), node.right)
+                        : node.withChildren(node.left, remove(node.right, key));
+            }
+
+            static Node merge(Node left, Node right) {
+                if (left == null) {
+                    return right;
+                }
+                if (right == null) {
+                    return left;
+                }
+                if (left.priority > right.priority) {
+                    return left.withChildren(left.left, merge(left.right, right));
+                }
+                return right.withChildren(merge(left, right.left), right.right);
+            }
+        }
+
+        /**
+         * Returns the current version of the calendar.
+         * 
+         * @return the current snapshot
+         */
+        public Snapshot snapshot() {
+            return current.get();
+        }
+
+        /**
+         * Adds an active booking to the index.
+         * 
+         * @param booking the booking to add
+         * @return true if added, false if another booking already starts at the same time
+         */
+        public boolean add(Booking booking) {
+            long start = booking.getTimeSlot().getStartNanos();
+            while (true) {
+                Snapshot snapshot = current.get();
+                if (snapshot.get(start) != null) {
+                    return false;
+                }
+                if (current.compareAndSet(snapshot, snapshot.with(booking))) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Commits a booking only if the calendar is still at the expected version.
+         * The caller must have checked the expected snapshot for overlaps.
+         * 
+         * @param expected the snapshot the booking was validated against
+         * @param booking  the booking to add
+         * @return true if committed, false if another writer got there first
+         */
+        public boolean tryAdd(Snapshot expected, Booking booking) {
+            return current.compareAndSet(expected, expected.with(booking));
+        }
+
+        /**
+         * Commits several bookings in one version step, only if the calendar is
+         * still at the expected version. The caller must have checked them for
+         * overlaps against the snapshot and against each other.
+         * 
+         * @param expected the snapshot the bookings were validated against
+         * @param bookings the bookings to add
+         * @return true if committed, false if another writer got there first
+         */
+        public boolean tryAddAll(Snapshot expected, List<Booking> bookings) {
+            Snapshot next = expected;
+            for (Booking booking : bookings) {
+                next = next.with(booking);
+            }
+            return current.compareAndSet(expected, next);
+        }
+
+        /**
+         * Advances the version without changing the bookings, only if the
+         * calendar is still at the expected version. Lets a writer that
+         * validated something other than a booking (such as a recurring
+         * series) against a snapshot invalidate concurrent optimistic bookers.
+         * 
+         * @param expected the snapshot that was validated against
+         * @return true if committed, false if another writer got there first
+         */
+        public boolean tryBump(Snapshot expected) {
+            return current.compareAndSet(expected, expected.bumped());
+        }
+
+        /**
+         * Removes a booking from the index, typically after it was cancelled or completed.
+         * 
+         * @param booking the booking to remove
+         * @return true if the booking was indexed
+         */
+        public boolean remove(Booking booking) {
+            long start = booking.getTimeSlot().getStartNanos();
+            while (true) {
+                Snapshot snapshot = current.get();
+                if (snapshot.get(start) != booking) {
+                    return false;
+                }
+                if (current.compareAndSet(snapshot, snapshot.without(start))) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Checks whether any indexed booking overlaps the time slot in O(log n).
+         * 
+         * @param timeSlot the time slot to check
+         * @return true if an overlapping booking exists
+         */
+        public boolean hasOverlap(TimeSlot timeSlot) {
+            return current.get().hasOverlap(timeSlot);
+        }
+
+        /**
+         * Same as {@link #hasOverlap(TimeSlot)} for a raw interval [start, end),
+         * which may lie in the past.
+         * 
+         * @param start interval start (inclusive)
+         * @param end   interval end (exclusive)
+         * @return true if an overlapping booking exists
+         */
+        public boolean hasOverlap(LocalDateTime start, LocalDateTime end) {
+            return current.get().hasOverlap(start, end);
+        }
+
+        /**
+         * Finds all indexed bookings overlapping the time slot in O(log n + k).
+         * 
+         * @param timeSlot the time slot to check
+         * @return overlapping bookings ordered by start time
+         */
+        public List<Booking> findOverlapping(TimeSlot timeSlot) {
+            return current.get().findOverlapping(timeSlot.getStartNanos(), timeSlot.getEndNanos());
+        }
+
+        /**
+         * Returns all indexed bookings ordered by start time.
+         * 
+         * @return list of active bookings
+         */
+        public List<Booking> findAll() {
+            return current.get().findAll();
+        }
+
+        public int size() {
+            return current.get().size();
+        }
+    }
+
+    /**
+     * Callback for changes to the set of ACTIVE bookings, used to keep
+     * derived indexes in sync with the booking repository.
+     */
+    public interface BookingEventListener {
+        /**
+         * Called after an active booking was stored.
+         * 
+         * @param booking the new booking
+         */
+        void onBooked(Booking booking);
+
+        /**
+         * Called after a booking stopped being active (cancelled, completed or deleted).
+         * 
+         * @param booking the released booking
+         */
+        void onReleased(Booking booking);
+
+        /**
+         * Called after a booking was removed from the repository altogether.
+         * 
+         * @param booking the deleted booking
+         */
+        default void onDeleted(Booking booking) {
+        }
+
+        /**
+         * Called after a finished booking was moved to a {@link BookingArchive}.
+         * 
+         * @param booking the archived booking
+         */
+        default void onArchived(Booking booking) {
+        }
+    }
+
+    /**
+     * Position of a booking in start-time order: its start as epoch
+     * nanoseconds, ties broken by booking ID. Doubles as the opaque cursor of
+     * paginated queries.
+     */
+    public static final class BookingPosition implements Comparable<BookingPosition> {
+        private final long start;
+        private final String bookingId;
+
+        private BookingPosition(long start, String bookingId) {
+            this.start = start;
+            this.bookingId = bookingId;
+        }
+
+        public static BookingPosition of(Booking booking) {
+            return new BookingPosition(booking.getTimeSlot().getStartNanos(), booking.getBookingId());
+        }
+
+        /**
+         * Returns the position before every booking starting at {@code start}.
+         * 
+         * @param start epoch nanoseconds
+         * @return the position
+         */
+        public static BookingPosition first(long start) {
+            return new BookingPosition(start, "");
+        }
+
+        /**
+         * Parses a cursor produced by {@link #toString()}.
+         * 
+         * @param cursor the cursor
+         * @return the position
+         * @throws IllegalArgumentException if the cursor is malformed
+         */
+        public static BookingPosition parse(String cursor) {
+            int separator = cursor.indexOf(':');
+            try {
+                return new BookingPosition(Long.parseLong(cursor.substring(0, separator)),
+                        cursor.substring(separator + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + cursor);
+            }
+        }
+
+        @Override
+        public int compareTo(BookingPosition other) {
+            int cmp = Long.compare(start, other.start);
+            return cmp != 0 ? cmp : bookingId.compareTo(other.bookingId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+            return compareTo((BookingPosition) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(start) * 31 + bookingId.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return start + ":" + bookingId;
+        }
+    }
+
+    /**
+     * Secondary index keeping the bookings under each key ordered by start
+     * time, so range and paginated queries walk a sorted view instead of
+     * collecting and sorting the whole key. Each key holds a
+     * {@link ConcurrentSkipListMap} whose views iterate weakly consistently
+     * while other threads write. Creating a key's map and dropping it once
+     * empty both happen inside {@link ConcurrentHashMap#compute}, so an add
+     * can never land in a map that a concurrent remove has just unlinked.
+     * 
+     * @param <K> the index key type
+     */
+    public static class StartOrderedIndex<K> {
+        private final Function<Booking, K> keyOf;
+        private final Map<K, ConcurrentSkipListMap<BookingPosition, Booking>> entries;
+
+        public StartOrderedIndex(Function<Booking, K> keyOf) {
+            this.keyOf = keyOf;
+            this.entries = new ConcurrentHashMap<>();
+        }
+
+        void add(BookingPosition position, Booking booking) {
+            entries.compute(keyOf.apply(booking), (key, bookings) -> {
+                ConcurrentSkipListMap<BookingPosition, Booking> map = bookings != null ? bookings
+                        : new ConcurrentSkipListMap<>();
+                map.put(position, booking);
+                return map;
+            });
+        }
+
+        void remove(BookingPosition position, Booking booking) {
+            entries.computeIfPresent(keyOf.apply(booking), (key, bookings) -> {
+                bookings.remove(position);
+                return bookings.isEmpty() ? null : bookings;
+            });
+        }
+
+        /**
+         * Returns a live, unmodifiable view of the bookings under a key, ordered by start.
+         * 
+         * @param key the index key
+         * @return the bookings, empty if none
+         */
+        public NavigableMap<BookingPosition, Booking> get(K key) {
+            ConcurrentSkipListMap<BookingPosition, Booking> bookings = entries.get(key);
+            return bookings == null ? Collections.emptyNavigableMap()
+                    : Collections.unmodifiableNavigableMap(bookings);
         }
     }
 
     /**
      * Repository for managing Booking entities.
      * Thread-safe implementation with support for complex queries.
+     * 
+     * Besides the per-room calendars of active bookings, every stored booking
+     * is indexed by start time overall, per room and per employee, so list,
+     * range and paginated queries are served from sorted views. Further
+     * start-ordered indexes, e.g. by date, are registered with
+     * {@link #addIndex} and maintained alongside the built-in ones.
      */
     public static class BookingRepository {
         private final Map<String, Booking> bookings;
-        private final Map<String, List<String>> roomBookings; // roomId -> List of bookingIds
-        private final Map<String, List<String>> employeeBookings; // employeeId -> List of bookingIds
+        private final ConcurrentSkipListMap<BookingPosition, Booking> byStart;
+        private final List<StartOrderedIndex<?>> indexes;
+        private final StartOrderedIndex<String> roomBookings;
+        private final StartOrderedIndex<String> employeeBookings;
+        private final Map<String, RoomCalendar> roomCalendars; // roomId -> active bookings by start
+        private final List<BookingEventListener> listeners;
 
         public BookingRepository() {
             this.bookings = new ConcurrentHashMap<>();
-            this.roomBookings = new ConcurrentHashMap<>();
-            this.employeeBookings = new ConcurrentHashMap<>();
+            this.byStart = new ConcurrentSkipListMap<>();
+            this.roomBookings = new StartOrderedIndex<>(Booking::getRoomId);
+            this.employeeBookings = new StartOrderedIndex<>(Booking::getEmployeeId);
+            this.indexes = new CopyOnWriteArrayList<>(Arrays.asList(roomBookings, employeeBookings));
+            this.roomCalendars = new ConcurrentHashMap<>();
+            this.listeners = new CopyOnWriteArrayList<>();
+        }
+
+        /**
+         * Registers an index keeping the bookings under each key ordered by
+         * start, filled with the bookings already stored and updated on
+         * every later save and removal. Register indexes while setting up,
+         * before bookings are deleted or archived concurrently.
+         * 
+         * @param <K>   the index key type
+         * @param keyOf derives a booking's key, e.g. its start date
+         * @return the index, for queries by key
+         */
+        public <K> StartOrderedIndex<K> addIndex(Function<Booking, K> keyOf) {
+            StartOrderedIndex<K> index = new StartOrderedIndex<>(keyOf);
+            indexes.add(index);
+            for (Booking booking : bookings.values()) {
+                index.add(BookingPosition.of(booking), booking);
+            }
+            return index;
+        }
+
+        /**
+         * Registers a listener for changes to active bookings.
+         * Listeners run on the writer's thread, under the room lock in locking
+         * mode and concurrently for the same room in optimistic mode.
+         * 
+         * @param listener the listener to add
+         */
+        public void addListener(BookingEventListener listener) {
+            listeners.add(listener);
+        }
+
+        /**
+         * Returns the interval index of a room, creating it on first use.
+         * 
+         * @param roomId the room ID
+         * @return the room's calendar
+         */
+        public RoomCalendar calendarFor(String roomId) {
+            return roomCalendars.computeIfAbsent(roomId, k -> new RoomCalendar());
         }
 
         /**
@@ -179,19 +875,86 @@ public class Repo {
          * @return the saved booking
          */
         public Booking save(Booking booking) {
+            boolean indexed = booking.isActive() && calendarFor(booking.getRoomId()).add(booking);
+            index(booking);
+            if (indexed) {
+                listeners.forEach(listener -> listener.onBooked(booking));
+            }
+            return booking;
+        }
+
+        /**
+         * Saves a new active booking only if its room calendar is still at the
+         * snapshot it was validated against. Used by optimistic booking.
+         * 
+         * @param booking  the booking to save
+         * @param expected the calendar snapshot checked for overlaps
+         * @return true if saved, false if the calendar changed in between
+         */
+        public boolean trySave(Booking booking, RoomCalendar.Snapshot expected) {
+            if (!calendarFor(booking.getRoomId()).tryAdd(expected, booking)) {
+                return false;
+            }
+            index(booking);
+            listeners.forEach(listener -> listener.onBooked(booking));
+            return true;
+        }
+
+        /**
+         * Saves bookings that were already committed to their room calendars
+         * (see {@link RoomCalendar#tryAddAll}) and notifies listeners.
+         * 
+         * @param reserved the committed bookings
+         */
+        public void saveReserved(List<Booking> reserved) {
+            reserved.forEach(this::index);
+            for (Booking booking : reserved) {
+                listeners.forEach(listener -> listener.onBooked(booking));
+            }
+        }
+
+        private void index(Booking booking) {
             bookings.put(booking.getBookingId(), booking);
+            BookingPosition position = BookingPosition.of(booking);
+            byStart.put(position, booking);
+            for (StartOrderedIndex<?> index : indexes) {
+                index.add(position, booking);
+            }
+        }
 
-            // Update room index
-            roomBookings.computeIfAbsent(
-                    booking.getRoomId(),
-                    k -> new ArrayList<>()).add(booking.getBookingId());
+        private void unindex(Booking booking) {
+            BookingPosition position = BookingPosition.of(booking);
+            byStart.remove(position);
+            for (StartOrderedIndex<?> index : indexes) {
+                index.remove(position, booking);
+            }
+        }
 
-            // Update employee index
-            employeeBookings.computeIfAbsent(
-                    booking.getEmployeeId(),
-                    k -> new ArrayList<>()).add(booking.getBookingId());
+        /**
+         * Removes a booking from the active interval index.
+         * Must be called after a booking is cancelled or completed.
+         * 
+         * @param booking the booking that is no longer active
+         */
+        public void deactivate(Booking booking) {
+            RoomCalendar calendar = roomCalendars.get(booking.getRoomId());
+            if (calendar != null && calendar.remove(booking)) {
+                listeners.forEach(listener -> listener.onReleased(booking));
+            }
+        }
 
-            return booking;
+        /**
+         * Checks whether any active booking of the room overlaps [start, end).
+         * Unlike {@link #isRoomAvailable} the interval may lie in the past.
+         * 
+         * @param roomId the room ID
+         * @param start  interval start (inclusive)
+         * @param end    interval end (exclusive)
+         * @return true if an active booking overlaps the interval
+         */
+        public boolean hasActiveOverlap(String roomId, LocalDateTime start, LocalDateTime end) {
+            RoomCalendar calendar = roomCalendars.get(roomId);
+            return calendar != null && calendar.hasOverlap(start, end);
         }
 
         /**
@@ -221,11 +984,7 @@ public class Repo {
          * @return list of bookings for the room
          */
         public List<Booking> findByRoomId(String roomId) {
-            return roomBookings.getOrDefault(roomId, Collections.emptyList())
-                    .stream()
-                    .map(bookings::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
+            return new ArrayList<>(roomBookings.get(roomId).values());
         }
 
         /**
@@ -235,9 +994,8 @@ public class Repo {
          * @return list of active bookings for the room
          */
         public List<Booking> findActiveBookingsByRoomId(String roomId) {
-            return findByRoomId(roomId).stream()
-                    .filter(Booking::isActive)
-                    .collect(Collectors.toList());
+            RoomCalendar calendar = roomCalendars.get(roomId);
+            return calendar == null ? new ArrayList<>() : calendar.findAll();
         }
 
         /**
@@ -247,13 +1005,60 @@ public class Repo {
          * @return list of bookings made by the employee
          */
         public List<Booking> findByEmployeeId(String employeeId) {
-            return employeeBookings.getOrDefault(employeeId, Collections.emptyList())
-                    .stream()
-                    .map(bookings::get)
-                    .filter(Objects::nonNull)
+            return new ArrayList<>(employeeBookings.get(employeeId).values());
+        }
+
+        /**
+         * Finds all bookings starting on a given date.
+         * 
+         * @param date the start date
+         * @return list of bookings starting that day
+         */
+        public List<Booking> findByDate(LocalDate date) {
+            return streamBookings(null, null, date.atStartOfDay(), date.plusDays(1).atStartOfDay(), null)
                     .collect(Collectors.toList());
         }
 
+        /**
+         * Lazily streams bookings in start-time order, filtered by room,
+         * employee and start time. The filters are applied to the most
+         * selective start-ordered index (room, then employee, then all), so
+         * only bookings in the requested range are visited and nothing is
+         * copied; the stream is weakly consistent with concurrent writes.
+         * 
+         * @param roomId     room to restrict to, or null
+         * @param employeeId employee to restrict to, or null
+         * @param from       earliest start (inclusive), or null
+         * @param to         latest start (exclusive), or null
+         * @param after      cursor of the last booking already seen, or null
+         * @return stream of bookings ordered by start time
+         * @throws IllegalArgumentException if the cursor is malformed
+         */
+        public Stream<Booking> streamBookings(String roomId, String employeeId, LocalDateTime from,
+                LocalDateTime to, String after) {
+            NavigableMap<BookingPosition, Booking> range = byStart;
+            if (roomId != null) {
+                range = roomBookings.get(roomId);
+            } else if (employeeId != null) {
+                range = employeeBookings.get(employeeId);
+            }
+            BookingPosition lower = from == null ? null : BookingPosition.first(TimeSlot.toEpochNanos(from));
+            BookingPosition cursor = after == null ? null : BookingPosition.parse(after);
+            if (cursor != null && (lower == null || cursor.compareTo(lower) >= 0)) {
+                range = range.tailMap(cursor, false);
+            } else if (lower != null) {
+                range = range.tailMap(lower, true);
+            }
+            if (to != null) {
+                range = range.headMap(BookingPosition.first(TimeSlot.toEpochNanos(to)), false);
+            }
+            Stream<Booking> stream = range.values().stream();
+            if (roomId != null && employeeId != null) {
+                stream = stream.filter(booking -> booking.getEmployeeId().equals(employeeId));
+            }
+            return stream;
+        }
+
         /**
          * Finds all active bookings for a specific employee.
          * 
@@ -275,9 +1080,8 @@ public class Repo {
          * @return list of overlapping active bookings
          */
         public List<Booking> findOverlappingBookings(String roomId, TimeSlot timeSlot) {
-            return findActiveBookingsByRoomId(roomId).stream()
-                    .filter(booking -> booking.overlaps(timeSlot))
-                    .collect(Collectors.toList());
+            RoomCalendar calendar = roomCalendars.get(roomId);
+            return calendar == null ? new ArrayList<>() : calendar.findOverlapping(timeSlot);
         }
 
         /**
@@ -288,7 +1092,8 @@ public class Repo {
          * @return true if room is available, false otherwise
          */
         public boolean isRoomAvailable(String roomId, TimeSlot timeSlot) {
-            return findOverlappingBookings(roomId, timeSlot).isEmpty();
+            RoomCalendar calendar = roomCalendars.get(roomId);
+            return calendar == null || !calendar.hasOverlap(timeSlot);
         }
 
         /**
@@ -301,13 +1106,1143 @@ public class Repo {
             Booking booking = bookings.remove(bookingId);
             if (booking != null) {
                 // Clean up indexes
-                roomBookings.getOrDefault(booking.getRoomId(), Collections.emptyList())
-                        .remove(bookingId);
-                employeeBookings.getOrDefault(booking.getEmployeeId(), Collections.emptyList())
-                        .remove(bookingId);
+                deactivate(booking);
+                unindex(booking);
+                listeners.forEach(listener -> listener.onDeleted(booking));
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Moves a cancelled or completed booking into an archive, dropping it
+         * from this repository and all of its indexes.
+         * 
+         * @param bookingId the booking ID
+         * @param archive   where to keep the booking
+         * @return true if archived, false if not found or still active
+         */
+        public boolean archive(String bookingId, BookingArchive archive) {
+            Booking booking = bookings.get(bookingId);
+            if (booking == null || booking.isActive()) {
+                return false;
+            }
+            // Archive first so the booking is always findable in one of the two places
+            archive.add(booking);
+            if (!bookings.remove(bookingId, booking)) {
+                return false;
+            }
+            deactivate(booking);
+            unindex(booking);
+            listeners.forEach(listener -> listener.onArchived(booking));
+            return true;
+        }
+    }
+
+    /**
+     * Compact, append-only store for finished bookings.
+     * 
+     * Bookings are kept column-wise in primitive arrays: times as epoch
+     * nanoseconds and room and employee IDs as references into a shared
+     * dictionary, so an archived booking costs a few dozen bytes instead of
+     * a Booking, a TimeSlot and three LocalDateTime objects. Lookups by ID go
+     * through a hash index; the rest scan, since archived bookings are only
+     * read for history.
+     */
+    public static class BookingArchive {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<String, Integer> positions;
+        private final Map<String, Integer> dictionary;
+        private final List<String> strings;
+        private String[] bookingIds;
+        private int[] roomRefs;
+        private int[] employeeRefs;
+        private long[] starts;
+        private long[] ends;
+        private long[] createdAts;
+        private byte[] statuses;
+        private int size;
+
+        public BookingArchive() {
+            this.positions = new HashMap<>();
+            this.dictionary = new HashMap<>();
+            this.strings = new ArrayList<>();
+            this.bookingIds = new String[INITIAL_CAPACITY];
+            this.roomRefs = new int[INITIAL_CAPACITY];
+            this.employeeRefs = new int[INITIAL_CAPACITY];
+            this.starts = new long[INITIAL_CAPACITY];
+            this.ends = new long[INITIAL_CAPACITY];
+            this.createdAts = new long[INITIAL_CAPACITY];
+            this.statuses = new byte[INITIAL_CAPACITY];
+        }
+
+        /**
+         * Adds a booking; adding the same booking ID again has no effect.
+         * 
+         * @param booking the booking to archive
+         */
+        public synchronized void add(Booking booking) {
+            if (positions.containsKey(booking.getBookingId())) {
+                return;
+            }
+            if (size == bookingIds.length) {
+                int capacity = size * 2;
+                bookingIds = Arrays.copyOf(bookingIds, capacity);
+                roomRefs = Arrays.copyOf(roomRefs, capacity);
+                employeeRefs = Arrays.copyOf(employeeRefs, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                createdAts = Arrays.copyOf(createdAts, capacity);
+                statuses = Arrays.copyOf(statuses, capacity);
+            }
+            bookingIds[size] = booking.getBookingId();
+            roomRefs[size] = intern(booking.getRoomId());
+            employeeRefs[size] = intern(booking.getEmployeeId());
+            starts[size] = toNanos(booking.getTimeSlot().getStartTime());
+            ends[size] = toNanos(booking.getTimeSlot().getEndTime());
+            createdAts[size] = toNanos(booking.getCreatedAt());
+            statuses[size] = (byte) booking.getStatus().ordinal();
+            positions.put(booking.getBookingId(), size);
+            size++;
+        }
+
+        private int intern(String value) {
+            return dictionary.computeIfAbsent(value, k -> {
+                strings.add(k);
+                return strings.size() - 1;
+            });
+        }
+
+        /**
+         * Finds an archived booking by ID.
+         * 
+         * @param bookingId the booking ID
+         * @return Optional containing the booking if archived
+         */
+        public synchronized Optional<Booking> findById(String bookingId) {
+            Integer position = positions.get(bookingId);
+            return position == null ? Optional.empty() : Optional.of(toBooking(position));
+        }
+
+        /**
+         * Finds all archived bookings of a room.
+         * 
+         * @param roomId the room ID
+         * @return list of bookings in archival order
+         */
+        public synchronized List<Booking> findByRoomId(String roomId) {
+            Integer ref = dictionary.get(roomId);
+            List<Booking> result = new ArrayList<>();
+            for (int i = 0; ref != null && i < size; i++) {
+                if (roomRefs[i] == ref) {
+                    result.add(toBooking(i));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Finds all archived bookings of an employee.
+         * 
+         * @param employeeId the employee ID
+         * @return list of bookings in archival order
+         */
+        public synchronized List<Booking> findByEmployeeId(String employeeId) {
+            Integer ref = dictionary.get(employeeId);
+            List<Booking> result = new ArrayList<>();
+            for (int i = 0; ref != null && i < size; i++) {
+                if (employeeRefs[i] == ref) {
+                    result.add(toBooking(i));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Retrieves all archived bookings.
+         * 
+         * @return list of bookings in archival order
+         */
+        public synchronized List<Booking> findAll() {
+            List<Booking> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(toBooking(i));
+            }
+            return result;
+        }
+
+        public synchronized int size() {
+            return size;
+        }
+
+        private Booking toBooking(int i) {
+            return new Booking(bookingIds[i], strings.get(employeeRefs[i]), strings.get(roomRefs[i]),
+                    TimeSlot.derived(fromNanos(starts[i]), fromNanos(ends[i])), fromNanos(createdAts[i]),
+                    BookingStatus.values()[statuses[i]]);
+        }
+
+        private static long toNanos(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+        }
+
+        private static LocalDateTime fromNanos(long nanos) {
+            return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                    (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+        }
+    }
+
+    /**
+     * Callback for changes to stored recurring series.
+     */
+    public interface SeriesEventListener {
+        /**
+         * Called after a series was stored.
+         * 
+         * @param series the saved series
+         */
+        void onSeriesSaved(RecurringSeries series);
+
+        /**
+         * Called after a series stopped blocking its room (it was cancelled).
+         * 
+         * @param series the released series
+         */
+        void onSeriesReleased(RecurringSeries series);
+
+        /**
+         * Called after a series was removed altogether, e.g. a rejected tentative series.
+         * 
+         * @param series the deleted series
+         */
+        void onSeriesDeleted(RecurringSeries series);
+    }
+
+    /**
+     * Repository for recurring meeting series.
+     * Series are stored once, not per occurrence; conflict checks ask each
+     * active series of the room, which answers in O(1) per series.
+     */
+    public static class RecurringSeriesRepository {
+        private final Map<String, RecurringSeries> series;
+        private final Map<String, Set<RecurringSeries>> roomSeries; // roomId -> active series
+        private final List<SeriesEventListener> listeners;
+
+        public RecurringSeriesRepository() {
+            this.series = new ConcurrentHashMap<>();
+            this.roomSeries = new ConcurrentHashMap<>();
+            this.listeners = new CopyOnWriteArrayList<>();
+        }
+
+        /**
+         * Registers a listener for changes to stored series.
+         * 
+         * @param listener the listener to add
+         */
+        public void addListener(SeriesEventListener listener) {
+            listeners.add(listener);
+        }
+
+        /**
+         * Saves a series and indexes it under its room while it is active.
+         * 
+         * @param recurringSeries the series to save
+         * @return the saved series
+         */
+        public RecurringSeries save(RecurringSeries recurringSeries) {
+            series.put(recurringSeries.getSeriesId(), recurringSeries);
+            if (recurringSeries.isActive()) {
+                roomSeries.computeIfAbsent(recurringSeries.getRoomId(), k -> ConcurrentHashMap.newKeySet())
+                        .add(recurringSeries);
+            }
+            listeners.forEach(listener -> listener.onSeriesSaved(recurringSeries));
+            return recurringSeries;
+        }
+
+        /**
+         * Stops a series from blocking its room's slots.
+         * Must be called after a series is cancelled.
+         * 
+         * @param recurringSeries the series that is no longer active
+         */
+        public void deactivate(RecurringSeries recurringSeries) {
+            if (roomSeries.getOrDefault(recurringSeries.getRoomId(), Collections.emptySet())
+                    .remove(recurringSeries)) {
+                listeners.forEach(listener -> listener.onSeriesReleased(recurringSeries));
+            }
+        }
+
+        /**
+         * Deletes a series by ID.
+         * 
+         * @param seriesId the series ID
+         * @return true if deleted, false if not found
+         */
+        public boolean deleteById(String seriesId) {
+            RecurringSeries removed = series.remove(seriesId);
+            if (removed != null) {
+                roomSeries.getOrDefault(removed.getRoomId(), Collections.emptySet()).remove(removed);
+                listeners.forEach(listener -> listener.onSeriesDeleted(removed));
                 return true;
             }
             return false;
         }
+
+        /**
+         * Finds a series by ID.
+         * 
+         * @param seriesId the series ID
+         * @return Optional containing the series if found
+         */
+        public Optional<RecurringSeries> findById(String seriesId) {
+            return Optional.ofNullable(series.get(seriesId));
+        }
+
+        /**
+         * Retrieves all series, including cancelled ones.
+         * 
+         * @return unmodifiable list of all series
+         */
+        public List<RecurringSeries> findAll() {
+            return Collections.unmodifiableList(
+                    new ArrayList<>(series.values()));
+        }
+
+        /**
+         * Finds the active series of a room.
+         * 
+         * @param roomId the room ID
+         * @return list of active series
+         */
+        public List<RecurringSeries> findByRoomId(String roomId) {
+            return new ArrayList<>(roomSeries.getOrDefault(roomId, Collections.emptySet()));
+        }
+
+        /**
+         * Checks whether any active series of the room has an occurrence overlapping [start, end).
+         * 
+         * @param roomId the room ID
+         * @param start  interval start (inclusive)
+         * @param end    interval end (exclusive)
+         * @return true if an occurrence overlaps the interval
+         */
+        public boolean hasConflict(String roomId, LocalDateTime start, LocalDateTime end) {
+            Set<RecurringSeries> active = roomSeries.get(roomId);
+            if (active == null) {
+                return false;
+            }
+            for (RecurringSeries other : active) {
+                if (other.overlaps(start, end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public boolean hasConflict(String roomId, TimeSlot timeSlot) {
+            return hasConflict(roomId, timeSlot.getStartTime(), timeSlot.getEndTime());
+        }
+
+        /**
+         * Checks whether another active series of the same room collides with the given one.
+         * 
+         * @param candidate the series to check
+         * @return true if some other series shares an occurrence slot
+         */
+        public boolean hasConflict(RecurringSeries candidate) {
+            for (RecurringSeries other : roomSeries.getOrDefault(candidate.getRoomId(), Collections.emptySet())) {
+                if (!other.equals(candidate) && other.overlaps(candidate)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Repository of waitlist entries, indexed per room by the interval they want.
+     * 
+     * Each room keeps its waiting entries in a skip list ordered by start,
+     * together with a count of the waiting entries per duration. An entry
+     * can only overlap [start, end) if it starts in (start - longest, end),
+     * so the entries a freed interval could satisfy are found with one range
+     * scan instead of a pass over the room's whole waitlist. Those few
+     * candidates are then ranked by priority. Entries leave the index once
+     * they are fulfilled, withdrawn or expired, and the longest duration
+     * shrinks with them.
+     * 
+     * Every entry, whatever its status, is also kept in start order until
+     * its slot starts; {@link #expireStarted} then expires it if it is still
+     * waiting and forgets it, so the repository holds only entries for slots
+     * that are yet to come.
+     */
+    public static class WaitlistRepository {
+        private static final Comparator<WaitlistEntry> SERVICE_ORDER = Comparator
+                .comparingInt(WaitlistEntry::getPriority).reversed()
+                .thenComparingLong(WaitlistEntry::getSequence);
+        // Keys are (start nanos, sequence)
+        private static final Comparator<long[]> START_ORDER = Comparator.<long[]>comparingLong(key -> key[0])
+                .thenComparingLong(key -> key[1]);
+
+        private final Map<String, WaitlistEntry> entries;
+        private final ConcurrentSkipListMap<long[], WaitlistEntry> byStart;
+        private final Map<String, RoomWaitlist> rooms;
+        private final AtomicLong sequence;
+
+        public WaitlistRepository() {
+            this.entries = new ConcurrentHashMap<>();
+            this.byStart = new ConcurrentSkipListMap<>(START_ORDER);
+            this.rooms = new ConcurrentHashMap<>();
+            this.sequence = new AtomicLong();
+        }
+
+        private static final class RoomWaitlist {
+            final ConcurrentSkipListMap<long[], WaitlistEntry> byStart = new ConcurrentSkipListMap<>(START_ORDER);
+            // Duration in nanos -> number of waiting entries that long
+            final ConcurrentSkipListMap<Long, Integer> durations = new ConcurrentSkipListMap<>();
+
+            long longest() {
+                Map.Entry<Long, Integer> longest = durations.lastEntry();
+                return longest == null ? 0 : longest.getKey();
+            }
+
+            void countDuration(long duration, int delta) {
+                durations.compute(duration, (key, count) -> {
+                    int next = (count == null ? 0 : count) + delta;
+                    return next > 0 ? next : null;
+                });
+            }
+        }
+
+        private static long durationOf(WaitlistEntry entry) {
+            return entry.getTimeSlot().getEndNanos() - entry.getTimeSlot().getStartNanos();
+        }
+
+        private static long[] keyOf(WaitlistEntry entry) {
+            return new long[] { entry.getTimeSlot().getStartNanos(), entry.getSequence() };
+        }
+
+        /**
+         * Returns the next joining sequence number.
+         * 
+         * @return a number greater than any returned before
+         */
+        public long nextSequence() {
+            return sequence.incrementAndGet();
+        }
+
+        /**
+         * Saves an entry, indexing it under its room while it is waiting.
+         * 
+         * @param entry the entry to save
+         * @return the saved entry
+         */
+        public WaitlistEntry save(WaitlistEntry entry) {
+            entries.put(entry.getEntryId(), entry);
+            byStart.put(keyOf(entry), entry);
+            if (entry.isWaiting()) {
+                RoomWaitlist waitlist = rooms.computeIfAbsent(entry.getRoomId(), k -> new RoomWaitlist());
+                // Counted before it becomes visible, so a scan never starts too late for it
+                waitlist.countDuration(durationOf(entry), 1);
+                if (waitlist.byStart.put(keyOf(entry), entry) != null) {
+                    waitlist.countDuration(durationOf(entry), -1);
+                }
+            }
+            return entry;
+        }
+
+        /**
+         * Drops an entry from its room's index once it is no longer waiting.
+         * 
+         * @param entry the entry to drop
+         */
+        public void deactivate(WaitlistEntry entry) {
+            RoomWaitlist waitlist = rooms.get(entry.getRoomId());
+            if (waitlist != null && waitlist.byStart.remove(keyOf(entry)) != null) {
+                waitlist.countDuration(durationOf(entry), -1);
+            }
+        }
+
+        /**
+         * Expires every waiting entry whose slot started before {@code now}
+         * and forgets all entries, whatever their status, whose slot has started.
+         * 
+         * @param now the current time
+         * @return the entries that were still waiting and are now expired
+         */
+        public List<WaitlistEntry> expireStarted(LocalDateTime now) {
+            long[] until = { TimeSlot.toEpochNanos(now), Long.MIN_VALUE };
+            List<WaitlistEntry> expired = new ArrayList<>();
+            Iterator<WaitlistEntry> started = byStart.headMap(until).values().iterator();
+            while (started.hasNext()) {
+                WaitlistEntry entry = started.next();
+                if (entry.expire()) {
+                    expired.add(entry);
+                }
+                deactivate(entry);
+                entries.remove(entry.getEntryId(), entry);
+                started.remove();
+            }
+            return expired;
+        }
+
+        /**
+         * Finds an entry by ID, whatever its status, as long as its slot has
+         * not been passed by {@link #expireStarted}.
+         * 
+         * @param entryId the entry ID
+         * @return Optional containing the entry if found
+         */
+        public Optional<WaitlistEntry> findById(String entryId) {
+            return Optional.ofNullable(entries.get(entryId));
+        }
+
+        /**
+         * Finds the waiting entries of a room, ordered by start time.
+         * 
+         * @param roomId the room ID
+         * @return list of waiting entries
+         */
+        public List<WaitlistEntry> findByRoomId(String roomId) {
+            RoomWaitlist waitlist = rooms.get(roomId);
+            return waitlist == null ? new ArrayList<>() : new ArrayList<>(waitlist.byStart.values());
+        }
+
+        /**
+         * Finds the waiting entries of a room that overlap [start, end), in
+         * service order: highest priority first, then earliest joined.
+         * 
+         * @param roomId the room ID
+         * @param start  interval start in epoch nanoseconds (inclusive)
+         * @param end    interval end in epoch nanoseconds (exclusive)
+         * @return candidate entries
+         */
+        public List<WaitlistEntry> findCandidates(String roomId, long start, long end) {
+            RoomWaitlist waitlist = rooms.get(roomId);
+            if (waitlist == null) {
+                return new ArrayList<>();
+            }
+            long[] from = { start - waitlist.longest(), Long.MAX_VALUE };
+            long[] to = { end, Long.MIN_VALUE };
+            List<WaitlistEntry> candidates = new ArrayList<>();
+            for (WaitlistEntry entry : waitlist.byStart.subMap(from, false, to, false).values()) {
+                if (entry.getTimeSlot().getEndNanos() > start) {
+                    candidates.add(entry);
+                }
+            }
+            candidates.sort(SERVICE_ORDER);
+            return candidates;
+        }
+
+        /**
+         * Finds the waiting entries of a series' room that overlap any of its
+         * occurrences, in service order.
+         * 
+         * @param series the series
+         * @return candidate entries
+         */
+        public List<WaitlistEntry> findCandidates(RecurringSeries series) {
+            RoomWaitlist waitlist = rooms.get(series.getRoomId());
+            if (waitlist == null) {
+                return new ArrayList<>();
+            }
+            long from = series.getFirstSlot().getStartNanos() - waitlist.longest();
+            long to = TimeSlot.toEpochNanos(series.getLastEnd());
+            List<WaitlistEntry> candidates = new ArrayList<>();
+            for (WaitlistEntry entry : waitlist.byStart.subMap(new long[] { from, Long.MAX_VALUE }, false,
+                    new long[] { to, Long.MIN_VALUE }, false).values()) {
+                if (series.overlaps(entry.getTimeSlot())) {
+                    candidates.add(entry);
+                }
+            }
+            candidates.sort(SERVICE_ORDER);
+            return candidates;
+        }
+    }
+
+    /**
+     * Busy intervals of every employee, kept as sorted primitive arrays for
+     * free/busy sweeps.
+     * 
+     * Each employee maps to an immutable {@link Intervals} value (parallel
+     * start and end arrays in epoch seconds, sorted by start) that is
+     * replaced copy-on-write on every change, so readers iterate plain
+     * arrays without locks or object lookups. An employee's own bookings may
+     * overlap each other (two rooms at once); consumers merge them. Recurring
+     * series are kept per employee as-is and expanded by the reader for the
+     * window it needs.
+     */
+    public static class EmployeeBusyIndex implements BookingEventListener, SeriesEventListener {
+        private final Map<String, AtomicReference<Intervals>> employees;
+        private final Map<String, Set<RecurringSeries>> employeeSeries;
+
+        public EmployeeBusyIndex() {
+            this.employees = new ConcurrentHashMap<>();
+            this.employeeSeries = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Immutable busy intervals of one employee, sorted by start.
+         */
+        public static final class Intervals {
+            static final Intervals EMPTY = new Intervals(new long[0], new long[0], new String[0], 0);
+
+            private final long[] starts;
+            private final long[] ends;
+            private final String[] ids;
+            // Longest interval ever held; bounds how far before a window an overlapping one can start
+            private final long maxLength;
+
+            private Intervals(long[] starts, long[] ends, String[] ids, long maxLength) {
+                this.starts = starts;
+                this.ends = ends;
+                this.ids = ids;
+                this.maxLength = maxLength;
+            }
+
+            /**
+             * Wraps intervals computed elsewhere, such as series occurrences in a
+             * query window. The arrays must be sorted by start and are not copied.
+             * 
+             * @param starts interval starts in epoch seconds
+             * @param ends   interval ends in epoch seconds
+             * @return the intervals
+             */
+            public static Intervals of(long[] starts, long[] ends) {
+                long maxLength = 0;
+                for (int i = 0; i < starts.length; i++) {
+                    maxLength = Math.max(maxLength, ends[i] - starts[i]);
+                }
+                return new Intervals(starts, ends, new String[starts.length], maxLength);
+            }
+
+            Intervals with(String id, long start, long end) {
+                int at = upperBound(start);
+                int n = starts.length;
+                long[] newStarts = new long[n + 1];
+                long[] newEnds = new long[n + 1];
+                String[] newIds = new String[n + 1];
+                System.arraycopy(starts, 0, newStarts, 0, at);
+                System.arraycopy(ends, 0, newEnds, 0, at);
+                System.arraycopy(ids, 0, newIds, 0, at);
+                newStarts[at] = start;
+                newEnds[at] = end;
+                newIds[at] = id;
+                System.arraycopy(starts, at, newStarts, at + 1, n - at);
+                System.arraycopy(ends, at, newEnds, at + 1, n - at);
+                System.arraycopy(ids, at, newIds, at + 1, n - at);
+                return new Intervals(newStarts, newEnds, newIds, Math.max(maxLength, end - start));
+            }
+
+            Intervals without(String id, long start) {
+                for (int i = lowerBound(start); i < starts.length && starts[i] == start; i++) {
+                    if (ids[i].equals(id)) {
+                        int n = starts.length;
+                        long[] newStarts = new long[n - 1];
+                        long[] newEnds = new long[n - 1];
+                        String[] newIds = new String[n - 1];
+                        System.arraycopy(starts, 0, newStarts, 0, i);
+                        System.arraycopy(ends, 0, newEnds, 0, i);
+                        System.arraycopy(ids, 0, newIds, 0, i);
+                        System.arraycopy(starts, i + 1, newStarts, i, n - i - 1);
+                        System.arraycopy(ends, i + 1, newEnds, i, n - i - 1);
+                        System.arraycopy(ids, i + 1, newIds, i, n - i - 1);
+                        return new Intervals(newStarts, newEnds, newIds, maxLength);
+                    }
+                }
+                return this;
+            }
+
+            /**
+             * Returns the first index whose interval may end after {@code time};
+             * every earlier interval ends by then.
+             * 
+             * @param time epoch second
+             * @return index into the arrays
+             */
+            public int firstEndingAfter(long time) {
+                return upperBound(time - maxLength);
+            }
+
+            private int lowerBound(long start) {
+                int low = 0;
+                int high = starts.length;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (starts[mid] < start) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                return low;
+            }
+
+            private int upperBound(long start) {
+                int low = 0;
+                int high = starts.length;
+                while (low < high) {
+                    int mid = (low + high) >>> 1;
+                    if (starts[mid] <= start) {
+                        low = mid + 1;
+                    } else {
+                        high = mid;
+                    }
+                }
+                return low;
+            }
+
+            public int size() {
+                return starts.length;
+            }
+
+            public long startAt(int i) {
+                return starts[i];
+            }
+
+            public long endAt(int i) {
+                return ends[i];
+            }
+        }
+
+        @Override
+        public void onBooked(Booking booking) {
+            long start = floorSeconds(booking.getTimeSlot().getStartTime());
+            long end = ceilSeconds(booking.getTimeSlot().getEndTime());
+            intervalsOf(booking.getEmployeeId()).updateAndGet(
+                    intervals -> intervals.with(booking.getBookingId(), start, end));
+        }
+
+        @Override
+        public void onReleased(Booking booking) {
+            long start = floorSeconds(booking.getTimeSlot().getStartTime());
+            intervalsOf(booking.getEmployeeId()).updateAndGet(
+                    intervals -> intervals.without(booking.getBookingId(), start));
+        }
+
+        @Override
+        public void onSeriesSaved(RecurringSeries series) {
+            if (series.isActive()) {
+                employeeSeries.computeIfAbsent(series.getEmployeeId(), k -> ConcurrentHashMap.newKeySet())
+                        .add(series);
+            }
+        }
+
+        @Override
+        public void onSeriesReleased(RecurringSeries series) {
+            employeeSeries.getOrDefault(series.getEmployeeId(), Collections.emptySet()).remove(series);
+        }
+
+        @Override
+        public void onSeriesDeleted(RecurringSeries series) {
+            onSeriesReleased(series);
+        }
+
+        private AtomicReference<Intervals> intervalsOf(String employeeId) {
+            return employees.computeIfAbsent(employeeId, k -> new AtomicReference<>(Intervals.EMPTY));
+        }
+
+        /**
+         * Returns the current busy intervals of an employee's one-off bookings.
+         * 
+         * @param employeeId the employee ID
+         * @return the intervals, empty if none
+         */
+        public Intervals busy(String employeeId) {
+            AtomicReference<Intervals> intervals = employees.get(employeeId);
+            return intervals == null ? Intervals.EMPTY : intervals.get();
+        }
+
+        /**
+         * Returns the active recurring series owned by an employee.
+         * 
+         * @param employeeId the employee ID
+         * @return list of series
+         */
+        public List<RecurringSeries> series(String employeeId) {
+            return new ArrayList<>(employeeSeries.getOrDefault(employeeId, Collections.emptySet()));
+        }
+
+        /**
+         * Converts a time to epoch seconds, rounding down.
+         * 
+         * @param time the time
+         * @return epoch second
+         */
+        public static long floorSeconds(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC);
+        }
+
+        /**
+         * Converts a time to epoch seconds, rounding up.
+         * 
+         * @param time the time
+         * @return epoch second
+         */
+        public static long ceilSeconds(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) + (time.getNano() > 0 ? 1 : 0);
+        }
+    }
+
+    /**
+     * Recent booking load per room: minutes of meetings held over a trailing
+     * window of days, relative to the bookable minutes in that window.
+     * 
+     * Minutes are counted against the day the meeting starts, in a per-room
+     * map from epoch day to minutes, so a cancellation takes its minutes back
+     * from the same day the booking added them to however much later it
+     * happens. Meetings booked ahead wait in their day's counter until that
+     * day enters the window; days that have left it are dropped as they are
+     * passed over. Completed meetings keep counting.
+     */
+    public static class RoomUtilization implements BookingEventListener {
+        private static final int BOOKABLE_MINUTES_PER_DAY = 10 * 60;
+
+        private final Clock clock;
+        private final int windowDays;
+        private final Map<String, ConcurrentNavigableMap<Long, Long>> rooms;
+
+        public RoomUtilization(Clock clock, int windowDays) {
+            if (windowDays <= 0) {
+                throw new IllegalArgumentException("Window must be positive");
+            }
+            this.clock = clock;
+            this.windowDays = windowDays;
+            this.rooms = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void onBooked(Booking booking) {
+            add(booking, 1);
+        }
+
+        @Override
+        public void onReleased(Booking booking) {
+            if (booking.isCancelled()) {
+                add(booking, -1);
+            }
+        }
+
+        @Override
+        public void onDeleted(Booking booking) {
+            if (!booking.isCancelled()) {
+                add(booking, -1);
+            }
+        }
+
+        private void add(Booking booking, int sign) {
+            long day = booking.getTimeSlot().getStartTime().toLocalDate().toEpochDay();
+            if (day < firstDayOfWindow()) {
+                return;
+            }
+            long minutes = sign * Duration.between(booking.getTimeSlot().getStartTime(),
+                    booking.getTimeSlot().getEndTime()).toMinutes();
+            // A counter back at zero is removed, so cancelled days leave nothing behind
+            rooms.computeIfAbsent(booking.getRoomId(), k -> new ConcurrentSkipListMap<>())
+                    .compute(day, (k, current) -> {
+                        long total = (current == null ? 0 : current) + minutes;
+                        return total > 0 ? total : null;
+                    });
+        }
+
+        private long firstDayOfWindow() {
+            return LocalDate.now(clock).toEpochDay() - windowDays + 1;
+        }
+
+        /**
+         * Returns the share of bookable time in the window the room was booked for.
+         * 
+         * @param roomId the room ID
+         * @return utilization between 0 and 1
+         */
+        public double utilization(String roomId) {
+            ConcurrentNavigableMap<Long, Long> days = rooms.get(roomId);
+            if (days == null) {
+                return 0;
+            }
+            long firstDay = firstDayOfWindow();
+            days.headMap(firstDay).clear();
+            long minutes = 0;
+            for (long dayMinutes : days.subMap(firstDay, true, firstDay + windowDays - 1, true).values()) {
+                minutes += dayMinutes;
+            }
+            return Math.min(1.0, minutes / (double) (windowDays * BOOKABLE_MINUTES_PER_DAY));
+        }
+    }
+
+    /**
+     * Global availability bitmap answering "which rooms are free in this window"
+     * without touching per-room locks or booking lists.
+     * 
+     * Each day is split into 15-minute slots. For every slot the bitmap holds
+     * one bit per room (set = some active booking touches the slot), packed
+     * into long words so a window query ORs whole words across its slots:
+     * <ul>
+     * <li>a set bit in a slot fully inside the window means the room is busy;</li>
+     * <li>a set bit in a partially covered boundary slot is only a hint, so
+     * those rooms are verified exactly against their {@link RoomCalendar}.</li>
+     * </ul>
+     * Location filters are precomputed room masks; capacity is checked on the
+     * surviving candidates only. Large room sets are scanned in parallel.
+     * 
+     * Bits are maintained through {@link BookingEventListener} callbacks, which
+     * may race for the same room in optimistic mode; every bit update is atomic
+     * and releases re-check the calendar after clearing. Queries take no locks
+     * and reflect the bookings committed when each word was read.
+     */
+    public static class AvailabilityBitmap implements BookingEventListener {
+        public static final int SLOT_MINUTES = 15;
+        private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+        private static final int PARALLEL_THRESHOLD_WORDS = 256;
+
+        private final BookingRepository bookingRepository;
+        private final Map<String, Integer> roomIndexes;
+        private final Map<String, long[]> locationMasks; // lower-cased location -> immutable room mask
+        private final Map<LocalDate, DayBitmap> days;
+        // Bit writers share the read lock; growing the room capacity takes the write lock
+        private final ReadWriteLock resizeLock;
+        private volatile MeetingRoom[] rooms;
+        private volatile int roomCount;
+        private volatile int words;
+
+        /**
+         * Occupancy bits of one day, slot-major: word {@code slot * words + w}
+         * covers rooms {@code 64 * w .. 64 * w + 63} in that slot.
+         */
+        private static class DayBitmap {
+            private volatile AtomicLongArray bits;
+
+            DayBitmap(int words) {
+                this.bits = new AtomicLongArray(SLOTS_PER_DAY * words);
+            }
+
+            void grow(int oldWords, int newWords) {
+                AtomicLongArray grown = new AtomicLongArray(SLOTS_PER_DAY * newWords);
+                for (int slot = 0; slot < SLOTS_PER_DAY; slot++) {
+                    for (int w = 0; w < oldWords; w++) {
+                        grown.set(slot * newWords + w, bits.get(slot * oldWords + w));
+                    }
+                }
+                bits = grown;
+            }
+        }
+
+        public AvailabilityBitmap(BookingRepository bookingRepository) {
+            this.bookingRepository = bookingRepository;
+            this.roomIndexes = new ConcurrentHashMap<>();
+            this.locationMasks = new ConcurrentHashMap<>();
+            this.days = new ConcurrentHashMap<>();
+            this.resizeLock = new ReentrantReadWriteLock();
+            this.rooms = new MeetingRoom[64];
+            this.words = 1;
+        }
+
+        /**
+         * Assigns the room a bit position. Idempotent.
+         * 
+         * @param room the room to track
+         */
+        public void registerRoom(MeetingRoom room) {
+            if (roomIndexes.containsKey(room.getRoomId())) {
+                return;
+            }
+            resizeLock.writeLock().lock();
+            try {
+                if (roomIndexes.containsKey(room.getRoomId())) {
+                    return;
+                }
+                int index = roomCount;
+                if (index == rooms.length) {
+                    int newWords = words * 2;
+                    for (DayBitmap day : days.values()) {
+                        day.grow(words, newWords);
+                    }
+                    rooms = Arrays.copyOf(rooms, newWords * 64);
+                    words = newWords;
+                }
+                rooms[index] = room;
+                String location = room.getLocation().toLowerCase();
+                long[] mask = Arrays.copyOf(locationMasks.getOrDefault(location, new long[0]), words);
+                mask[index >>> 6] |= 1L << index;
+                locationMasks.put(location, mask);
+                roomIndexes.put(room.getRoomId(), index);
+                roomCount = index + 1;
+            } finally {
+                resizeLock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void onBooked(Booking booking) {
+            update(booking, true);
+        }
+
+        @Override
+        public void onReleased(Booking booking) {
+            update(booking, false);
+        }
+
+        private void update(Booking booking, boolean booked) {
+            Integer index = roomIndexes.get(booking.getRoomId());
+            if (index == null) {
+                return;
+            }
+            long bit = 1L << index;
+            LocalDateTime start = booking.getTimeSlot().getStartTime();
+            LocalDateTime end = booking.getTimeSlot().getEndTime();
+
+            resizeLock.readLock().lock();
+            try {
+                int wordCount = words;
+                for (LocalDateTime slotStart = slotFloor(start); slotStart.isBefore(end);
+                        slotStart = slotStart.plusMinutes(SLOT_MINUTES)) {
+                    LocalDateTime slotEnd = slotStart.plusMinutes(SLOT_MINUTES);
+                    DayBitmap day = days.computeIfAbsent(slotStart.toLocalDate(), d -> new DayBitmap(wordCount));
+                    int position = slotOf(slotStart) * wordCount + (index >>> 6);
+                    if (booked) {
+                        day.bits.getAndUpdate(position, word -> word | bit);
+                        continue;
+                    }
+                    // Clear first, then re-set if another booking still touches the slot.
+                    // A concurrent booking commits to the calendar before setting its bit,
+                    // so either the re-check sees it or its set lands after our clear.
+                    day.bits.getAndUpdate(position, word -> word & ~bit);
+                    if (bookingRepository.hasActiveOverlap(booking.getRoomId(), slotStart, slotEnd)) {
+                        day.bits.getAndUpdate(position, word -> word | bit);
+                    }
+                }
+            } finally {
+                resizeLock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Finds rooms free for the whole window.
+         * 
+         * @param window      the requested time slot
+         * @param minCapacity minimum capacity (use 0 for any)
+         * @param location    required location (case-insensitive), or null for any
+         * @return free rooms matching the filters
+         */
+        public List<MeetingRoom> findFreeRooms(TimeSlot window, int minCapacity, String location) {
+            MeetingRoom[] roomSnapshot = rooms;
+            int count = Math.min(roomCount, roomSnapshot.length);
+            int wordCount = (count + 63) >>> 6;
+            long[] candidates = candidateMask(count, wordCount, location);
+            if (candidates == null) {
+                return new ArrayList<>();
+            }
+
+            List<SlotRef> slots = slotsOf(window);
+            IntStream wordIndexes = IntStream.range(0, wordCount);
+            if (wordCount >= PARALLEL_THRESHOLD_WORDS) {
+                wordIndexes = wordIndexes.parallel();
+            }
+            return wordIndexes
+                    .mapToObj(w -> freeRoomsInWord(w, candidates[w], slots, roomSnapshot, window, minCapacity))
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        }
+
+        private List<MeetingRoom> freeRoomsInWord(int w, long candidates, List<SlotRef> slots,
+                MeetingRoom[] roomSnapshot, TimeSlot window, int minCapacity) {
+            long busy = 0;
+            long maybeBusy = 0;
+            for (SlotRef slot : slots) {
+                AtomicLongArray bits = slot.day.bits;
+                int dayWords = bits.length() / SLOTS_PER_DAY;
+                if (w >= dayWords) {
+                    continue;
+                }
+                long word = bits.get(slot.slot * dayWords + w);
+                if (slot.interior) {
+                    busy |= word;
+                } else {
+                    maybeBusy |= word;
+                }
+            }
+
+            List<MeetingRoom> free = new ArrayList<>();
+            long remaining = candidates & ~busy;
+            while (remaining != 0) {
+                int bitIndex = Long.numberOfTrailingZeros(remaining);
+                long bit = 1L << bitIndex;
+                remaining &= ~bit;
+                MeetingRoom room = roomSnapshot[(w << 6) + bitIndex];
+                if (room.getCapacity() < minCapacity) {
+                    continue;
+                }
+                if ((maybeBusy & bit) != 0 && !bookingRepository.isRoomAvailable(room.getRoomId(), window)) {
+                    continue;
+                }
+                free.add(room);
+            }
+            return free;
+        }
+
+        private long[] candidateMask(int count, int wordCount, String location) {
+            long[] all = new long[wordCount];
+            Arrays.fill(all, -1L);
+            if ((count & 63) != 0) {
+                all[wordCount - 1] = (1L << count) - 1;
+            }
+            if (location == null) {
+                return all;
+            }
+            long[] mask = locationMasks.get(location.toLowerCase());
+            if (mask == null) {
+                return null;
+            }
+            // Rooms registered after the count was read are left out
+            for (int w = 0; w < wordCount; w++) {
+                all[w] &= w < mask.length ? mask[w] : 0;
+            }
+            return all;
+        }
+
+        private List<SlotRef> slotsOf(TimeSlot window) {
+            List<SlotRef> slots = new ArrayList<>();
+            LocalDateTime start = window.getStartTime();
+            LocalDateTime end = window.getEndTime();
+            for (LocalDateTime slotStart = slotFloor(start); slotStart.isBefore(end);
+                    slotStart = slotStart.plusMinutes(SLOT_MINUTES)) {
+                DayBitmap day = days.get(slotStart.toLocalDate());
+                if (day != null) {
+                    boolean interior = !slotStart.isBefore(start) && !slotStart.plusMinutes(SLOT_MINUTES).isAfter(end);
+                    slots.add(new SlotRef(day, slotOf(slotStart), interior));
+                }
+            }
+            return slots;
+        }
+
+        private static class SlotRef {
+            final DayBitmap day;
+            final int slot;
+            final boolean interior;
+
+            SlotRef(DayBitmap day, int slot, boolean interior) {
+                this.day = day;
+                this.slot = slot;
+                this.interior = interior;
+            }
+        }
+
+        /**
+         * Drops bitmaps of days before the cutoff; those slots can no longer be booked.
+         * 
+         * @param cutoff first day to keep
+         */
+        public void evictBefore(LocalDate cutoff) {
+            days.keySet().removeIf(day -> day.isBefore(cutoff));
+        }
+
+        private static LocalDateTime slotFloor(LocalDateTime time) {
+            int minute = time.getHour() * 60 + time.getMinute();
+            return time.toLocalDate().atTime(LocalTime.MIN).plusMinutes(minute - minute % SLOT_MINUTES);
+        }
+
+        private static int slotOf(LocalDateTime slotStart) {
+            return (slotStart.getHour() * 60 + slotStart.getMinute()) / SLOT_MINUTES;
+        }
     }
 }
@@ -1,18 +1,51 @@
 package MeetingScheduler.service;
 
 import MeetingScheduler.domain.*;
+import MeetingScheduler.domain.Constants.ConcurrencyMode;
+import MeetingScheduler.repository.Repo.AvailabilityBitmap;
+import MeetingScheduler.repository.Repo.BookingArchive;
+import MeetingScheduler.repository.Repo.BookingEventListener;
+import MeetingScheduler.repository.Repo.BookingPosition;
+import MeetingScheduler.repository.Repo.EmployeeBusyIndex;
 import MeetingScheduler.repository.Repo.EmployeeRepository;
 import MeetingScheduler.repository.Repo.BookingRepository;
 import MeetingScheduler.repository.Repo.MeetingRoomRepository;
+import MeetingScheduler.repository.Repo.RecurringSeriesRepository;
+import MeetingScheduler.repository.Repo.RoomCalendar;
+import MeetingScheduler.repository.Repo.RoomUtilization;
+import MeetingScheduler.repository.Repo.WaitlistRepository;
 import MeetingScheduler.service.Service.EmployeeService;
 import MeetingScheduler.service.Service.MeetingRoomService;
 import MeetingScheduler.exception.*;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class Service {
 
@@ -159,6 +192,731 @@ public class Service {
         public boolean roomExists(String roomId) {
             return roomRepository.exists(roomId);
         }
+
+        /**
+         * Registers a callback invoked whenever a room is created or updated.
+         * 
+         * @param listener the callback
+         */
+        public void addRoomListener(Consumer<MeetingRoom> listener) {
+            roomRepository.addSaveListener(listener);
+        }
+    }
+
+    /**
+     * Registry handing out the read/write lock guarding each room.
+     * 
+     * Lookups never serialize on a shared monitor: the per-room registry is a
+     * ConcurrentHashMap whose fast path is a plain lock-free get, and the
+     * striped registry maps rooms onto a fixed array of locks, bounding memory
+     * for very large room counts at the cost of rooms occasionally sharing a
+     * lock. Both hand out reentrant locks, so a thread may safely lock two
+     * rooms that map to the same stripe.
+     */
+    public static class RoomLockRegistry {
+        private final Map<String, ReadWriteLock> perRoom;
+        private final ReadWriteLock[] stripes;
+        // Set when timing another registry's locks: perRoom then caches the timed
+        // per-room locks, or timedStripes wraps each of a striped registry's stripes
+        private final RoomLockRegistry timed;
+        private final TimedLock[] timedStripes;
+        private final BookingMetrics metrics;
+
+        private RoomLockRegistry(Map<String, ReadWriteLock> perRoom, ReadWriteLock[] stripes) {
+            this(perRoom, stripes, null, null, null);
+        }
+
+        private RoomLockRegistry(Map<String, ReadWriteLock> perRoom, ReadWriteLock[] stripes,
+                RoomLockRegistry timed, TimedLock[] timedStripes, BookingMetrics metrics) {
+            this.perRoom = perRoom;
+            this.stripes = stripes;
+            this.timed = timed;
+            this.timedStripes = timedStripes;
+            this.metrics = metrics;
+        }
+
+        /**
+         * Creates a registry with one lock per room, created on first use.
+         * 
+         * @return the registry
+         */
+        public static RoomLockRegistry perRoom() {
+            return new RoomLockRegistry(new ConcurrentHashMap<>(), null);
+        }
+
+        /**
+         * Creates a registry with a fixed number of shared locks.
+         * 
+         * @param stripeCount number of locks, rounded up to a power of two
+         * @return the registry
+         */
+        public static RoomLockRegistry striped(int stripeCount) {
+            if (stripeCount <= 0) {
+                throw new IllegalArgumentException("Stripe count must be positive");
+            }
+            int size = Integer.highestOneBit(stripeCount - 1) << 1;
+            ReadWriteLock[] stripes = new ReadWriteLock[Math.max(1, size)];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new ReentrantReadWriteLock();
+            }
+            return new RoomLockRegistry(null, stripes);
+        }
+
+        /**
+         * Wraps a registry so that every room's write lock reports how long
+         * it was waited for and held. A striped registry is timed per stripe,
+         * so instrumenting it keeps memory bounded by the stripe count; each
+         * acquisition is still reported against the room it was taken for.
+         */
+        static RoomLockRegistry instrumented(RoomLockRegistry registry, BookingMetrics metrics) {
+            if (registry.stripes != null) {
+                TimedLock[] timedStripes = new TimedLock[registry.stripes.length];
+                for (int i = 0; i < timedStripes.length; i++) {
+                    timedStripes[i] = new TimedLock(registry.stripes[i], metrics);
+                }
+                return new RoomLockRegistry(null, null, registry, timedStripes, metrics);
+            }
+            return new RoomLockRegistry(new ConcurrentHashMap<>(), null, registry, null, metrics);
+        }
+
+        /**
+         * Returns the lock guarding a room.
+         * 
+         * @param roomId the room ID
+         * @return the room's lock
+         */
+        public ReadWriteLock lockFor(String roomId) {
+            if (stripes != null) {
+                return stripes[stripeOf(roomId)];
+            }
+            if (timedStripes != null) {
+                // A short-lived view naming the room; nothing per room is kept
+                return new RoomLock(roomId, timedStripes[timed.stripeOf(roomId)]);
+            }
+            ReadWriteLock lock = perRoom.get(roomId);
+            if (lock != null) {
+                return lock;
+            }
+            if (timed != null) {
+                return perRoom.computeIfAbsent(roomId, k -> new RoomLock(k, new TimedLock(timed.lockFor(k), metrics)));
+            }
+            return perRoom.computeIfAbsent(roomId, k -> new ReentrantReadWriteLock());
+        }
+
+        /**
+         * Returns a number that orders locks consistently, for acquiring
+         * several room locks without deadlock.
+         * 
+         * @param roomId the room ID
+         * @return the lock's ordering key
+         */
+        public int orderOf(String roomId) {
+            if (timed != null) {
+                return timed.orderOf(roomId);
+            }
+            return stripes != null ? stripeOf(roomId) : roomId.hashCode();
+        }
+
+        private int stripeOf(String roomId) {
+            int h = roomId.hashCode();
+            return (h ^ (h >>> 16)) & (stripes.length - 1);
+        }
+
+        // Times a lock's write lock on behalf of the rooms it guards
+        private static final class TimedLock {
+            private final ReadWriteLock delegate;
+            private final Lock write;
+            private final BookingMetrics metrics;
+            // Only touched by the thread holding the write lock
+            private int holds;
+            private long acquiredAt;
+            private String holder;
+
+            TimedLock(ReadWriteLock delegate, BookingMetrics metrics) {
+                this.delegate = delegate;
+                this.write = delegate.writeLock();
+                this.metrics = metrics;
+            }
+
+            // Reentrant acquisitions, even for another room on the same stripe,
+            // are part of the outermost hold and count towards its room
+            void acquired(String roomId, long requested) {
+                if (holds++ == 0) {
+                    acquiredAt = System.nanoTime();
+                    holder = roomId;
+                    metrics.recordLockWait(roomId, acquiredAt - requested);
+                }
+            }
+
+            void release() {
+                if (--holds == 0) {
+                    metrics.recordLockHold(holder, System.nanoTime() - acquiredAt);
+                }
+                write.unlock();
+            }
+        }
+
+        // A timed lock as seen by one room; the read lock is passed through untimed
+        private static final class RoomLock implements ReadWriteLock, Lock {
+            private final String roomId;
+            private final TimedLock timed;
+
+            RoomLock(String roomId, TimedLock timed) {
+                this.roomId = roomId;
+                this.timed = timed;
+            }
+
+            @Override
+            public Lock readLock() {
+                return timed.delegate.readLock();
+            }
+
+            @Override
+            public Lock writeLock() {
+                return this;
+            }
+
+            @Override
+            public void lock() {
+                long requested = System.nanoTime();
+                timed.write.lock();
+                timed.acquired(roomId, requested);
+            }
+
+            @Override
+            public void lockInterruptibly() throws InterruptedException {
+                long requested = System.nanoTime();
+                timed.write.lockInterruptibly();
+                timed.acquired(roomId, requested);
+            }
+
+            @Override
+            public boolean tryLock() {
+                long requested = System.nanoTime();
+                if (!timed.write.tryLock()) {
+                    return false;
+                }
+                timed.acquired(roomId, requested);
+                return true;
+            }
+
+            @Override
+            public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+                long requested = System.nanoTime();
+                if (!timed.write.tryLock(time, unit)) {
+                    return false;
+                }
+                timed.acquired(roomId, requested);
+                return true;
+            }
+
+            @Override
+            public void unlock() {
+                timed.release();
+            }
+
+            @Override
+            public Condition newCondition() {
+                return timed.write.newCondition();
+            }
+        }
+    }
+
+    /**
+     * Low-overhead instrumentation for BookingService: latency histograms
+     * per operation, room lock wait and hold times, the booking conflict rate
+     * and the most requested rooms.
+     * 
+     * Recording only increments LongAdders, which stripe their cells under
+     * contention, so booking threads never serialize on a metrics lock.
+     * Latencies go into log-linear histograms with 8 sub-buckets per power of
+     * two (under 12.5% error), so percentiles are read without keeping
+     * samples. Per-room numbers are plain totals. The top-k rooms are picked
+     * only when a snapshot is taken. Values are cumulative since creation;
+     * exporters diff consecutive snapshots for rates over an interval.
+     */
+    public static class BookingMetrics implements AutoCloseable {
+        private static final BookingMetrics DISABLED = new BookingMetrics(false);
+
+        public enum Operation {
+            BOOK,
+            CANCEL,
+            AVAILABILITY
+        }
+
+        private final boolean enabled;
+        private final Map<Operation, Histogram> latencies;
+        private final Histogram lockWait;
+        private final Histogram lockHold;
+        private final LongAdder conflicts;
+        private final Map<String, RoomStats> rooms;
+        private volatile ScheduledExecutorService exporter;
+
+        public BookingMetrics() {
+            this(true);
+        }
+
+        private BookingMetrics(boolean enabled) {
+            this.enabled = enabled;
+            this.latencies = new EnumMap<>(Operation.class);
+            if (enabled) {
+                for (Operation operation : Operation.values()) {
+                    latencies.put(operation, new Histogram());
+                }
+            }
+            this.lockWait = enabled ? new Histogram() : null;
+            this.lockHold = enabled ? new Histogram() : null;
+            this.conflicts = new LongAdder();
+            this.rooms = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Returns a shared instance that records nothing.
+         * 
+         * @return the disabled metrics
+         */
+        public static BookingMetrics disabled() {
+            return DISABLED;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        // Start time for a later record call; skips the clock read when disabled
+        long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        void record(Operation operation, long started) {
+            if (enabled) {
+                latencies.get(operation).record(System.nanoTime() - started);
+            }
+        }
+
+        void recordBooking(String roomId, long started, boolean conflict) {
+            if (!enabled) {
+                return;
+            }
+            latencies.get(Operation.BOOK).record(System.nanoTime() - started);
+            RoomStats stats = statsFor(roomId);
+            stats.attempts.increment();
+            if (conflict) {
+                conflicts.increment();
+                stats.conflicts.increment();
+            }
+        }
+
+        void recordLockWait(String roomId, long nanos) {
+            lockWait.record(nanos);
+            RoomStats stats = statsFor(roomId);
+            stats.acquisitions.increment();
+            stats.waitNanos.add(nanos);
+            updateMax(stats.maxWaitNanos, nanos);
+        }
+
+        void recordLockHold(String roomId, long nanos) {
+            lockHold.record(nanos);
+            RoomStats stats = statsFor(roomId);
+            stats.holdNanos.add(nanos);
+            updateMax(stats.maxHoldNanos, nanos);
+        }
+
+        private RoomStats statsFor(String roomId) {
+            RoomStats stats = rooms.get(roomId);
+            return stats != null ? stats : rooms.computeIfAbsent(roomId, k -> new RoomStats());
+        }
+
+        private static void updateMax(AtomicLong max, long value) {
+            // Read first so the common case (not a new maximum) never writes
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+
+        /**
+         * Takes a snapshot of all metrics.
+         * 
+         * @param topRooms how many of the most requested rooms to include
+         * @return the snapshot
+         */
+        public Snapshot snapshot(int topRooms) {
+            Map<Operation, Latency> latencySnapshot = new EnumMap<>(Operation.class);
+            if (!enabled) {
+                return new Snapshot(LocalDateTime.now(), latencySnapshot, Latency.EMPTY, Latency.EMPTY, 0,
+                        new ArrayList<>());
+            }
+            latencies.forEach((operation, histogram) -> latencySnapshot.put(operation, histogram.snapshot()));
+
+            // Min-heap of the k busiest rooms seen so far
+            Comparator<RoomMetrics> busier = Comparator.comparingLong(RoomMetrics::getAttempts)
+                    .thenComparingLong(RoomMetrics::getLockAcquisitions);
+            PriorityQueue<RoomMetrics> top = new PriorityQueue<>(Math.max(1, topRooms), busier);
+            if (topRooms > 0) {
+                rooms.forEach((roomId, stats) -> {
+                    RoomMetrics room = stats.snapshot(roomId);
+                    if (top.size() < topRooms) {
+                        top.add(room);
+                    } else if (busier.compare(room, top.peek()) > 0) {
+                        top.poll();
+                        top.add(room);
+                    }
+                });
+            }
+            List<RoomMetrics> hotRooms = new ArrayList<>(top);
+            hotRooms.sort(busier.reversed());
+            return new Snapshot(LocalDateTime.now(), latencySnapshot, lockWait.snapshot(), lockHold.snapshot(),
+                    conflicts.sum(), hotRooms);
+        }
+
+        /**
+         * Hands a snapshot to the exporter at a fixed interval on a background
+         * thread, replacing any export started earlier.
+         * 
+         * @param interval time between snapshots
+         * @param topRooms how many of the most requested rooms to include
+         * @param sink     receives each snapshot
+         */
+        public synchronized void startExport(Duration interval, int topRooms, Consumer<Snapshot> sink) {
+            if (interval.toMillis() <= 0) {
+                throw new IllegalArgumentException("Export interval must be positive");
+            }
+            close();
+            ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "booking-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleAtFixedRate(() -> {
+                try {
+                    sink.accept(snapshot(topRooms));
+                } catch (RuntimeException e) {
+                    // Keep exporting; a failing sink must not stop later snapshots
+                    System.err.println("Booking metrics export failed: " + e.getMessage());
+                }
+            }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+            this.exporter = executor;
+        }
+
+        /**
+         * Stops the periodic export, if any.
+         */
+        @Override
+        public synchronized void close() {
+            if (exporter != null) {
+                exporter.shutdownNow();
+                exporter = null;
+            }
+        }
+
+        private static final class RoomStats {
+            final LongAdder attempts = new LongAdder();
+            final LongAdder conflicts = new LongAdder();
+            final LongAdder acquisitions = new LongAdder();
+            final LongAdder waitNanos = new LongAdder();
+            final LongAdder holdNanos = new LongAdder();
+            final AtomicLong maxWaitNanos = new AtomicLong();
+            final AtomicLong maxHoldNanos = new AtomicLong();
+
+            RoomMetrics snapshot(String roomId) {
+                return new RoomMetrics(roomId, attempts.sum(), conflicts.sum(), acquisitions.sum(),
+                        waitNanos.sum(), holdNanos.sum(), maxWaitNanos.get(), maxHoldNanos.get());
+            }
+        }
+
+        /**
+         * Log-linear histogram of nanosecond values. Values below 8 get a
+         * bucket each; above, each power of two is split into 8 buckets.
+         */
+        private static final class Histogram {
+            private static final int SUB_BITS = 3;
+            private static final int SUB_BUCKETS = 1 << SUB_BITS;
+            private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+            private final LongAdder[] counts;
+            private final LongAdder total;
+            private final AtomicLong max;
+
+            Histogram() {
+                this.counts = new LongAdder[BUCKETS];
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts[i] = new LongAdder();
+                }
+                this.total = new LongAdder();
+                this.max = new AtomicLong();
+            }
+
+            void record(long nanos) {
+                long value = Math.max(0, nanos);
+                counts[bucketOf(value)].increment();
+                total.add(value);
+                updateMax(max, value);
+            }
+
+            static int bucketOf(long value) {
+                if (value < SUB_BUCKETS) {
+                    return (int) value;
+                }
+                int exponent = 63 - Long.numberOfLeadingZeros(value);
+                int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+                return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+            }
+
+            // Largest value that falls into the bucket
+            static long upperBoundOf(int bucket) {
+                if (bucket < SUB_BUCKETS) {
+                    return bucket;
+                }
+                int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+                long sub = bucket % SUB_BUCKETS;
+                return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+            }
+
+            Latency snapshot() {
+                long[] snapshot = new long[BUCKETS];
+                long count = 0;
+                for (int i = 0; i < BUCKETS; i++) {
+                    snapshot[i] = counts[i].sum();
+                    count += snapshot[i];
+                }
+                if (count == 0) {
+                    return Latency.EMPTY;
+                }
+                long maxValue = max.get();
+                return new Latency(count, total.sum() / count, percentile(snapshot, count, 0.50, maxValue),
+                        percentile(snapshot, count, 0.90, maxValue), percentile(snapshot, count, 0.99, maxValue),
+                        percentile(snapshot, count, 0.999, maxValue), maxValue);
+            }
+
+            private static long percentile(long[] snapshot, long count, double quantile, long maxValue) {
+                long rank = (long) Math.ceil(quantile * count);
+                long seen = 0;
+                for (int i = 0; i < snapshot.length; i++) {
+                    seen += snapshot[i];
+                    if (seen >= rank) {
+                        return Math.min(upperBoundOf(i), maxValue);
+                    }
+                }
+                return maxValue;
+            }
+        }
+
+        /**
+         * Latency distribution in nanoseconds. Percentiles are bucket upper
+         * bounds, so they overstate by under 12.5%.
+         */
+        public static class Latency {
+            static final Latency EMPTY = new Latency(0, 0, 0, 0, 0, 0, 0);
+
+            private final long count;
+            private final long meanNanos;
+            private final long p50Nanos;
+            private final long p90Nanos;
+            private final long p99Nanos;
+            private final long p999Nanos;
+            private final long maxNanos;
+
+            Latency(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos,
+                    long maxNanos) {
+                this.count = count;
+                this.meanNanos = meanNanos;
+                this.p50Nanos = p50Nanos;
+                this.p90Nanos = p90Nanos;
+                this.p99Nanos = p99Nanos;
+                this.p999Nanos = p999Nanos;
+                this.maxNanos = maxNanos;
+            }
+
+            public long getCount() {
+                return count;
+            }
+
+            public long getMeanNanos() {
+                return meanNanos;
+            }
+
+            public long getP50Nanos() {
+                return p50Nanos;
+            }
+
+            public long getP90Nanos() {
+                return p90Nanos;
+            }
+
+            public long getP99Nanos() {
+                return p99Nanos;
+            }
+
+            public long getP999Nanos() {
+                return p999Nanos;
+            }
+
+            public long getMaxNanos() {
+                return maxNanos;
+            }
+
+            @Override
+            public String toString() {
+                return String.format("count=%d mean=%.1fus p50=%.1fus p90=%.1fus p99=%.1fus p99.9=%.1fus max=%.1fus",
+                        count, meanNanos / 1e3, p50Nanos / 1e3, p90Nanos / 1e3, p99Nanos / 1e3, p999Nanos / 1e3,
+                        maxNanos / 1e3);
+            }
+        }
+
+        /**
+         * Booking attempts and room lock times of one room.
+         */
+        public static class RoomMetrics {
+            private final String roomId;
+            private final long attempts;
+            private final long conflicts;
+            private final long lockAcquisitions;
+            private final long lockWaitNanos;
+            private final long lockHoldNanos;
+            private final long maxLockWaitNanos;
+            private final long maxLockHoldNanos;
+
+            RoomMetrics(String roomId, long attempts, long conflicts, long lockAcquisitions, long lockWaitNanos,
+                    long lockHoldNanos, long maxLockWaitNanos, long maxLockHoldNanos) {
+                this.roomId = roomId;
+                this.attempts = attempts;
+                this.conflicts = conflicts;
+                this.lockAcquisitions = lockAcquisitions;
+                this.lockWaitNanos = lockWaitNanos;
+                this.lockHoldNanos = lockHoldNanos;
+                this.maxLockWaitNanos = maxLockWaitNanos;
+                this.maxLockHoldNanos = maxLockHoldNanos;
+            }
+
+            public String getRoomId() {
+                return roomId;
+            }
+
+            public long getAttempts() {
+                return attempts;
+            }
+
+            public long getConflicts() {
+                return conflicts;
+            }
+
+            public long getLockAcquisitions() {
+                return lockAcquisitions;
+            }
+
+            /**
+             * Total time spent waiting for the room's lock.
+             */
+            public long getLockWaitNanos() {
+                return lockWaitNanos;
+            }
+
+            /**
+             * Total time the room's lock was held.
+             */
+            public long getLockHoldNanos() {
+                return lockHoldNanos;
+            }
+
+            public long getMaxLockWaitNanos() {
+                return maxLockWaitNanos;
+            }
+
+            public long getMaxLockHoldNanos() {
+                return maxLockHoldNanos;
+            }
+
+            @Override
+            public String toString() {
+                return String.format(
+                        "RoomMetrics{room='%s', attempts=%d, conflicts=%d, locks=%d, wait=%.1fus, hold=%.1fus, "
+                                + "maxWait=%.1fus, maxHold=%.1fus}",
+                        roomId, attempts, conflicts, lockAcquisitions, lockWaitNanos / 1e3, lockHoldNanos / 1e3,
+                        maxLockWaitNanos / 1e3, maxLockHoldNanos / 1e3);
+            }
+        }
+
+        /**
+         * Metrics at one point in time, cumulative since the metrics were created.
+         */
+        public static class Snapshot {
+            private final LocalDateTime takenAt;
+            private final Map<Operation, Latency> latencies;
+            private final Latency lockWait;
+            private final Latency lockHold;
+            private final long conflicts;
+            private final List<RoomMetrics> hotRooms;
+
+            Snapshot(LocalDateTime takenAt, Map<Operation, Latency> latencies, Latency lockWait, Latency lockHold,
+                    long conflicts, List<RoomMetrics> hotRooms) {
+                this.takenAt = takenAt;
+                this.latencies = Collections.unmodifiableMap(latencies);
+                this.lockWait = lockWait;
+                this.lockHold = lockHold;
+                this.conflicts = conflicts;
+                this.hotRooms = Collections.unmodifiableList(hotRooms);
+            }
+
+            public LocalDateTime getTakenAt() {
+                return takenAt;
+            }
+
+            /**
+             * Latency of an operation; for BOOK only attempts that reached the
+             * room's calendar (successes and conflicts) are counted.
+             */
+            public Latency getLatency(Operation operation) {
+                return latencies.getOrDefault(operation, Latency.EMPTY);
+            }
+
+            /**
+             * Time spent waiting for room locks, per acquisition.
+             */
+            public Latency getLockWait() {
+                return lockWait;
+            }
+
+            /**
+             * Time room locks were held, per acquisition.
+             */
+            public Latency getLockHold() {
+                return lockHold;
+            }
+
+            public long getConflicts() {
+                return conflicts;
+            }
+
+            /**
+             * Share of booking attempts rejected because the room was taken.
+             */
+            public double getConflictRate() {
+                long attempts = getLatency(Operation.BOOK).getCount();
+                return attempts == 0 ? 0 : (double) conflicts / attempts;
+            }
+
+            /**
+             * Rooms with the most booking attempts, busiest first.
+             */
+            public List<RoomMetrics> getHotRooms() {
+                return hotRooms;
+            }
+
+            @Override
+            public String toString() {
+                StringBuilder text = new StringBuilder("BookingMetrics at ").append(takenAt).append('\n');
+                for (Operation operation : Operation.values()) {
+                    text.append(String.format("  %-12s %s%n", operation, getLatency(operation)));
+                }
+                text.append(String.format("  %-12s %s%n", "LOCK WAIT", lockWait));
+                text.append(String.format("  %-12s %s%n", "LOCK HOLD", lockHold));
+                text.append(String.format("  conflicts=%d rate=%.2f%%%n", conflicts, getConflictRate() * 100));
+                for (RoomMetrics room : hotRooms) {
+                    text.append("  ").append(room).append('\n');
+                }
+                return text.toString();
+            }
+        }
     }
 
     /**
@@ -168,230 +926,2326 @@ public class Service {
      * This is the core service that implements the main business logic.
      */
     public static class BookingService {
+        private static final int MAX_PAGE_SIZE = 1000;
         private final BookingRepository bookingRepository;
+        private final RecurringSeriesRepository seriesRepository;
+        private final WaitlistRepository waitlistRepository;
         private final EmployeeService employeeService;
         private final MeetingRoomService roomService;
+        private final List<Consumer<WaitlistEntry>> waitlistListeners;
 
         // Fine-grained locking per room for better concurrency
-        private final Map<String, ReadWriteLock> roomLocks;
+        private final RoomLockRegistry roomLocks;
+        private final ConcurrencyMode concurrencyMode;
+        private final BookingMetrics metrics;
+        // Decides which waitlist entries have started; shared with the lifecycle scheduler
+        private final Clock clock;
+
+        // Slot bitmap for lock-free bulk availability queries
+        private final AvailabilityBitmap availability;
 
         public BookingService(
                 BookingRepository bookingRepository,
                 EmployeeService employeeService,
                 MeetingRoomService roomService) {
-            this.bookingRepository = bookingRepository;
-            this.employeeService = employeeService;
-            this.roomService = roomService;
-            this.roomLocks = new HashMap<>();
+            this(bookingRepository, employeeService, roomService, RoomLockRegistry.perRoom());
+        }
+
+        public BookingService(
+                BookingRepository bookingRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks) {
+            this(bookingRepository, employeeService, roomService, roomLocks, ConcurrencyMode.LOCKING);
+        }
+
+        public BookingService(
+                BookingRepository bookingRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks,
+                ConcurrencyMode concurrencyMode) {
+            this(bookingRepository, new RecurringSeriesRepository(), employeeService, roomService,
+                    roomLocks, concurrencyMode);
+        }
+
+        public BookingService(
+                BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks,
+                ConcurrencyMode concurrencyMode) {
+            this(bookingRepository, seriesRepository, new WaitlistRepository(), employeeService, roomService,
+                    roomLocks, concurrencyMode);
+        }
+
+        public BookingService(
+                BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository,
+                WaitlistRepository waitlistRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks,
+                ConcurrencyMode concurrencyMode) {
+            this(bookingRepository, seriesRepository, waitlistRepository, employeeService, roomService,
+                    roomLocks, concurrencyMode, BookingMetrics.disabled());
+        }
+
+        /**
+         * Creates a booking service that records into the given metrics,
+         * including how long each room's lock is waited for and held.
+         */
+        public BookingService(
+                BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository,
+                WaitlistRepository waitlistRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks,
+                ConcurrencyMode concurrencyMode,
+                BookingMetrics metrics) {
+            this(bookingRepository, seriesRepository, waitlistRepository, employeeService, roomService,
+                    roomLocks, concurrencyMode, metrics, Clock.systemDefaultZone());
+        }
+
+        /**
+         * Creates a booking service reading the current time from the given
+         * clock, so waitlist promotion agrees with the lifecycle scheduler on
+         * which entries have started.
+         */
+        public BookingService(
+                BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository,
+                WaitlistRepository waitlistRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService,
+                RoomLockRegistry roomLocks,
+                ConcurrencyMode concurrencyMode,
+                BookingMetrics metrics,
+                Clock clock) {
+            this.bookingRepository = bookingRepository;
+            this.seriesRepository = seriesRepository;
+            this.waitlistRepository = waitlistRepository;
+            this.waitlistListeners = new CopyOnWriteArrayList<>();
+            this.employeeService = employeeService;
+            this.roomService = roomService;
+            this.roomLocks = metrics.isEnabled() ? RoomLockRegistry.instrumented(roomLocks, metrics) : roomLocks;
+            this.concurrencyMode = concurrencyMode;
+            this.metrics = metrics;
+            this.clock = clock;
+
+            this.availability = new AvailabilityBitmap(bookingRepository);
+            roomService.addRoomListener(availability::registerRoom);
+            roomService.getAllRooms().forEach(availability::registerRoom);
+            // Bookings already present, e.g. restored from a durable store
+            bookingRepository.findAll().stream().filter(Booking::isActive).forEach(availability::onBooked);
+            bookingRepository.addListener(availability);
+        }
+
+        /**
+         * Gets the lock for a specific room from the lock registry.
+         */
+        private ReadWriteLock getLockForRoom(String roomId) {
+            return roomLocks.lockFor(roomId);
+        }
+
+        /**
+         * Books a meeting room for an employee.
+         * Thread-safe implementation using room-level locking.
+         * 
+         * @param employeeId ID of the employee making the booking
+         * @param roomId     ID of the room to book
+         * @param startTime  start time of the meeting
+         * @param endTime    end time of the meeting
+         * @return the created booking
+         * @throws EntityNotFoundException   if employee or room not found
+         * @throws RoomNotAvailableException if room is already booked
+         */
+        public Booking bookRoom(
+                String employeeId,
+                String roomId,
+                LocalDateTime startTime,
+                LocalDateTime endTime) {
+            long started = metrics.start();
+            try {
+                Booking booking = book(employeeId, roomId, startTime, endTime);
+                metrics.recordBooking(roomId, started, false);
+                return booking;
+            } catch (RoomNotAvailableException e) {
+                metrics.recordBooking(roomId, started, true);
+                throw e;
+            }
+        }
+
+        private Booking book(String employeeId, String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+            // Validate employee and room exist
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            // Create and validate time slot
+            TimeSlot requestedSlot = new TimeSlot(startTime, endTime);
+
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                return bookOptimistically(employeeId, roomId, requestedSlot);
+            }
+
+            // Get room-specific lock for thread safety
+            ReadWriteLock roomLock = getLockForRoom(roomId);
+            roomLock.writeLock().lock();
+
+            try {
+                // Check for overlapping bookings (O(log n) via the room's interval index)
+                // and for occurrences of recurring series (O(1) per series)
+                if (!bookingRepository.isRoomAvailable(roomId, requestedSlot)
+                        || seriesRepository.hasConflict(roomId, requestedSlot)) {
+                    throw new RoomNotAvailableException(roomId, requestedSlot.toString());
+                }
+
+                // Create and save booking
+                String bookingId = generateBookingId();
+                Booking booking = new Booking(bookingId, employeeId, roomId, requestedSlot);
+
+                return bookingRepository.save(booking);
+
+            } finally {
+                roomLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Books without locks: validates against the room's current calendar
+         * snapshot and commits with a CAS on its version. If another booking for
+         * the room committed in between, re-validates against the new version.
+         * Series are checked after taking the snapshot: a series committed
+         * later bumps the calendar version, so the CAS fails and the retry sees it.
+         * 
+         * @param employeeId    ID of the employee making the booking
+         * @param roomId        ID of the room to book
+         * @param requestedSlot the validated time slot
+         * @return the created booking
+         * @throws RoomNotAvailableException if room is already booked
+         */
+        private Booking bookOptimistically(String employeeId, String roomId, TimeSlot requestedSlot) {
+            RoomCalendar calendar = bookingRepository.calendarFor(roomId);
+            Booking booking = new Booking(generateBookingId(), employeeId, roomId, requestedSlot);
+            while (true) {
+                RoomCalendar.Snapshot snapshot = calendar.snapshot();
+                if (snapshot.hasOverlap(requestedSlot) || seriesRepository.hasConflict(roomId, requestedSlot)) {
+                    throw new RoomNotAvailableException(roomId, requestedSlot.toString());
+                }
+                if (bookingRepository.trySave(booking, snapshot)) {
+                    return booking;
+                }
+            }
+        }
+
+        /**
+         * Books a batch of room/time requests atomically: either every booking
+         * is created or none is.
+         * 
+         * All requests are validated up front (employee once, each room once,
+         * no two requests overlapping in the same room). In locking mode the
+         * room locks are then taken once each, in the registry's global order
+         * so concurrent batches cannot deadlock, and every slot is checked
+         * against the room index before anything is saved. In optimistic mode
+         * each room's bookings are committed with one CAS per room, and rooms
+         * already committed are rolled back if a later room conflicts; other
+         * bookers may briefly see those slots as taken.
+         * 
+         * @param employeeId ID of the employee making the bookings
+         * @param requests   the rooms and intervals to book
+         * @return the created bookings, in request order
+         * @throws EntityNotFoundException   if employee or any room not found
+         * @throws InvalidBookingException   if the batch is empty or overlaps itself
+         * @throws RoomNotAvailableException if any slot is already booked
+         */
+        public List<Booking> bookAll(String employeeId, List<BookingRequest> requests) {
+            if (requests == null || requests.isEmpty()) {
+                throw new InvalidBookingException("Batch must contain at least one booking request");
+            }
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+
+            // Group by room in global lock order
+            Map<String, List<Booking>> byRoom = new TreeMap<>(
+                    Comparator.comparingInt((String roomId) -> roomLocks.orderOf(roomId))
+                            .thenComparing(Comparator.naturalOrder()));
+            List<Booking> bookings = new ArrayList<>(requests.size());
+            // One random id per batch; bookings are numbered within it
+            String batchId = generateBookingId();
+            for (BookingRequest request : requests) {
+                List<Booking> roomGroup = byRoom.get(request.getRoomId());
+                if (roomGroup == null) {
+                    if (!roomService.roomExists(request.getRoomId())) {
+                        throw new EntityNotFoundException("Room", request.getRoomId());
+                    }
+                    roomGroup = new ArrayList<>();
+                    byRoom.put(request.getRoomId(), roomGroup);
+                }
+                TimeSlot slot = new TimeSlot(request.getStartTime(), request.getEndTime());
+                Booking booking = new Booking(batchId + "-" + bookings.size(), employeeId, request.getRoomId(), slot);
+                roomGroup.add(booking);
+                bookings.add(booking);
+            }
+            for (List<Booking> roomGroup : byRoom.values()) {
+                roomGroup.sort(Comparator.comparing(booking -> booking.getTimeSlot().getStartTime()));
+                for (int i = 1; i < roomGroup.size(); i++) {
+                    if (roomGroup.get(i - 1).getTimeSlot().overlaps(roomGroup.get(i).getTimeSlot())) {
+                        throw new InvalidBookingException("Batch contains overlapping slots for room '"
+                                + roomGroup.get(i).getRoomId() + "'");
+                    }
+                }
+            }
+
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                bookAllOptimistically(byRoom);
+            } else {
+                bookAllLocked(byRoom);
+            }
+            return bookings;
+        }
+
+        private void bookAllLocked(Map<String, List<Booking>> byRoom) {
+            // Rooms sharing a striped lock are adjacent in lock order, so one check dedupes them
+            List<ReadWriteLock> locks = new ArrayList<>(byRoom.size());
+            for (String roomId : byRoom.keySet()) {
+                ReadWriteLock lock = getLockForRoom(roomId);
+                if (locks.isEmpty() || locks.get(locks.size() - 1) != lock) {
+                    locks.add(lock);
+                }
+            }
+
+            int locked = 0;
+            try {
+                for (ReadWriteLock lock : locks) {
+                    lock.writeLock().lock();
+                    locked++;
+                }
+                for (List<Booking> roomGroup : byRoom.values()) {
+                    for (Booking booking : roomGroup) {
+                        if (!bookingRepository.isRoomAvailable(booking.getRoomId(), booking.getTimeSlot())
+                                || seriesRepository.hasConflict(booking.getRoomId(), booking.getTimeSlot())) {
+                            throw new RoomNotAvailableException(booking.getRoomId(),
+                                    booking.getTimeSlot().toString());
+                        }
+                    }
+                }
+                for (List<Booking> roomGroup : byRoom.values()) {
+                    roomGroup.forEach(bookingRepository::save);
+                }
+            } finally {
+                for (int i = locked - 1; i >= 0; i--) {
+                    locks.get(i).writeLock().unlock();
+                }
+            }
+        }
+
+        private void bookAllOptimistically(Map<String, List<Booking>> byRoom) {
+            List<Booking> reserved = new ArrayList<>();
+            try {
+                for (List<Booking> roomGroup : byRoom.values()) {
+                    RoomCalendar calendar = bookingRepository.calendarFor(roomGroup.get(0).getRoomId());
+                    while (true) {
+                        RoomCalendar.Snapshot snapshot = calendar.snapshot();
+                        for (Booking booking : roomGroup) {
+                            if (snapshot.hasOverlap(booking.getTimeSlot())
+                                    || seriesRepository.hasConflict(booking.getRoomId(), booking.getTimeSlot())) {
+                                throw new RoomNotAvailableException(booking.getRoomId(),
+                                        booking.getTimeSlot().toString());
+                            }
+                        }
+                        if (calendar.tryAddAll(snapshot, roomGroup)) {
+                            break;
+                        }
+                    }
+                    reserved.addAll(roomGroup);
+                }
+            } catch (RoomNotAvailableException e) {
+                // Undo the rooms already committed; they were never published
+                reserved.forEach(booking -> bookingRepository.calendarFor(booking.getRoomId()).remove(booking));
+                throw e;
+            }
+            bookingRepository.saveReserved(reserved);
+        }
+
+        /**
+         * Gets all available rooms for a given time slot.
+         * Answered from the availability bitmap and recurring series without
+         * taking room locks.
+         * 
+         * @param startTime start time of desired slot
+         * @param endTime   end time of desired slot
+         * @return list of available rooms
+         */
+        public List<MeetingRoom> getAvailableRooms(
+                LocalDateTime startTime,
+                LocalDateTime endTime) {
+            return findAvailableRooms(startTime, endTime, 0, null);
+        }
+
+        /**
+         * Finds rooms free for the whole interval that satisfy capacity and location filters.
+         * 
+         * @param startTime   start time of desired slot
+         * @param endTime     end time of desired slot
+         * @param minCapacity minimum capacity required
+         * @param location    required location, or null for any location
+         * @return list of available rooms
+         */
+        public List<MeetingRoom> findAvailableRooms(
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                int minCapacity,
+                String location) {
+            long started = metrics.start();
+            try {
+                TimeSlot requestedSlot = TimeSlot.window(startTime, endTime);
+                // The bitmap only tracks one-off bookings; series are checked per surviving room
+                return availability.findFreeRooms(requestedSlot, minCapacity, location).stream()
+                        .filter(room -> !seriesRepository.hasConflict(room.getRoomId(), requestedSlot))
+                        .collect(Collectors.toList());
+            } finally {
+                metrics.record(BookingMetrics.Operation.AVAILABILITY, started);
+            }
+        }
+
+        /**
+         * Checks, without locking, whether a room has neither a booking nor a
+         * series occurrence overlapping the time slot.
+         * 
+         * @param roomId   the room ID
+         * @param timeSlot the time slot to check
+         * @return true if the room is free
+         */
+        public boolean isRoomAvailable(String roomId, TimeSlot timeSlot) {
+            return bookingRepository.isRoomAvailable(roomId, timeSlot)
+                    && !seriesRepository.hasConflict(roomId, timeSlot);
+        }
+
+        /**
+         * Books a recurring meeting as a single series instead of one booking
+         * per occurrence. Occurrences are expanded only when queried.
+         * 
+         * The series is checked against the room's one-off bookings within its
+         * span (O(1) per booking) and against the room's other series (a
+         * modular pre-check, then O(1) per occurrence in the shared span). In
+         * locking mode this happens under the room lock. In optimistic mode the
+         * series is published first, then validated against a calendar
+         * snapshot whose version is bumped on success, so a one-off booker
+         * racing with it either sees the series or fails its CAS and retries.
+         * Two series racing for the same room may both be rejected.
+         * 
+         * @param employeeId ID of the employee making the booking
+         * @param roomId     ID of the room to book
+         * @param startTime  start time of the first occurrence
+         * @param endTime    end time of the first occurrence
+         * @param rule       how the first occurrence repeats
+         * @return the created series
+         * @throws EntityNotFoundException   if employee or room not found
+         * @throws InvalidBookingException   if an occurrence is longer than the period
+         * @throws RoomNotAvailableException if any occurrence is already booked
+         */
+        public RecurringSeries bookRecurring(
+                String employeeId,
+                String roomId,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                RecurrenceRule rule) {
+
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            TimeSlot firstSlot = new TimeSlot(startTime, endTime);
+            RecurringSeries series;
+            try {
+                series = new RecurringSeries(generateSeriesId(), employeeId, roomId, firstSlot, rule);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidBookingException(e.getMessage());
+            }
+
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                return bookRecurringOptimistically(series);
+            }
+
+            ReadWriteLock roomLock = getLockForRoom(roomId);
+            roomLock.writeLock().lock();
+
+            try {
+                RoomCalendar.Snapshot snapshot = bookingRepository.calendarFor(roomId).snapshot();
+                if (conflictsWithBookings(series, snapshot) || seriesRepository.hasConflict(series)) {
+                    throw new RoomNotAvailableException(roomId, describe(series));
+                }
+                return seriesRepository.save(series);
+            } finally {
+                roomLock.writeLock().unlock();
+            }
+        }
+
+        private RecurringSeries bookRecurringOptimistically(RecurringSeries series) {
+            RoomCalendar calendar = bookingRepository.calendarFor(series.getRoomId());
+            // Publish first so one-off bookers validating from now on see the series
+            seriesRepository.save(series);
+            try {
+                while (true) {
+                    RoomCalendar.Snapshot snapshot = calendar.snapshot();
+                    if (conflictsWithBookings(series, snapshot) || seriesRepository.hasConflict(series)) {
+                        throw new RoomNotAvailableException(series.getRoomId(), describe(series));
+                    }
+                    if (calendar.tryBump(snapshot)) {
+                        return series;
+                    }
+                }
+            } catch (RoomNotAvailableException e) {
+                seriesRepository.deleteById(series.getSeriesId());
+                throw e;
+            }
+        }
+
+        private boolean conflictsWithBookings(RecurringSeries series, RoomCalendar.Snapshot snapshot) {
+            for (Booking booking : snapshot.findOverlapping(
+                    series.getFirstSlot().getStartTime(), series.getLastEnd())) {
+                if (series.overlaps(booking.getTimeSlot())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String describe(RecurringSeries series) {
+            return series.getFirstSlot() + " " + series.getRule();
+        }
+
+        /**
+         * Cancels a recurring series, freeing all of its future occurrences
+         * and booking them for waiting requests they can now satisfy.
+         * 
+         * @param seriesId the series ID to cancel
+         * @return the cancelled series
+         * @throws EntityNotFoundException if series not found
+         * @throws IllegalStateException   if series cannot be cancelled
+         */
+        public RecurringSeries cancelSeries(String seriesId) {
+            RecurringSeries series = getSeries(seriesId);
+
+            List<WaitlistEntry> fulfilled;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                series.cancel();
+                seriesRepository.deactivate(series);
+                fulfilled = promote(waitlistRepository.findCandidates(series));
+            } else {
+                ReadWriteLock roomLock = getLockForRoom(series.getRoomId());
+                roomLock.writeLock().lock();
+
+                try {
+                    series.cancel();
+                    seriesRepository.deactivate(series);
+                    fulfilled = promote(waitlistRepository.findCandidates(series));
+                } finally {
+                    roomLock.writeLock().unlock();
+                }
+            }
+            notifyFulfilled(fulfilled);
+            return series;
+        }
+
+        /**
+         * Gets a recurring series by ID.
+         * 
+         * @param seriesId the series ID
+         * @return the series
+         * @throws EntityNotFoundException if series not found
+         */
+        public RecurringSeries getSeries(String seriesId) {
+            return seriesRepository.findById(seriesId)
+                    .orElseThrow(() -> new EntityNotFoundException("Series", seriesId));
+        }
+
+        /**
+         * Lists the active recurring series of a room.
+         * 
+         * @param roomId the room ID
+         * @return list of active series
+         */
+        public List<RecurringSeries> listSeriesForRoom(String roomId) {
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            return seriesRepository.findByRoomId(roomId);
+        }
+
+        /**
+         * Expands the occurrences of a series that overlap a window.
+         * 
+         * @param seriesId the series ID
+         * @param from     window start (inclusive)
+         * @param to       window end (exclusive)
+         * @return occurrence time slots in order
+         */
+        public List<TimeSlot> listOccurrences(String seriesId, LocalDateTime from, LocalDateTime to) {
+            return getSeries(seriesId).occurrencesBetween(from, to).collect(Collectors.toList());
+        }
+
+        /**
+         * Cancels an existing booking and books the freed slot for the best
+         * waiting requests it can now satisfy.
+         * 
+         * @param bookingId the booking ID to cancel
+         * @return the cancelled booking
+         * @throws EntityNotFoundException if booking not found
+         * @throws IllegalStateException   if booking cannot be cancelled
+         */
+        public Booking cancelBooking(String bookingId) {
+            long started = metrics.start();
+            try {
+                return cancel(bookingId);
+            } finally {
+                metrics.record(BookingMetrics.Operation.CANCEL, started);
+            }
+        }
+
+        private Booking cancel(String bookingId) {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+
+            TimeSlot slot = booking.getTimeSlot();
+            List<WaitlistEntry> fulfilled;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                // Booking.cancel() is atomic, so only one caller gets to release the slot
+                booking.cancel();
+                bookingRepository.deactivate(booking);
+                fulfilled = promote(waitlistRepository.findCandidates(
+                        booking.getRoomId(), slot.getStartNanos(), slot.getEndNanos()));
+            } else {
+                ReadWriteLock roomLock = getLockForRoom(booking.getRoomId());
+                roomLock.writeLock().lock();
+
+                try {
+                    booking.cancel();
+                    bookingRepository.deactivate(booking);
+                    // Hand the freed slot to waiting requests before anyone else can take it
+                    fulfilled = promote(waitlistRepository.findCandidates(
+                            booking.getRoomId(), slot.getStartNanos(), slot.getEndNanos()));
+                } finally {
+                    roomLock.writeLock().unlock();
+                }
+            }
+            notifyFulfilled(fulfilled);
+            return booking;
+        }
+
+        /**
+         * Puts an employee on a room's waitlist for a time slot. If the slot
+         * is free right now it is booked immediately and the entry comes back
+         * FULFILLED; otherwise the entry waits until a cancellation frees the
+         * slot, then is booked automatically.
+         * 
+         * @param employeeId ID of the employee waiting
+         * @param roomId     ID of the room wanted
+         * @param startTime  start time of the meeting
+         * @param endTime    end time of the meeting
+         * @param priority   higher is served first
+         * @return the waitlist entry
+         * @throws EntityNotFoundException if employee or room not found
+         */
+        public WaitlistEntry joinWaitlist(
+                String employeeId,
+                String roomId,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                int priority) {
+
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+            TimeSlot slot = new TimeSlot(startTime, endTime);
+            WaitlistEntry entry = new WaitlistEntry(generateWaitlistId(), employeeId, roomId, slot, priority,
+                    waitlistRepository.nextSequence());
+
+            List<WaitlistEntry> fulfilled;
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                waitlistRepository.save(entry);
+                // A cancellation racing with the save may have missed the entry, so serve the slot now
+                fulfilled = promote(waitlistRepository.findCandidates(
+                        roomId, slot.getStartNanos(), slot.getEndNanos()));
+            } else {
+                ReadWriteLock roomLock = getLockForRoom(roomId);
+                roomLock.writeLock().lock();
+
+                try {
+                    waitlistRepository.save(entry);
+                    fulfilled = promote(Collections.singletonList(entry));
+                } finally {
+                    roomLock.writeLock().unlock();
+                }
+            }
+            notifyFulfilled(fulfilled);
+            return entry;
+        }
+
+        /**
+         * Withdraws a waiting entry from its room's waitlist.
+         * 
+         * @param entryId the entry ID
+         * @return the withdrawn entry
+         * @throws EntityNotFoundException if entry not found
+         * @throws IllegalStateException   if the entry is no longer waiting
+         */
+        public WaitlistEntry leaveWaitlist(String entryId) {
+            WaitlistEntry entry = getWaitlistEntry(entryId);
+
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                entry.withdraw();
+                waitlistRepository.deactivate(entry);
+                return entry;
+            }
+
+            // Under the room lock so a promotion never books for an entry being withdrawn
+            ReadWriteLock roomLock = getLockForRoom(entry.getRoomId());
+            roomLock.writeLock().lock();
+
+            try {
+                entry.withdraw();
+                waitlistRepository.deactivate(entry);
+                return entry;
+            } finally {
+                roomLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Gets a waitlist entry by ID, whatever its status. Entries are
+         * forgotten once {@link #expireWaitlist} has passed their start.
+         * 
+         * @param entryId the entry ID
+         * @return the entry
+         * @throws EntityNotFoundException if entry not found
+         */
+        public WaitlistEntry getWaitlistEntry(String entryId) {
+            return waitlistRepository.findById(entryId)
+                    .orElseThrow(() -> new EntityNotFoundException("WaitlistEntry", entryId));
+        }
+
+        /**
+         * Lists the waiting entries of a room, ordered by start time.
+         * 
+         * @param roomId the room ID
+         * @return list of waiting entries
+         */
+        public List<WaitlistEntry> listWaitlist(String roomId) {
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            return waitlistRepository.findByRoomId(roomId);
+        }
+
+        /**
+         * Expires the waitlist entries whose slot started before {@code now}
+         * and drops every entry whose slot has started. A promotion racing
+         * with this finds the entry no longer waiting and gives its booking back.
+         * 
+         * @param now the current time
+         * @return the entries that expired
+         */
+        public List<WaitlistEntry> expireWaitlist(LocalDateTime now) {
+            return waitlistRepository.expireStarted(now);
+        }
+
+        /**
+         * Registers a callback invoked after a waitlist entry was booked automatically.
+         * Runs on the thread that freed the slot, after the room lock is released.
+         * 
+         * @param listener the callback
+         */
+        public void addWaitlistListener(Consumer<WaitlistEntry> listener) {
+            waitlistListeners.add(listener);
+        }
+
+        /**
+         * Books candidates in the given order wherever their slot is free now.
+         * In locking mode the caller holds the room lock; each booking made
+         * here is visible to the checks for the next candidate.
+         * 
+         * @param candidates waitlist entries in service order
+         * @return the entries that were fulfilled
+         */
+        private List<WaitlistEntry> promote(List<WaitlistEntry> candidates) {
+            List<WaitlistEntry> fulfilled = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now(clock);
+            for (WaitlistEntry entry : candidates) {
+                if (!entry.isWaiting()) {
+                    waitlistRepository.deactivate(entry);
+                    continue;
+                }
+                if (entry.getTimeSlot().getStartTime().isBefore(now)) {
+                    entry.expire();
+                    waitlistRepository.deactivate(entry);
+                    continue;
+                }
+                Booking booking = tryBookFor(entry);
+                if (booking == null) {
+                    continue;
+                }
+                if (entry.fulfil(booking)) {
+                    waitlistRepository.deactivate(entry);
+                    fulfilled.add(entry);
+                } else {
+                    // Withdrawn (optimistic mode only) or expired concurrently; give the slot back
+                    releaseUnclaimed(booking);
+                }
+            }
+            return fulfilled;
+        }
+
+        private void releaseUnclaimed(Booking booking) {
+            try {
+                booking.cancel();
+                bookingRepository.deactivate(booking);
+            } catch (IllegalStateException e) {
+                // Already cancelled by someone who found it in the calendar
+            }
+        }
+
+        private Booking tryBookFor(WaitlistEntry entry) {
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                try {
+                    return bookOptimistically(entry.getEmployeeId(), entry.getRoomId(), entry.getTimeSlot());
+                } catch (RoomNotAvailableException e) {
+                    return null;
+                }
+            }
+            if (!isRoomAvailable(entry.getRoomId(), entry.getTimeSlot())) {
+                return null;
+            }
+            return bookingRepository.save(new Booking(generateBookingId(), entry.getEmployeeId(),
+                    entry.getRoomId(), entry.getTimeSlot()));
+        }
+
+        private void notifyFulfilled(List<WaitlistEntry> fulfilled) {
+            for (WaitlistEntry entry : fulfilled) {
+                waitlistListeners.forEach(listener -> listener.accept(entry));
+            }
+        }
+
+        /**
+         * Marks a booking as completed, freeing its slot in the room's index.
+         * Typically called by a scheduled job after the meeting has ended.
+         * 
+         * @param bookingId the booking ID to complete
+         * @return the completed booking
+         * @throws EntityNotFoundException if booking not found
+         */
+        public Booking completeBooking(String bookingId) {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+
+            if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+                booking.complete();
+                bookingRepository.deactivate(booking);
+                return booking;
+            }
+
+            ReadWriteLock roomLock = getLockForRoom(booking.getRoomId());
+            roomLock.writeLock().lock();
+
+            try {
+                booking.complete();
+                bookingRepository.deactivate(booking);
+                return booking;
+            } finally {
+                roomLock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Lists all bookings for a specific room.
+         * 
+         * @param roomId the room ID
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForRoom(String roomId) {
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            return bookingRepository.findByRoomId(roomId);
+        }
+
+        /**
+         * Lists all active bookings for a specific room.
+         * 
+         * @param roomId the room ID
+         * @return list of active bookings
+         */
+        public List<Booking> listActiveBookingsForRoom(String roomId) {
+            if (!roomService.roomExists(roomId)) {
+                throw new EntityNotFoundException("Room", roomId);
+            }
+
+            return bookingRepository.findActiveBookingsByRoomId(roomId);
+        }
+
+        /**
+         * Lists all bookings made by a specific employee.
+         * 
+         * @param employeeId the employee ID
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForEmployee(String employeeId) {
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+
+            return bookingRepository.findByEmployeeId(employeeId);
+        }
+
+        /**
+         * Lists all active bookings for a specific employee.
+         * 
+         * @param employeeId the employee ID
+         * @return list of active bookings
+         */
+        public List<Booking> listActiveBookingsForEmployee(String employeeId) {
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+
+            return bookingRepository.findActiveBookingsByEmployeeId(employeeId);
+        }
+
+        /**
+         * Lists all bookings starting on a given date, across all rooms.
+         * 
+         * @param date the start date
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForDate(LocalDate date) {
+            return bookingRepository.findByDate(date);
+        }
+
+        /**
+         * Gets a booking by ID.
+         * 
+         * @param bookingId the booking ID
+         * @return the booking
+         * @throws EntityNotFoundException if booking not found
+         */
+        public Booking getBooking(String bookingId) {
+            return bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+        }
+
+        /**
+         * Generates a unique booking ID.
+         * In production, this could use UUID or a distributed ID generator.
+         * 
+         * @return unique booking ID
+         */
+        private String generateBookingId() {
+            return "BKG-" + UUID.randomUUID().toString();
+        }
+
+        private String generateSeriesId() {
+            return "SER-" + UUID.randomUUID().toString();
+        }
+
+        private String generateWaitlistId() {
+            return "WL-" + UUID.randomUUID().toString();
+        }
+
+        /**
+         * Retrieves all bookings in the system.
+         * 
+         * @return list of all bookings
+         */
+        public List<Booking> getAllBookings() {
+            return bookingRepository.findAll();
+        }
+
+        /**
+         * Lazily streams bookings in start-time order, read straight from the
+         * start-ordered indexes, so exports run in constant memory.
+         * Archived bookings are not included.
+         * 
+         * @param roomId     room to restrict to, or null for all rooms
+         * @param employeeId employee to restrict to, or null for all employees
+         * @param from       earliest start (inclusive), or null
+         * @param to         latest start (exclusive), or null
+         * @return stream of bookings ordered by start time
+         */
+        public Stream<Booking> streamBookings(String roomId, String employeeId, LocalDateTime from,
+                LocalDateTime to) {
+            return bookingRepository.streamBookings(roomId, employeeId, from, to, null);
+        }
+
+        /**
+         * Returns one page of bookings in start-time order. Pages are keyed
+         * by the last booking's position rather than an offset, so each page
+         * costs O(log n + pageSize) and pages stay stable while bookings are
+         * added or removed.
+         * 
+         * @param roomId     room to restrict to, or null for all rooms
+         * @param employeeId employee to restrict to, or null for all employees
+         * @param from       earliest start (inclusive), or null
+         * @param to         latest start (exclusive), or null
+         * @param cursor     cursor from the previous page, or null for the first page
+         * @param pageSize   maximum number of bookings in the page
+         * @return the page
+         * @throws InvalidBookingException if the page size or cursor is invalid
+         */
+        public Page<Booking> pageBookings(String roomId, String employeeId, LocalDateTime from,
+                LocalDateTime to, String cursor, int pageSize) {
+            if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+                throw new InvalidBookingException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            List<Booking> items;
+            try {
+                items = bookingRepository.streamBookings(roomId, employeeId, from, to, cursor)
+                        .limit(pageSize + 1L)
+                        .collect(Collectors.toList());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidBookingException(e.getMessage());
+            }
+            if (items.size() <= pageSize) {
+                return new Page<>(items, null);
+            }
+            List<Booking> page = items.subList(0, pageSize);
+            return new Page<>(page, BookingPosition.of(page.get(pageSize - 1)).toString());
+        }
+    }
+
+    /**
+     * Partitions rooms by location into shards. Each shard has its own
+     * repositories and its own BookingService, and a single thread runs it.
+     * 
+     * Every change to a shard, including its lifecycle timers, runs on the
+     * shard's thread, so the shard's BookingService guards all its rooms with
+     * one lock that is never contended, and bookings in different buildings
+     * share no lock, repository or index. Locations are matched ignoring
+     * case, as everywhere else. Operations on a room are queued to the room's
+     * shard. Queries spanning buildings go to every shard at once and the
+     * results are merged, so they take about as long as the slowest shard
+     * rather than the sum; paged and streamed queries merge the shards'
+     * start-ordered indexes lazily. Lookups by ID probe the shards'
+     * concurrent repositories directly to find the owner. Employees, metrics
+     * and the employees' busy times are shared by all shards. A batch must
+     * stay within one location, since no single shard can make a
+     * cross-building batch atomic.
+     */
+    public static class ShardedBookingService implements AutoCloseable {
+        private static final Comparator<Booking> BY_START = Comparator
+                .comparingLong((Booking booking) -> booking.getTimeSlot().getStartNanos())
+                .thenComparing(Booking::getBookingId);
+
+        private final EmployeeService employeeService;
+        private final BookingMetrics metrics;
+        private final Clock clock;
+        private final Duration lifecycleTick;
+        private final Duration retention;
+        private final Map<String, Shard> shardsByLocation; // lower-cased location -> shard
+        private final Map<String, Shard> shardsByRoom;
+        private final FreeBusyService freeBusyService;
+        private final ScheduledExecutorService ticker;
+
+        public ShardedBookingService(EmployeeService employeeService) {
+            this(employeeService, BookingMetrics.disabled(), Clock.systemDefaultZone(), Duration.ofMinutes(1),
+                    Duration.ofDays(1));
+        }
+
+        /**
+         * Creates a sharded service whose shards record into shared metrics and
+         * complete and archive their bookings once {@link #start()} is called.
+         * 
+         * @param employeeService employees shared by all shards
+         * @param metrics         where every shard records
+         * @param clock           source of the current time for lifecycle timers
+         * @param lifecycleTick   lifecycle timer resolution
+         * @param retention       how long finished bookings stay after they end
+         */
+        public ShardedBookingService(EmployeeService employeeService, BookingMetrics metrics, Clock clock,
+                Duration lifecycleTick, Duration retention) {
+            this.employeeService = employeeService;
+            this.metrics = metrics;
+            this.clock = clock;
+            this.lifecycleTick = lifecycleTick;
+            this.retention = retention;
+            this.shardsByLocation = new ConcurrentHashMap<>();
+            this.shardsByRoom = new ConcurrentHashMap<>();
+            this.freeBusyService = new FreeBusyService(employeeService,
+                    roomId -> shardOfRoom(roomId).bookingRepository,
+                    roomId -> shardOfRoom(roomId).seriesRepository,
+                    this::getRoom);
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "shard-lifecycle");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private final class Shard {
+            final MeetingRoomRepository roomRepository;
+            final BookingRepository bookingRepository;
+            final RecurringSeriesRepository seriesRepository;
+            final WaitlistRepository waitlistRepository;
+            final BookingArchive archive;
+            final MeetingRoomService roomService;
+            final BookingService bookingService;
+            final RoomRecommendationService recommendationService;
+            final BookingLifecycleScheduler lifecycle;
+            final ExecutorService executor;
+
+            Shard(String location) {
+                this.roomRepository = new MeetingRoomRepository();
+                this.bookingRepository = new BookingRepository();
+                this.seriesRepository = new RecurringSeriesRepository();
+                this.waitlistRepository = new WaitlistRepository();
+                this.archive = new BookingArchive();
+                this.roomService = new MeetingRoomService(roomRepository);
+                this.bookingService = new BookingService(bookingRepository, seriesRepository, waitlistRepository,
+                        employeeService, roomService, RoomLockRegistry.striped(1), ConcurrencyMode.LOCKING, metrics,
+                        clock);
+                this.recommendationService = new RoomRecommendationService(roomRepository, bookingRepository,
+                        bookingService, clock);
+                // Never started: the service's ticker advances it on this shard's thread
+                this.lifecycle = new BookingLifecycleScheduler(bookingService, bookingRepository, archive, clock,
+                        lifecycleTick, retention);
+                this.executor = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "shard-" + location);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                freeBusyService.watch(bookingRepository, seriesRepository);
+            }
+
+            <T> CompletableFuture<T> submit(Supplier<T> task) {
+                return CompletableFuture.supplyAsync(task, executor);
+            }
+        }
+
+        /**
+         * Starts firing every shard's lifecycle timers, each on its shard's
+         * thread: bookings are completed when they end, archived after the
+         * retention period, and waitlist entries expire once their slot starts.
+         */
+        public void start() {
+            long tickMillis = lifecycleTick.toMillis();
+            ticker.scheduleAtFixedRate(() -> {
+                for (Shard shard : shardsByLocation.values()) {
+                    shard.submit(shard.lifecycle::advance);
+                }
+            }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Creates a room in the shard for its location, starting the shard on
+         * the location's first room.
+         * 
+         * @param roomId   unique identifier across all locations
+         * @param name     room name
+         * @param capacity room capacity
+         * @param location room location, which picks the shard (case-insensitive)
+         * @return the created meeting room
+         */
+        public MeetingRoom createRoom(String roomId, String name, int capacity, String location) {
+            if (roomId == null || roomId.trim().isEmpty()) {
+                throw new IllegalArgumentException("Room ID cannot be null or empty");
+            }
+            if (location == null || location.trim().isEmpty()) {
+                throw new IllegalArgumentException("Room location cannot be null or empty");
+            }
+            if (shardsByRoom.containsKey(roomId)) {
+                throw new InvalidBookingException("Room with ID '" + roomId + "' already exists");
+            }
+            Shard shard = shardsByLocation.computeIfAbsent(location.toLowerCase(), Shard::new);
+            if (shardsByRoom.putIfAbsent(roomId, shard) != null) {
+                throw new InvalidBookingException("Room with ID '" + roomId + "' already exists");
+            }
+            try {
+                return join(shard.submit(() -> shard.roomService.createRoom(roomId, name, capacity, location)));
+            } catch (RuntimeException e) {
+                shardsByRoom.remove(roomId);
+                throw e;
+            }
+        }
+
+        /**
+         * Retrieves a room by ID.
+         * 
+         * @param roomId the room ID
+         * @return the meeting room
+         * @throws EntityNotFoundException if room not found
+         */
+        public MeetingRoom getRoom(String roomId) {
+            return shardOfRoom(roomId).roomService.getRoom(roomId);
+        }
+
+        /**
+         * Gets the rooms of every location.
+         * 
+         * @return list of all rooms
+         */
+        public List<MeetingRoom> getAllRooms() {
+            List<MeetingRoom> rooms = new ArrayList<>();
+            for (Shard shard : shardsByLocation.values()) {
+                rooms.addAll(shard.roomService.getAllRooms());
+            }
+            return rooms;
+        }
+
+        /**
+         * Finds rooms with at least the given capacity in every location.
+         * 
+         * @param minCapacity minimum capacity required
+         * @return list of suitable rooms
+         */
+        public List<MeetingRoom> getRoomsByCapacity(int minCapacity) {
+            List<MeetingRoom> rooms = new ArrayList<>();
+            for (Shard shard : shardsByLocation.values()) {
+                rooms.addAll(shard.roomService.getRoomsByCapacity(minCapacity));
+            }
+            return rooms;
+        }
+
+        /**
+         * Finds the rooms at a location, from that location's shard only.
+         * 
+         * @param location the location (case-insensitive)
+         * @return list of rooms at the location
+         */
+        public List<MeetingRoom> getRoomsByLocation(String location) {
+            Shard shard = shardOfLocation(location);
+            return shard == null ? new ArrayList<>() : shard.roomService.getRoomsByLocation(location);
+        }
+
+        /**
+         * Lists the locations that have a shard, lower-cased.
+         * 
+         * @return location names
+         */
+        public List<String> getLocations() {
+            return new ArrayList<>(shardsByLocation.keySet());
+        }
+
+        /**
+         * Books a meeting room on its shard's thread and waits for the result.
+         * 
+         * @param employeeId ID of the employee making the booking
+         * @param roomId     ID of the room to book
+         * @param startTime  start time of the meeting
+         * @param endTime    end time of the meeting
+         * @return the created booking
+         * @throws EntityNotFoundException   if employee or room not found
+         * @throws RoomNotAvailableException if room is already booked
+         */
+        public Booking bookRoom(String employeeId, String roomId, LocalDateTime startTime, LocalDateTime endTime) {
+            return join(bookRoomAsync(employeeId, roomId, startTime, endTime));
+        }
+
+        /**
+         * Queues a booking on its shard's thread without waiting, so one
+         * caller can keep several buildings busy at once.
+         * 
+         * @param employeeId ID of the employee making the booking
+         * @param roomId     ID of the room to book
+         * @param startTime  start time of the meeting
+         * @param endTime    end time of the meeting
+         * @return future completed with the booking, or with the booking's failure
+         * @throws EntityNotFoundException if room not found
+         */
+        public CompletableFuture<Booking> bookRoomAsync(
+                String employeeId,
+                String roomId,
+                LocalDateTime startTime,
+                LocalDateTime endTime) {
+            Shard shard = shardOfRoom(roomId);
+            return shard.submit(() -> shard.bookingService.bookRoom(employeeId, roomId, startTime, endTime));
+        }
+
+        /**
+         * Books a batch atomically on the shard owning all of its rooms.
+         * 
+         * @param employeeId ID of the employee making the bookings
+         * @param requests   the rooms and intervals to book
+         * @return the created bookings, in request order
+         * @throws InvalidBookingException if the batch is empty or spans several locations
+         */
+        public List<Booking> bookAll(String employeeId, List<BookingRequest> requests) {
+            if (requests == null || requests.isEmpty()) {
+                throw new InvalidBookingException("Batch must contain at least one booking request");
+            }
+            Shard shard = shardOfRoom(requests.get(0).getRoomId());
+            for (BookingRequest request : requests) {
+                if (shardOfRoom(request.getRoomId()) != shard) {
+                    throw new InvalidBookingException("Batch spans several locations; book each location separately");
+                }
+            }
+            return join(shard.submit(() -> shard.bookingService.bookAll(employeeId, requests)));
+        }
+
+        /**
+         * Cancels a booking on its shard, handing the freed time to the room's waitlist.
+         * 
+         * @param bookingId the booking ID
+         * @return the cancelled booking
+         * @throws EntityNotFoundException if booking not found
+         */
+        public Booking cancelBooking(String bookingId) {
+            Shard shard = shardOwning("Booking", bookingId, s -> s.bookingRepository.findById(bookingId).isPresent());
+            return join(shard.submit(() -> shard.bookingService.cancelBooking(bookingId)));
+        }
+
+        /**
+         * Marks a booking as completed on its shard.
+         * 
+         * @param bookingId the booking ID
+         * @return the completed booking
+         * @throws EntityNotFoundException if booking not found
+         */
+        public Booking completeBooking(String bookingId) {
+            Shard shard = shardOwning("Booking", bookingId, s -> s.bookingRepository.findById(bookingId).isPresent());
+            return join(shard.submit(() -> shard.bookingService.completeBooking(bookingId)));
+        }
+
+        /**
+         * Books a recurring meeting on its room's shard.
+         * 
+         * @param employeeId ID of the employee making the booking
+         * @param roomId     ID of the room to book
+         * @param startTime  start time of the first occurrence
+         * @param endTime    end time of the first occurrence
+         * @param rule       how the first occurrence repeats
+         * @return the created series
+         */
+        public RecurringSeries bookRecurring(
+                String employeeId,
+                String roomId,
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                RecurrenceRule rule) {
+            Shard shard = shardOfRoom(roomId);
+            return join(shard.submit(
+                    () -> shard.bookingService.bookRecurring(employeeId, roomId, startTime, endTime, rule)));
+        }
+
+        /**
+         * Cancels a recurring series on its shard.
+         * 
+         * @param seriesId the series ID
+         * @return the cancelled series
+         * @throws EntityNotFoundException if series not found
+         */
+        public RecurringSeries cancelSeries(String seriesId) {
+            Shard shard = shardOwning("Series", seriesId, s -> s.seriesRepository.findById(seriesId).isPresent());
+            return join(shard.submit(() -> shard.bookingService.cancelSeries(seriesId)));
+        }
+
+        /**
+         * Lists the active recurring series of a room.
+         * 
+         * @param roomId the room ID
+         * @return list of active series
+         */
+        public List<RecurringSeries> listSeriesForRoom(String roomId) {
+            return shardOfRoom(roomId).bookingService.listSeriesForRoom(roomId);
+        }
+
+        /**
+         * Expands the occurrences of a series that overlap a window.
+         * 
+         * @param seriesId the series ID
+         * @param from     window start (inclusive)
+         * @param to       window end (exclusive)
+         * @return occurrence time slots in order
+         */
+        public List<TimeSlot> listOccurrences(String seriesId, LocalDateTime from, LocalDateTime to) {
+            Shard shard = shardOwning("Series", seriesId, s -> s.seriesRepository.findById(seriesId).isPresent());
+            return shard.bookingService.listOccurrences(seriesId, from, to);
+        }
+
+        /**
+         * Waits for a room's time slot on its shard, booking it as soon as it is free.
+         * 
+         * @param employeeId ID of the employee waiting
+         * @param roomId     ID of the room wanted
+         * @param startTime  start time of the meeting
+         * @param endTime    end time of the meeting
+         * @param priority   higher is served first
+         * @return the waitlist entry, already FULFILLED if the slot was free
+         */
+        public WaitlistEntry joinWaitlist(String employeeId, String roomId, LocalDateTime startTime,
+                LocalDateTime endTime, int priority) {
+            Shard shard = shardOfRoom(roomId);
+            return join(shard.submit(
+                    () -> shard.bookingService.joinWaitlist(employeeId, roomId, startTime, endTime, priority)));
+        }
+
+        /**
+         * Withdraws a waiting entry on its shard.
+         * 
+         * @param entryId the entry ID
+         * @return the withdrawn entry
+         * @throws EntityNotFoundException if entry not found
+         */
+        public WaitlistEntry leaveWaitlist(String entryId) {
+            Shard shard = shardOwning("Waitlist entry", entryId,
+                    s -> s.waitlistRepository.findById(entryId).isPresent());
+            return join(shard.submit(() -> shard.bookingService.leaveWaitlist(entryId)));
+        }
+
+        /**
+         * Gets a waitlist entry by ID from whichever shard holds it.
+         * 
+         * @param entryId the entry ID
+         * @return the entry
+         * @throws EntityNotFoundException if entry not found
+         */
+        public WaitlistEntry getWaitlistEntry(String entryId) {
+            Shard shard = shardOwning("WaitlistEntry", entryId,
+                    s -> s.waitlistRepository.findById(entryId).isPresent());
+            return shard.bookingService.getWaitlistEntry(entryId);
+        }
+
+        /**
+         * Lists the waiting entries of a room, ordered by start time.
+         * 
+         * @param roomId the room ID
+         * @return list of waiting entries
+         */
+        public List<WaitlistEntry> listWaitlist(String roomId) {
+            return shardOfRoom(roomId).bookingService.listWaitlist(roomId);
+        }
+
+        /**
+         * Gets all rooms free for a time interval, from every shard in parallel.
+         * 
+         * @param startTime start time of desired slot
+         * @param endTime   end time of desired slot
+         * @return list of available rooms
+         */
+        public List<MeetingRoom> getAvailableRooms(LocalDateTime startTime, LocalDateTime endTime) {
+            return findAvailableRooms(startTime, endTime, 0, null);
+        }
+
+        /**
+         * Finds free rooms satisfying capacity and location filters. A
+         * location filter asks only that location's shard; otherwise every
+         * shard is asked in parallel.
+         * 
+         * @param startTime   start time of desired slot
+         * @param endTime     end time of desired slot
+         * @param minCapacity minimum capacity required
+         * @param location    required location (case-insensitive), or null for any location
+         * @return list of available rooms
+         */
+        public List<MeetingRoom> findAvailableRooms(
+                LocalDateTime startTime,
+                LocalDateTime endTime,
+                int minCapacity,
+                String location) {
+            if (location != null) {
+                Shard shard = shardOfLocation(location);
+                if (shard == null) {
+                    return new ArrayList<>();
+                }
+                return join(shard.submit(
+                        () -> shard.bookingService.findAvailableRooms(startTime, endTime, minCapacity, location)));
+            }
+            return fanOut(shard -> shard.bookingService.findAvailableRooms(startTime, endTime, minCapacity, null));
+        }
+
+        /**
+         * Suggests the best free rooms for a meeting. Each shard ranks its own
+         * rooms in parallel and the shards' top suggestions are merged.
+         * 
+         * @param startTime         start time of the meeting
+         * @param endTime           end time of the meeting
+         * @param attendees         number of seats needed
+         * @param preferredLocation location to favour, or null for no preference
+         * @param limit             maximum number of suggestions
+         * @return suggestions ordered by descending score
+         */
+        public List<RoomSuggestion> suggestRooms(LocalDateTime startTime, LocalDateTime endTime, int attendees,
+                String preferredLocation, int limit) {
+            if (attendees <= 0 || limit <= 0) {
+                throw new InvalidBookingException("Attendees and limit must be positive");
+            }
+            List<RoomSuggestion> ranked = fanOut(shard -> shard.recommendationService.suggestRooms(
+                    startTime, endTime, attendees, preferredLocation, limit));
+            ranked.sort(RoomRecommendationService.RANKING.reversed());
+            return new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size())));
+        }
+
+        /**
+         * Finds the earliest times at which all employees and one of the
+         * candidate rooms are free, counting each employee's bookings in
+         * every building.
+         * 
+         * @param employeeIds the attendees
+         * @param roomIds     candidate rooms, in order of preference
+         * @param from        earliest start of the search window
+         * @param to          latest end of the search window
+         * @param duration    meeting length
+         * @param limit       maximum number of slots
+         * @return slots in time order, each naming a free room
+         */
+        public List<BookingRequest> findCommonFreeSlots(List<String> employeeIds, List<String> roomIds,
+                LocalDateTime from, LocalDateTime to, Duration duration, int limit) {
+            return freeBusyService.findCommonFreeSlots(employeeIds, roomIds, from, to, duration, limit);
+        }
+
+        /**
+         * Lists all bookings for a room, read on its shard.
+         * 
+         * @param roomId the room ID
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForRoom(String roomId) {
+            Shard shard = shardOfRoom(roomId);
+            return join(shard.submit(() -> shard.bookingService.listBookingsForRoom(roomId)));
+        }
+
+        /**
+         * Lists the active bookings for a room, read on its shard.
+         * 
+         * @param roomId the room ID
+         * @return list of active bookings
+         */
+        public List<Booking> listActiveBookingsForRoom(String roomId) {
+            Shard shard = shardOfRoom(roomId);
+            return join(shard.submit(() -> shard.bookingService.listActiveBookingsForRoom(roomId)));
+        }
+
+        /**
+         * Lists an employee's bookings in all buildings, in start-time order.
+         * 
+         * @param employeeId the employee ID
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForEmployee(String employeeId) {
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+            List<Booking> bookings = fanOut(shard -> shard.bookingService.listBookingsForEmployee(employeeId));
+            bookings.sort(BY_START);
+            return bookings;
+        }
+
+        /**
+         * Lists an employee's active bookings in all buildings, in start-time order.
+         * 
+         * @param employeeId the employee ID
+         * @return list of active bookings
+         */
+        public List<Booking> listActiveBookingsForEmployee(String employeeId) {
+            if (!employeeService.employeeExists(employeeId)) {
+                throw new EntityNotFoundException("Employee", employeeId);
+            }
+            List<Booking> bookings = fanOut(shard -> shard.bookingService.listActiveBookingsForEmployee(employeeId));
+            bookings.sort(BY_START);
+            return bookings;
+        }
+
+        /**
+         * Lists all bookings starting on a given date in all buildings, in start-time order.
+         * 
+         * @param date the start date
+         * @return list of bookings
+         */
+        public List<Booking> listBookingsForDate(LocalDate date) {
+            List<Booking> bookings = fanOut(shard -> shard.bookingService.listBookingsForDate(date));
+            bookings.sort(BY_START);
+            return bookings;
+        }
+
+        /**
+         * Gets a booking by ID from whichever shard holds it, live or archived.
+         * 
+         * @param bookingId the booking ID
+         * @return the booking
+         * @throws EntityNotFoundException if booking not found
+         */
+        public Booking getBooking(String bookingId) {
+            for (Shard shard : shardsByLocation.values()) {
+                Optional<Booking> booking = shard.bookingRepository.findById(bookingId);
+                if (!booking.isPresent()) {
+                    booking = shard.archive.findById(bookingId);
+                }
+                if (booking.isPresent()) {
+                    return booking.get();
+                }
+            }
+            throw new EntityNotFoundException("Booking", bookingId);
         }
 
         /**
-         * Gets or creates a lock for a specific room.
-         * Synchronized to ensure thread-safe lock creation.
+         * Retrieves the live bookings of every building.
+         * 
+         * @return list of all bookings
          */
-        private synchronized ReadWriteLock getLockForRoom(String roomId) {
-            return roomLocks.computeIfAbsent(roomId, k -> new ReentrantReadWriteLock());
+        public List<Booking> getAllBookings() {
+            List<Booking> bookings = new ArrayList<>();
+            for (Shard shard : shardsByLocation.values()) {
+                bookings.addAll(shard.bookingService.getAllBookings());
+            }
+            return bookings;
         }
 
         /**
-         * Books a meeting room for an employee.
-         * Thread-safe implementation using room-level locking.
+         * Lazily streams live bookings of every building in start-time order,
+         * merging the shards' start-ordered indexes as the stream is read.
          * 
-         * @param employeeId ID of the employee making the booking
-         * @param roomId     ID of the room to book
-         * @param startTime  start time of the meeting
-         * @param endTime    end time of the meeting
-         * @return the created booking
-         * @throws EntityNotFoundException   if employee or room not found
-         * @throws RoomNotAvailableException if room is already booked
+         * @param roomId     room to restrict to, or null for all rooms
+         * @param employeeId employee to restrict to, or null for all employees
+         * @param from       earliest start (inclusive), or null
+         * @param to         latest start (exclusive), or null
+         * @return stream of bookings ordered by start time
          */
-        public Booking bookRoom(
-                String employeeId,
-                String roomId,
-                LocalDateTime startTime,
-                LocalDateTime endTime) {
+        public Stream<Booking> streamBookings(String roomId, String employeeId, LocalDateTime from,
+                LocalDateTime to) {
+            return merged(roomId, employeeId, from, to, null);
+        }
 
-            // Validate employee and room exist
-            if (!employeeService.employeeExists(employeeId)) {
-                throw new EntityNotFoundException("Employee", employeeId);
+        /**
+         * Returns one page of live bookings of every building in start-time
+         * order. Cursors are positions in the merged order, so they work
+         * across shards just as they do within one.
+         * 
+         * @param roomId     room to restrict to, or null for all rooms
+         * @param employeeId employee to restrict to, or null for all employees
+         * @param from       earliest start (inclusive), or null
+         * @param to         latest start (exclusive), or null
+         * @param cursor     cursor from the previous page, or null for the first page
+         * @param pageSize   maximum number of bookings in the page
+         * @return the page
+         * @throws InvalidBookingException if the page size or cursor is invalid
+         */
+        public Page<Booking> pageBookings(String roomId, String employeeId, LocalDateTime from,
+                LocalDateTime to, String cursor, int pageSize) {
+            if (pageSize <= 0 || pageSize > BookingService.MAX_PAGE_SIZE) {
+                throw new InvalidBookingException("Page size must be between 1 and " + BookingService.MAX_PAGE_SIZE);
             }
-            if (!roomService.roomExists(roomId)) {
+            List<Booking> items;
+            try {
+                items = merged(roomId, employeeId, from, to, cursor)
+                        .limit(pageSize + 1L)
+                        .collect(Collectors.toList());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidBookingException(e.getMessage());
+            }
+            if (items.size() <= pageSize) {
+                return new Page<>(items, null);
+            }
+            List<Booking> page = items.subList(0, pageSize);
+            return new Page<>(page, BookingPosition.of(page.get(pageSize - 1)).toString());
+        }
+
+        // k-way merge of the shards' start-ordered streams; a room filter reads only its shard
+        private Stream<Booking> merged(String roomId, String employeeId, LocalDateTime from, LocalDateTime to,
+                String cursor) {
+            Collection<Shard> shards = roomId == null ? shardsByLocation.values()
+                    : Collections.singletonList(shardOfRoom(roomId));
+            PriorityQueue<Head> heads = new PriorityQueue<>();
+            for (Shard shard : shards) {
+                Head head = new Head(shard.bookingRepository.streamBookings(roomId, employeeId, from, to, cursor)
+                        .iterator());
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+            Iterator<Booking> merge = new Iterator<Booking>() {
+                @Override
+                public boolean hasNext() {
+                    return !heads.isEmpty();
+                }
+
+                @Override
+                public Booking next() {
+                    Head head = heads.poll();
+                    if (head == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Booking next = head.booking;
+                    if (head.advance()) {
+                        heads.add(head);
+                    }
+                    return next;
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge,
+                    Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        // Next unread booking of one shard's stream
+        private static final class Head implements Comparable<Head> {
+            final Iterator<Booking> rest;
+            Booking booking;
+            BookingPosition position;
+
+            Head(Iterator<Booking> rest) {
+                this.rest = rest;
+            }
+
+            boolean advance() {
+                if (!rest.hasNext()) {
+                    return false;
+                }
+                booking = rest.next();
+                position = BookingPosition.of(booking);
+                return true;
+            }
+
+            @Override
+            public int compareTo(Head other) {
+                return position.compareTo(other.position);
+            }
+        }
+
+        private Shard shardOfRoom(String roomId) {
+            Shard shard = roomId == null ? null : shardsByRoom.get(roomId);
+            if (shard == null) {
                 throw new EntityNotFoundException("Room", roomId);
             }
+            return shard;
+        }
 
-            // Create and validate time slot
-            TimeSlot requestedSlot = new TimeSlot(startTime, endTime);
+        private Shard shardOfLocation(String location) {
+            return shardsByLocation.get(location.toLowerCase());
+        }
 
-            // Get room-specific lock for thread safety
-            ReadWriteLock roomLock = getLockForRoom(roomId);
-            roomLock.writeLock().lock();
+        private Shard shardOwning(String type, String id, Predicate<Shard> owns) {
+            if (id != null) {
+                for (Shard shard : shardsByLocation.values()) {
+                    if (owns.test(shard)) {
+                        return shard;
+                    }
+                }
+            }
+            throw new EntityNotFoundException(type, id);
+        }
+
+        // Sends the query to every shard before waiting on any of them
+        private <T> List<T> fanOut(Function<Shard, List<T>> query) {
+            List<CompletableFuture<List<T>>> results = new ArrayList<>(shardsByLocation.size());
+            for (Shard shard : shardsByLocation.values()) {
+                results.add(shard.submit(() -> query.apply(shard)));
+            }
+            List<T> merged = new ArrayList<>();
+            for (CompletableFuture<List<T>> result : results) {
+                merged.addAll(join(result));
+            }
+            return merged;
+        }
 
+        // Rethrows a shard's failure as the caller would have seen it from BookingService
+        private static <T> T join(CompletableFuture<T> future) {
             try {
-                // Check for overlapping bookings
-                List<Booking> overlappingBookings = bookingRepository.findOverlappingBookings(roomId, requestedSlot);
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
 
-                if (!overlappingBookings.isEmpty()) {
-                    throw new RoomNotAvailableException(roomId, requestedSlot.toString());
+        /**
+         * Stops the lifecycle timers and every shard's thread once its queued
+         * operations have run.
+         */
+        @Override
+        public void close() {
+            ticker.shutdownNow();
+            for (Shard shard : shardsByLocation.values()) {
+                shard.lifecycle.close();
+                shard.executor.shutdown();
+            }
+            for (Shard shard : shardsByLocation.values()) {
+                try {
+                    shard.executor.awaitTermination(1, TimeUnit.MINUTES);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
                 }
+            }
+        }
+    }
 
-                // Create and save booking
-                String bookingId = generateBookingId();
-                Booking booking = new Booking(bookingId, employeeId, roomId, requestedSlot);
+    /**
+     * Suggests the best free rooms for a meeting.
+     * 
+     * Each free room with enough seats gets a score combining capacity fit
+     * (attendees / capacity, so a snug room beats a half-empty hall), whether
+     * it is at the preferred location, and how lightly it was booked
+     * recently (to spread load). Rooms are walked per location in ascending
+     * capacity from the repository's capacity index. Since fit only drops as
+     * capacity grows, a location's walk stops as soon as even a perfectly
+     * idle room of the current size could not beat the k-th best score found
+     * so far; only the rooms walked are checked for availability. The
+     * preferred location is searched first to set a high bar, the remaining
+     * locations in parallel, each keeping a bounded min-heap of its top k.
+     */
+    public static class RoomRecommendationService {
+        private static final double FIT_WEIGHT = 0.6;
+        private static final double LOCATION_WEIGHT = 0.25;
+        private static final double IDLE_WEIGHT = 0.15;
+        private static final int UTILIZATION_WINDOW_DAYS = 28;
 
-                return bookingRepository.save(booking);
+        private static final Comparator<RoomSuggestion> RANKING = Comparator
+                .comparingDouble(RoomSuggestion::getScore)
+                .thenComparing(suggestion -> suggestion.getRoom().getRoomId(), Comparator.reverseOrder());
 
-            } finally {
-                roomLock.writeLock().unlock();
-            }
+        private final MeetingRoomRepository roomRepository;
+        private final BookingService bookingService;
+        private final RoomUtilization utilization;
+
+        public RoomRecommendationService(
+                MeetingRoomRepository roomRepository,
+                BookingRepository bookingRepository,
+                BookingService bookingService) {
+            this(roomRepository, bookingRepository, bookingService, Clock.systemDefaultZone());
+        }
+
+        public RoomRecommendationService(
+                MeetingRoomRepository roomRepository,
+                BookingRepository bookingRepository,
+                BookingService bookingService,
+                Clock clock) {
+            this.roomRepository = roomRepository;
+            this.bookingService = bookingService;
+            this.utilization = new RoomUtilization(clock, UTILIZATION_WINDOW_DAYS);
+            bookingRepository.findAll().stream().filter(booking -> !booking.isCancelled())
+                    .forEach(utilization::onBooked);
+            bookingRepository.addListener(utilization);
         }
 
         /**
-         * Gets all available rooms for a given time slot.
-         * Uses read locks for thread-safe concurrent reads.
+         * Returns up to {@code limit} free rooms ranked best first.
          * 
-         * @param startTime start time of desired slot
-         * @param endTime   end time of desired slot
-         * @return list of available rooms
+         * @param startTime         start time of the meeting
+         * @param endTime           end time of the meeting
+         * @param attendees         number of seats needed
+         * @param preferredLocation location to favour, or null for no preference
+         * @param limit             maximum number of suggestions
+         * @return suggestions ordered by descending score
+         * @throws InvalidBookingException if attendees or limit is not positive
          */
-        public List<MeetingRoom> getAvailableRooms(
+        public List<RoomSuggestion> suggestRooms(
                 LocalDateTime startTime,
-                LocalDateTime endTime) {
+                LocalDateTime endTime,
+                int attendees,
+                String preferredLocation,
+                int limit) {
 
-            TimeSlot requestedSlot = new TimeSlot(startTime, endTime);
-            List<MeetingRoom> allRooms = roomService.getAllRooms();
+            if (attendees <= 0 || limit <= 0) {
+                throw new InvalidBookingException("Attendees and limit must be positive");
+            }
+            TimeSlot slot = TimeSlot.window(startTime, endTime);
+            String preferred = preferredLocation == null ? null : preferredLocation.toLowerCase();
+
+            PriorityQueue<RoomSuggestion> best = new PriorityQueue<>(RANKING);
+            if (preferred != null) {
+                walk(preferred, true, slot, attendees, limit, 0, best);
+            }
+            List<String> others = roomRepository.findLocations();
+            others.remove(preferred);
+            // Other locations rank below any preferred room with the same fit,
+            // so their walks can start from the preferred location's k-th score
+            double floor = best.size() == limit ? best.peek().getScore() : 0;
+            others.parallelStream()
+                    .map(location -> {
+                        PriorityQueue<RoomSuggestion> local = new PriorityQueue<>(RANKING);
+                        walk(location, false, slot, attendees, limit, floor, local);
+                        return local;
+                    })
+                    .collect(Collectors.toList())
+                    .forEach(local -> local.forEach(suggestion -> offer(best, suggestion, limit)));
+
+            List<RoomSuggestion> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING.reversed());
+            return ranked;
+        }
+
+        private void walk(String location, boolean preferredMatch, TimeSlot slot, int attendees, int limit,
+                double floor, PriorityQueue<RoomSuggestion> best) {
+            double locationScore = preferredMatch ? LOCATION_WEIGHT : 0;
+            Iterator<MeetingRoom> rooms = roomRepository.streamByCapacity(location, attendees).iterator();
+            while (rooms.hasNext()) {
+                MeetingRoom room = rooms.next();
+                double fit = attendees / (double) room.getCapacity();
+                double bound = FIT_WEIGHT * fit + locationScore + IDLE_WEIGHT;
+                double bar = best.size() == limit ? Math.max(floor, best.peek().getScore()) : floor;
+                if (bound < bar) {
+                    // Every later room is at least as large, so none can score higher
+                    return;
+                }
+                if (!bookingService.isRoomAvailable(room.getRoomId(), slot)) {
+                    continue;
+                }
+                double used = utilization.utilization(room.getRoomId());
+                double score = FIT_WEIGHT * fit + locationScore + IDLE_WEIGHT * (1 - used);
+                offer(best, new RoomSuggestion(room, score, fit, used), limit);
+            }
+        }
+
+        private static void offer(PriorityQueue<RoomSuggestion> best, RoomSuggestion suggestion, int limit) {
+            if (best.size() < limit) {
+                best.add(suggestion);
+            } else if (RANKING.compare(suggestion, best.peek()) > 0) {
+                best.poll();
+                best.add(suggestion);
+            }
+        }
+    }
+
+    /**
+     * Finds common free time across many employees and candidate rooms.
+     * 
+     * Busy intervals of each attendee come from an {@link EmployeeBusyIndex}
+     * as sorted primitive arrays; their series occurrences in the window are
+     * expanded into arrays of the same shape. A k-way merge over all of them
+     * (a heap keyed by each cursor's next start) yields the attendees' common
+     * free gaps in time order without materializing the union. Within each
+     * gap, grid-aligned start times are tried in order against every
+     * candidate room's busy list, each walked by a cursor that only moves
+     * forward, so the search stops as soon as {@code limit} slots are found.
+     * Rooms may live in several repositories, such as the shards of a
+     * {@link ShardedBookingService}; the busy index then watches them all.
+     */
+    public static class FreeBusyService {
+        private static final long STEP_SECONDS = AvailabilityBitmap.SLOT_MINUTES * 60L;
+
+        private final Function<String, BookingRepository> bookingsOfRoom;
+        private final Function<String, RecurringSeriesRepository> seriesOfRoom;
+        private final EmployeeService employeeService;
+        private final Function<String, MeetingRoom> rooms;
+        private final EmployeeBusyIndex busyIndex;
 
-            return allRooms.stream()
-                    .filter(room -> isRoomAvailable(room.getRoomId(), requestedSlot))
-                    .collect(Collectors.toList());
+        public FreeBusyService(
+                BookingRepository bookingRepository,
+                RecurringSeriesRepository seriesRepository,
+                EmployeeService employeeService,
+                MeetingRoomService roomService) {
+            this(employeeService, roomId -> bookingRepository, roomId -> seriesRepository, roomService::getRoom);
+            watch(bookingRepository, seriesRepository);
         }
 
         /**
-         * Checks if a specific room is available for a time slot.
-         * Thread-safe with read lock.
+         * Creates a service over rooms spread across several repositories.
+         * Employees' bookings count as busy time once their repositories are
+         * passed to {@link #watch}.
          * 
-         * @param roomId   the room ID
-         * @param timeSlot the time slot to check
-         * @return true if available, false otherwise
+         * @param employeeService employees to search for
+         * @param bookingsOfRoom  the booking repository holding a room
+         * @param seriesOfRoom    the series repository holding a room
+         * @param rooms           looks a room up, throwing EntityNotFoundException if unknown
          */
-        private boolean isRoomAvailable(String roomId, TimeSlot timeSlot) {
-            ReadWriteLock roomLock = getLockForRoom(roomId);
-            roomLock.readLock().lock();
+        public FreeBusyService(
+                EmployeeService employeeService,
+                Function<String, BookingRepository> bookingsOfRoom,
+                Function<String, RecurringSeriesRepository> seriesOfRoom,
+                Function<String, MeetingRoom> rooms) {
+            this.bookingsOfRoom = bookingsOfRoom;
+            this.seriesOfRoom = seriesOfRoom;
+            this.employeeService = employeeService;
+            this.rooms = rooms;
+            this.busyIndex = new EmployeeBusyIndex();
+        }
 
-            try {
-                return bookingRepository.isRoomAvailable(roomId, timeSlot);
-            } finally {
-                roomLock.readLock().unlock();
-            }
+        /**
+         * Counts the bookings and series of a pair of repositories, current
+         * and future, as busy time of their employees.
+         * 
+         * @param bookingRepository bookings to watch
+         * @param seriesRepository  series to watch
+         */
+        public void watch(BookingRepository bookingRepository, RecurringSeriesRepository seriesRepository) {
+            bookingRepository.addListener(busyIndex);
+            seriesRepository.addListener(busyIndex);
+            bookingRepository.findAll().stream().filter(Booking::isActive).forEach(busyIndex::onBooked);
+            seriesRepository.findAll().forEach(busyIndex::onSeriesSaved);
         }
 
         /**
-         * Cancels an existing booking.
+         * Returns the earliest slots, in time order, at which every employee is
+         * free and at least one candidate room is free for the whole duration.
+         * Slots start on the {@link AvailabilityBitmap#SLOT_MINUTES}-minute
+         * grid; each is paired with the first free room in candidate order.
          * 
-         * @param bookingId the booking ID to cancel
-         * @return the cancelled booking
-         * @throws EntityNotFoundException if booking not found
-         * @throws IllegalStateException   if booking cannot be cancelled
+         * @param employeeIds the attendees
+         * @param roomIds     candidate rooms, in order of preference
+         * @param from        earliest start of the search window
+         * @param to          latest end of the search window
+         * @param duration    meeting length
+         * @param limit       maximum number of slots
+         * @return up to {@code limit} slots, each naming a room and interval
+         * @throws EntityNotFoundException if an employee or room not found
+         * @throws InvalidBookingException if the arguments are invalid
          */
-        public Booking cancelBooking(String bookingId) {
-            Booking booking = bookingRepository.findById(bookingId)
-                    .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+        public List<BookingRequest> findCommonFreeSlots(
+                List<String> employeeIds,
+                List<String> roomIds,
+                LocalDateTime from,
+                LocalDateTime to,
+                Duration duration,
+                int limit) {
 
-            ReadWriteLock roomLock = getLockForRoom(booking.getRoomId());
-            roomLock.writeLock().lock();
+            if (employeeIds == null || employeeIds.isEmpty() || roomIds == null || roomIds.isEmpty()) {
+                throw new InvalidBookingException("At least one employee and one room are required");
+            }
+            if (from == null || to == null || !from.isBefore(to)) {
+                throw new InvalidBookingException("Search window must start before it ends");
+            }
+            if (duration == null || duration.getSeconds() <= 0 || limit <= 0) {
+                throw new InvalidBookingException("Duration and limit must be positive");
+            }
+            employeeIds.forEach(employeeService::getEmployee);
+            roomIds.forEach(rooms::apply);
 
-            try {
-                booking.cancel();
-                return booking;
-            } finally {
-                roomLock.writeLock().unlock();
+            long windowStart = alignUp(EmployeeBusyIndex.ceilSeconds(from));
+            long windowEnd = EmployeeBusyIndex.floorSeconds(to);
+            long length = duration.getSeconds();
+
+            PriorityQueue<Cursor> attendees = new PriorityQueue<>(Comparator.comparingLong(Cursor::start));
+            for (String employeeId : new LinkedHashSet<>(employeeIds)) {
+                EmployeeBusyIndex.Intervals busy = busyIndex.busy(employeeId);
+                offer(attendees, new Cursor(busy, busy.firstEndingAfter(windowStart)));
+                for (RecurringSeries series : busyIndex.series(employeeId)) {
+                    offer(attendees, new Cursor(toIntervals(series.occurrencesBetween(from, to)
+                            .collect(Collectors.toList())), 0));
+                }
+            }
+            List<Cursor> rooms = new ArrayList<>();
+            for (String roomId : roomIds) {
+                rooms.add(roomCursor(roomId, from, to));
+            }
+
+            List<BookingRequest> slots = new ArrayList<>();
+            long freeFrom = windowStart;
+            while (slots.size() < limit && freeFrom < windowEnd) {
+                // Absorb every interval starting by freeFrom; what remains starts after the gap
+                while (!attendees.isEmpty() && attendees.peek().start() <= freeFrom) {
+                    Cursor cursor = attendees.poll();
+                    freeFrom = Math.max(freeFrom, cursor.end());
+                    if (cursor.advance()) {
+                        attendees.add(cursor);
+                    }
+                }
+                long freeTo = attendees.isEmpty() ? windowEnd : Math.min(windowEnd, attendees.peek().start());
+                long start = alignUp(freeFrom);
+                while (slots.size() < limit && start + length <= freeTo) {
+                    long next = Long.MAX_VALUE;
+                    int free = -1;
+                    for (int i = 0; i < rooms.size() && free < 0; i++) {
+                        long freeAt = rooms.get(i).freeAt(start, start + length);
+                        if (freeAt == start) {
+                            free = i;
+                        }
+                        next = Math.min(next, freeAt);
+                    }
+                    if (free >= 0) {
+                        slots.add(new BookingRequest(roomIds.get(free), toTime(start), toTime(start + length)));
+                        start += STEP_SECONDS;
+                    } else {
+                        start = Math.max(start + STEP_SECONDS, alignUp(next));
+                    }
+                }
+                freeFrom = Math.max(freeFrom, freeTo);
             }
+            return slots;
         }
 
-        /**
-         * Lists all bookings for a specific room.
-         * 
-         * @param roomId the room ID
-         * @return list of bookings
-         */
-        public List<Booking> listBookingsForRoom(String roomId) {
-            if (!roomService.roomExists(roomId)) {
-                throw new EntityNotFoundException("Room", roomId);
+        private Cursor roomCursor(String roomId, LocalDateTime from, LocalDateTime to) {
+            // Bookings and series occurrences never overlap within a room, so sorting gives a disjoint list
+            List<TimeSlot> busy = new ArrayList<>();
+            bookingsOfRoom.apply(roomId).calendarFor(roomId).snapshot().findOverlapping(from, to)
+                    .forEach(booking -> busy.add(booking.getTimeSlot()));
+            seriesOfRoom.apply(roomId).findByRoomId(roomId)
+                    .forEach(series -> series.occurrencesBetween(from, to).forEach(busy::add));
+            busy.sort(Comparator.comparing(TimeSlot::getStartTime));
+            return new Cursor(toIntervals(busy), 0);
+        }
+
+        private static EmployeeBusyIndex.Intervals toIntervals(List<TimeSlot> slots) {
+            long[] starts = new long[slots.size()];
+            long[] ends = new long[slots.size()];
+            for (int i = 0; i < starts.length; i++) {
+                starts[i] = EmployeeBusyIndex.floorSeconds(slots.get(i).getStartTime());
+                ends[i] = EmployeeBusyIndex.ceilSeconds(slots.get(i).getEndTime());
             }
+            return EmployeeBusyIndex.Intervals.of(starts, ends);
+        }
 
-            return bookingRepository.findByRoomId(roomId);
+        private static void offer(PriorityQueue<Cursor> cursors, Cursor cursor) {
+            if (cursor.hasCurrent()) {
+                cursors.add(cursor);
+            }
+        }
+
+        private static long alignUp(long seconds) {
+            return Math.floorDiv(seconds + STEP_SECONDS - 1, STEP_SECONDS) * STEP_SECONDS;
+        }
+
+        private static LocalDateTime toTime(long seconds) {
+            return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
         }
 
         /**
-         * Lists all active bookings for a specific room.
-         * 
-         * @param roomId the room ID
-         * @return list of active bookings
+         * Forward-only position in a list of busy intervals sorted by start.
          */
-        public List<Booking> listActiveBookingsForRoom(String roomId) {
-            if (!roomService.roomExists(roomId)) {
-                throw new EntityNotFoundException("Room", roomId);
+        private static final class Cursor {
+            private final EmployeeBusyIndex.Intervals intervals;
+            private final int size;
+            private int position;
+
+            Cursor(EmployeeBusyIndex.Intervals intervals, int position) {
+                this.intervals = intervals;
+                this.size = intervals.size();
+                this.position = position;
             }
 
-            return bookingRepository.findActiveBookingsByRoomId(roomId);
+            boolean hasCurrent() {
+                return position < size;
+            }
+
+            long start() {
+                return intervals.startAt(position);
+            }
+
+            long end() {
+                return intervals.endAt(position);
+            }
+
+            boolean advance() {
+                return ++position < size;
+            }
+
+            /**
+             * Returns {@code start} if no interval overlaps [start, end), otherwise
+             * the end of the first overlapping one (the earliest time worth trying
+             * next). Calls must come with non-decreasing {@code start}.
+             */
+            long freeAt(long start, long end) {
+                while (position < size && intervals.endAt(position) <= start) {
+                    position++;
+                }
+                return position == size || intervals.startAt(position) >= end ? start : intervals.endAt(position);
+            }
         }
+    }
+
+    /**
+     * Completes bookings when they end and archives them once they are old.
+     * 
+     * Deadlines live in a hashed timer wheel: {@code WHEEL_SIZE} buckets of
+     * one tick each, a deadline going into bucket {@code tick % WHEEL_SIZE}
+     * however many revolutions away it is. Each tick scans only its own
+     * bucket, skipping entries due in a later revolution. Writers schedule
+     * under their room lock, so scheduling takes no lock at all: it pushes
+     * the timer onto a lock-free inbox, and the ticking thread moves the inbox
+     * into the wheel before scanning. Only that thread touches the wheel.
+     * A booking is scheduled for completion when it is booked and for
+     * archival {@code retention} after its end once it stops being active,
+     * so the calendars and indexes hold only current and future bookings.
+     * Timers are never cancelled; a due timer whose booking changed in the
+     * meantime is simply dropped. Each tick also expires the waitlist
+     * entries whose slot has started.
+     */
+    public static class BookingLifecycleScheduler implements BookingEventListener, AutoCloseable {
+        private static final int WHEEL_SIZE = 512;
+
+        private final BookingService bookingService;
+        private final BookingRepository bookingRepository;
+        private final BookingArchive archive;
+        private final Clock clock;
+        private final long tickMillis;
+        private final Duration retention;
+        // Timers scheduled since the last tick, from any writer thread
+        private final Queue<Timer> inbox;
+        // Only touched by advance(), under its monitor; writers never take it
+        private final List<List<Timer>> wheel;
+        private final ScheduledExecutorService ticker;
+        // Last tick processed; guarded by the wheel
+        private long currentTick;
 
         /**
-         * Lists all bookings made by a specific employee.
+         * Creates a scheduler and schedules every booking already stored.
+         * Timers only fire once {@link #start()} is called or {@link #advance()} is driven manually.
          * 
-         * @param employeeId the employee ID
-         * @return list of bookings
+         * @param bookingService    used to complete bookings under their room lock
+         * @param bookingRepository bookings to watch
+         * @param archive           where finished bookings are moved
+         * @param clock             source of the current time
+         * @param tick              timer resolution
+         * @param retention         how long finished bookings stay after they end
          */
-        public List<Booking> listBookingsForEmployee(String employeeId) {
-            if (!employeeService.employeeExists(employeeId)) {
-                throw new EntityNotFoundException("Employee", employeeId);
+        public BookingLifecycleScheduler(
+                BookingService bookingService,
+                BookingRepository bookingRepository,
+                BookingArchive archive,
+                Clock clock,
+                Duration tick,
+                Duration retention) {
+            if (tick.toMillis() <= 0 || retention.isNegative()) {
+                throw new IllegalArgumentException("Tick must be positive and retention not negative");
+            }
+            this.bookingService = bookingService;
+            this.bookingRepository = bookingRepository;
+            this.archive = archive;
+            this.clock = clock;
+            this.tickMillis = tick.toMillis();
+            this.retention = retention;
+            this.inbox = new ConcurrentLinkedQueue<>();
+            this.wheel = new ArrayList<>(WHEEL_SIZE);
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheel.add(new ArrayList<>());
             }
+            this.currentTick = clock.millis() / tickMillis;
+            this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "booking-lifecycle");
+                thread.setDaemon(true);
+                return thread;
+            });
+            bookingRepository.addListener(this);
+            for (Booking booking : bookingRepository.findAll()) {
+                if (booking.isActive()) {
+                    onBooked(booking);
+                } else {
+                    onReleased(booking);
+                }
+            }
+        }
 
-            return bookingRepository.findByEmployeeId(employeeId);
+        private static final class Timer {
+            final String bookingId;
+            final long deadlineTick;
+            final boolean archival;
+
+            Timer(String bookingId, long deadlineTick, boolean archival) {
+                this.bookingId = bookingId;
+                this.deadlineTick = deadlineTick;
+                this.archival = archival;
+            }
         }
 
         /**
-         * Lists all active bookings for a specific employee.
-         * 
-         * @param employeeId the employee ID
-         * @return list of active bookings
+         * Starts firing timers once per tick on a background thread.
          */
-        public List<Booking> listActiveBookingsForEmployee(String employeeId) {
-            if (!employeeService.employeeExists(employeeId)) {
-                throw new EntityNotFoundException("Employee", employeeId);
-            }
+        public void start() {
+            ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        }
 
-            return bookingRepository.findActiveBookingsByEmployeeId(employeeId);
+        @Override
+        public void onBooked(Booking booking) {
+            schedule(booking.getBookingId(), booking.getTimeSlot().getEndTime(), false);
+        }
+
+        @Override
+        public void onReleased(Booking booking) {
+            schedule(booking.getBookingId(), booking.getTimeSlot().getEndTime().plus(retention), true);
+        }
+
+        private void schedule(String bookingId, LocalDateTime at, boolean archival) {
+            long deadlineMillis = at.atZone(clock.getZone()).toInstant().toEpochMilli();
+            long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+            inbox.add(new Timer(bookingId, deadlineTick, archival));
         }
 
         /**
-         * Gets a booking by ID.
+         * Fires every timer due by now: completes bookings that have ended and
+         * archives finished bookings past their retention. Also expires
+         * waitlist entries whose slot has started.
          * 
-         * @param bookingId the booking ID
-         * @return the booking
-         * @throws EntityNotFoundException if booking not found
+         * @return number of timers fired
          */
-        public Booking getBooking(String bookingId) {
-            return bookingRepository.findById(bookingId)
-                    .orElseThrow(() -> new EntityNotFoundException("Booking", bookingId));
+        public int advance() {
+            long nowTick = clock.millis() / tickMillis;
+            List<Timer> due = new ArrayList<>();
+            synchronized (wheel) {
+                Timer scheduled;
+                while ((scheduled = inbox.poll()) != null) {
+                    // Overdue timers fire on the next tick
+                    long tick = Math.max(scheduled.deadlineTick, currentTick + 1);
+                    wheel.get((int) Math.floorMod(tick, (long) WHEEL_SIZE))
+                            .add(new Timer(scheduled.bookingId, tick, scheduled.archival));
+                }
+                // After one revolution every bucket has been seen, however far the clock jumped
+                long ticks = Math.min(nowTick - currentTick, WHEEL_SIZE);
+                for (long i = 1; i <= ticks; i++) {
+                    List<Timer> bucket = wheel.get((int) Math.floorMod(currentTick + i, (long) WHEEL_SIZE));
+                    bucket.removeIf(timer -> {
+                        if (timer.deadlineTick <= nowTick) {
+                            due.add(timer);
+                            return true;
+                        }
+                        return false;
+                    });
+                }
+                currentTick = Math.max(currentTick, nowTick);
+            }
+            bookingService.expireWaitlist(LocalDateTime.now(clock));
+            // Fired outside the wheel lock: completing takes the room lock and reschedules
+            for (Timer timer : due) {
+                try {
+                    fire(timer);
+                } catch (RuntimeException e) {
+                    // Keep going; the failed timer's booking is left as it was
+                    System.err.println("Booking lifecycle timer failed for " + timer.bookingId + ": "
+                            + e.getMessage());
+                }
+            }
+            return due.size();
+        }
+
+        private void fire(Timer timer) {
+            Optional<Booking> found = bookingRepository.findById(timer.bookingId);
+            if (!found.isPresent()) {
+                return;
+            }
+            Booking booking = found.get();
+            if (timer.archival) {
+                bookingRepository.archive(timer.bookingId, archive);
+            } else if (booking.isActive()) {
+                if (booking.getTimeSlot().getEndTime().isAfter(LocalDateTime.now(clock))) {
+                    onBooked(booking);
+                } else {
+                    bookingService.completeBooking(timer.bookingId);
+                }
+            }
         }
 
         /**
-         * Generates a unique booking ID.
-         * In production, this could use UUID or a distributed ID generator.
+         * Finds a booking that has already been archived.
          * 
-         * @return unique booking ID
+         * @param bookingId the booking ID
+         * @return Optional containing the booking if archived
          */
-        private String generateBookingId() {
-            return "BKG-" + UUID.randomUUID().toString();
+        public Optional<Booking> findArchived(String bookingId) {
+            return archive.findById(bookingId);
         }
 
         /**
-         * Retrieves all bookings in the system.
-         * 
-         * @return list of all bookings
+         * Stops the background ticker.
          */
-        public List<Booking> getAllBookings() {
-            return bookingRepository.findAll();
+        @Override
+        public void close() {
+            ticker.shutdownNow();
         }
     }
-}
\ No newline at end of file
+}
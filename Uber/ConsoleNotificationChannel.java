@@ -0,0 +1,12 @@
+package Uber;
+
+import java.util.List;
+
+public class ConsoleNotificationChannel implements NotificationChannel {
+    @Override
+    public void deliver(List<Notification> batch) {
+        for (Notification notification : batch) {
+            System.out.println(notification.getMessage());
+        }
+    }
+}
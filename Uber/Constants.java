@@ -12,4 +12,8 @@ public class Constants {
     public static enum PaymentStatus {
         PENDING, COMPLETED, FAILED, REFUNDED
     }
+
+    public static enum NotificationAudience {
+        DRIVER, RIDER
+    }
 }
@@ -0,0 +1,232 @@
+package Uber;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import Uber.Constants.VehicleType;
+
+// Deterministic discrete-event simulation of a city. Riders arrive as a
+// Poisson process at the configured QPS (in simulated time), drivers travel
+// at a fixed speed, and every request goes through a real RideService so
+// matching and pricing strategies can be compared on identical demand.
+// Usage: DispatchSimulator [qps] [durationSeconds] [drivers] [nearest|highrated] [surge] [seed]
+public class DispatchSimulator {
+    private static final double MIN_LAT = 12.85;
+    private static final double MIN_LON = 77.45;
+    private static final double LAT_SPAN = 0.25;
+    private static final double LON_SPAN = 0.30;
+    private static final double SPEED_KMPH = 25.0;
+    private static final double MAX_TRIP_DEGREES = 0.05; // ~5 km
+
+    private enum EventType {
+        REQUEST, START, COMPLETE
+    }
+
+    private static class Event implements Comparable<Event> {
+        private final long timeMillis;
+        private final long sequence;
+        private final EventType type;
+        private final Ride ride;
+
+        Event(long timeMillis, long sequence, EventType type, Ride ride) {
+            this.timeMillis = timeMillis;
+            this.sequence = sequence;
+            this.type = type;
+            this.ride = ride;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int byTime = Long.compare(timeMillis, other.timeMillis);
+            return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    private final double qps;
+    private final long durationMillis;
+    private final int driverCount;
+    private final Random random;
+    private final RideService rideService;
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    private final Map<String, Long> busySince = new HashMap<>();
+    private final LatencyHistogram requestLatencyNanos = new LatencyHistogram();
+    private final LatencyHistogram pickupDistanceMeters = new LatencyHistogram();
+    private long sequence;
+    // Simulated time of the event being handled; also the heatmap's clock
+    private long nowMillis;
+    private long requested;
+    private long unserved;
+    private long completed;
+    private long busyMillis;
+    private double totalFare;
+
+    public DispatchSimulator(double qps, long durationSeconds, int driverCount,
+            DriverMatchingStrategy matchingStrategy, PricingStrategy pricingStrategy, long seed) {
+        this.qps = qps;
+        this.durationMillis = durationSeconds * 1000;
+        this.driverCount = driverCount;
+        this.random = new Random(seed);
+
+        NotificationChannel discard = batch -> {
+        };
+        // Demand windows must follow simulated time, or runs would depend on the wall clock
+        this.rideService = new RideService(new NotificationService(discard, discard, 10_000),
+                new SupplyHeatmap(() -> nowMillis));
+        this.rideService.setMatchingStrategy(matchingStrategy);
+        this.rideService.setPricingStrategy(pricingStrategy);
+    }
+
+    public static void main(String[] args) {
+        double qps = args.length > 0 ? Double.parseDouble(args[0]) : 2;
+        long duration = args.length > 1 ? Long.parseLong(args[1]) : 3600;
+        int drivers = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+        String matching = args.length > 3 ? args[3] : "nearest";
+        double surge = args.length > 4 ? Double.parseDouble(args[4]) : 1.0;
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 42;
+
+        DriverMatchingStrategy strategy = "highrated".equalsIgnoreCase(matching)
+                ? new HighRatedDriverMatching()
+                : new NearestDriverMatching();
+        PricingStrategy pricing = surge == 1.0
+                ? new StandardPricing()
+                : new SurgePricing(new StandardPricing(), surge);
+
+        System.out.println("Simulating " + qps + " requests/s for " + duration + " s with " + drivers +
+                " drivers, matching=" + matching + ", surge=" + surge + ", seed=" + seed);
+        new DispatchSimulator(qps, duration, drivers, strategy, pricing, seed).run();
+    }
+
+    public void run() {
+        for (int i = 0; i < driverCount; i++) {
+            Vehicle vehicle = new Vehicle("V" + i, "KA01" + i, VehicleType.SEDAN, "Sedan", "White");
+            Driver driver = new Driver("D" + i, "Driver " + i, "000", "d" + i + "@example.com",
+                    "DL" + i, vehicle);
+            driver.updateLocation(randomLocation());
+            driver.setRating(3.5 + random.nextDouble() * 1.5);
+            rideService.registerDriver(driver);
+        }
+
+        schedule(nextArrival(0), EventType.REQUEST, null);
+        long now = 0;
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            now = event.timeMillis;
+            nowMillis = now;
+            switch (event.type) {
+                case REQUEST:
+                    onRequest(now);
+                    break;
+                case START:
+                    onStart(now, event.ride);
+                    break;
+                case COMPLETE:
+                    onComplete(now, event.ride);
+                    break;
+            }
+        }
+        SupplyHeatmap.Snapshot supply = rideService.getSupplySnapshot();
+        rideService.shutdown();
+        report(now);
+        reportSupply(supply);
+    }
+
+    private void onRequest(long now) {
+        if (now <= durationMillis) {
+            schedule(nextArrival(now), EventType.REQUEST, null);
+        }
+        requested++;
+        Rider rider = new Rider("R" + requested, "Rider " + requested, "000", "r@example.com");
+        Location pickup = randomLocation();
+        Location drop = nearby(pickup);
+
+        Ride ride;
+        long begin = System.nanoTime();
+        try {
+            ride = rideService.requestRide(rider, pickup, drop, VehicleType.SEDAN);
+        } catch (RuntimeException e) {
+            unserved++;
+            return;
+        } finally {
+            requestLatencyNanos.record(System.nanoTime() - begin);
+        }
+
+        Driver driver = ride.getDriver();
+        double pickupKm = driver.getCurrentLocation().distanceTo(pickup);
+        pickupDistanceMeters.record(Math.round(pickupKm * 1000));
+        busySince.put(driver.getId(), now);
+        schedule(now + travelMillis(pickupKm), EventType.START, ride);
+    }
+
+    private void onStart(long now, Ride ride) {
+        rideService.startRide(ride.getRideId());
+        double tripKm = ride.getPickupLocation().distanceTo(ride.getDropLocation());
+        schedule(now + travelMillis(tripKm), EventType.COMPLETE, ride);
+    }
+
+    private void onComplete(long now, Ride ride) {
+        Driver driver = ride.getDriver();
+        rideService.completeRide(ride.getRideId());
+        rideService.updateDriverLocation(driver, ride.getDropLocation());
+        busyMillis += now - busySince.remove(driver.getId());
+        completed++;
+        totalFare += ride.getFare();
+    }
+
+    private void schedule(long timeMillis, EventType type, Ride ride) {
+        events.add(new Event(timeMillis, sequence++, type, ride));
+    }
+
+    private long nextArrival(long now) {
+        // Exponential inter-arrival times give a Poisson arrival process
+        double gapSeconds = -Math.log(1 - random.nextDouble()) / qps;
+        return now + Math.max(1, Math.round(gapSeconds * 1000));
+    }
+
+    private static long travelMillis(double km) {
+        return Math.round(km / SPEED_KMPH * 3_600_000);
+    }
+
+    private Location randomLocation() {
+        return new Location(MIN_LAT + random.nextDouble() * LAT_SPAN,
+                MIN_LON + random.nextDouble() * LON_SPAN);
+    }
+
+    private Location nearby(Location origin) {
+        double lat = origin.getLatitude() + (random.nextDouble() * 2 - 1) * MAX_TRIP_DEGREES;
+        double lon = origin.getLongitude() + (random.nextDouble() * 2 - 1) * MAX_TRIP_DEGREES;
+        return new Location(Math.min(MIN_LAT + LAT_SPAN, Math.max(MIN_LAT, lat)),
+                Math.min(MIN_LON + LON_SPAN, Math.max(MIN_LON, lon)));
+    }
+
+    private static void reportSupply(SupplyHeatmap.Snapshot supply) {
+        System.out.printf("Idle drivers at end: %d across %d cells%n",
+                supply.getTotalAvailableDrivers(), supply.getCells().size());
+        for (SupplyHeatmap.CellStats cell : supply.getMostUndersupplied(3)) {
+            System.out.printf("  undersupplied cell (%.3f, %.3f): %d drivers, %d recent requests%n",
+                    cell.getCenter().getLatitude(), cell.getCenter().getLongitude(),
+                    cell.getAvailableDrivers(), cell.getRecentRequests());
+        }
+    }
+
+    private void report(long endMillis) {
+        System.out.printf("Requests: %d, served: %d (%.1f%%), completed: %d%n",
+                requested, requested - unserved,
+                requested == 0 ? 0 : 100.0 * (requested - unserved) / requested, completed);
+        System.out.printf("requestRide latency (us): mean %.1f, p50 %.1f, p95 %.1f, p99 %.1f, max %.1f%n",
+                requestLatencyNanos.getMean() / 1000.0,
+                requestLatencyNanos.percentile(50) / 1000.0,
+                requestLatencyNanos.percentile(95) / 1000.0,
+                requestLatencyNanos.percentile(99) / 1000.0,
+                requestLatencyNanos.getMax() / 1000.0);
+        System.out.printf("Pickup distance (km): mean %.2f, p50 %.2f, p95 %.2f%n",
+                pickupDistanceMeters.getMean() / 1000.0,
+                pickupDistanceMeters.percentile(50) / 1000.0,
+                pickupDistanceMeters.percentile(95) / 1000.0);
+        double utilization = endMillis == 0 ? 0 : 100.0 * busyMillis / ((double) driverCount * endMillis);
+        System.out.printf("Driver utilization: %.1f%%, average fare: %.2f%n",
+                utilization, completed == 0 ? 0 : totalFare / completed);
+    }
+}
@@ -1,23 +1,22 @@
 package Uber;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class Driver extends User {
     private String licenseNumber;
     private Vehicle vehicle;
     private Location currentLocation;
-    private boolean available;
-    private List<Ride> rideHistory;
-    private double rating;
+    private final AtomicBoolean available;
+    private final RideHistory rideHistory;
+    private volatile double rating;
 
     public Driver(String id, String name, String phone, String email,
             String licenseNumber, Vehicle vehicle) {
         super(id, name, phone, email);
         this.licenseNumber = licenseNumber;
         this.vehicle = vehicle;
-        this.available = true;
-        this.rideHistory = new ArrayList<>();
+        this.available = new AtomicBoolean(true);
+        this.rideHistory = new RideHistory(id);
         this.rating = 5.0;
     }
 
@@ -26,11 +25,16 @@ public class Driver extends User {
     }
 
     public boolean isAvailable() {
-        return available;
+        return available.get();
     }
 
     public void setAvailable(boolean available) {
-        this.available = available;
+        this.available.set(available);
+    }
+
+    // Claims the driver for a ride; only one concurrent caller can win
+    public boolean tryReserve() {
+        return available.compareAndSet(true, false);
     }
 
     public Location getCurrentLocation() {
@@ -50,6 +54,10 @@ public class Driver extends User {
     }
 
     public void addRide(Ride ride) {
-        rideHistory.add(ride);
+        rideHistory.add(RideRecord.of(ride));
+    }
+
+    public RideHistory getRideHistory() {
+        return rideHistory;
     }
 }
\ No newline at end of file
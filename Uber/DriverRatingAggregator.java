@@ -0,0 +1,100 @@
+package Uber;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Keeps running rating aggregates per driver so readers never scan ride history.
+// Lifetime sum/count use striped LongAdders; the time-decayed average is an
+// immutable state swapped with CAS, so concurrent ratings never block each other.
+public class DriverRatingAggregator {
+    private static final long DEFAULT_HALF_LIFE_MILLIS = TimeUnit.DAYS.toMillis(30);
+
+    private final Map<String, DriverRatingStats> stats;
+    private final double decayPerMilli;
+    private final LongSupplier clock;
+
+    public DriverRatingAggregator() {
+        this(DEFAULT_HALF_LIFE_MILLIS, System::currentTimeMillis);
+    }
+
+    public DriverRatingAggregator(long halfLifeMillis, LongSupplier clock) {
+        if (halfLifeMillis <= 0) {
+            throw new IllegalArgumentException("halfLifeMillis must be positive");
+        }
+        this.stats = new ConcurrentHashMap<>();
+        this.decayPerMilli = Math.log(2) / halfLifeMillis;
+        this.clock = clock;
+    }
+
+    public void record(String driverId, int rating) {
+        stats.computeIfAbsent(driverId, id -> new DriverRatingStats()).add(rating, clock.getAsLong());
+    }
+
+    public long getCount(String driverId) {
+        DriverRatingStats s = stats.get(driverId);
+        return s == null ? 0 : s.count.sum();
+    }
+
+    // Lifetime average, or the fallback if the driver has no ratings yet
+    public double getAverage(String driverId, double fallback) {
+        DriverRatingStats s = stats.get(driverId);
+        if (s == null) {
+            return fallback;
+        }
+        long count = s.count.sum();
+        return count == 0 ? fallback : (double) s.sum.sum() / count;
+    }
+
+    // Exponentially decayed average where recent ratings weigh more
+    public double getDecayedAverage(String driverId, double fallback) {
+        DriverRatingStats s = stats.get(driverId);
+        if (s == null) {
+            return fallback;
+        }
+        DecayState state = s.decayed.get();
+        return state.weight == 0 ? fallback : state.weightedSum / state.weight;
+    }
+
+    private class DriverRatingStats {
+        private final LongAdder sum = new LongAdder();
+        private final LongAdder count = new LongAdder();
+        private final AtomicReference<DecayState> decayed = new AtomicReference<>(new DecayState(0, 0, 0));
+
+        void add(int rating, long now) {
+            sum.add(rating);
+            count.increment();
+            DecayState current;
+            DecayState next;
+            do {
+                current = decayed.get();
+                next = current.add(rating, now, decayPerMilli);
+            } while (!decayed.compareAndSet(current, next));
+        }
+    }
+
+    private static class DecayState {
+        private final double weightedSum;
+        private final double weight;
+        private final long lastUpdateMillis;
+
+        DecayState(double weightedSum, double weight, long lastUpdateMillis) {
+            this.weightedSum = weightedSum;
+            this.weight = weight;
+            this.lastUpdateMillis = lastUpdateMillis;
+        }
+
+        DecayState add(int rating, long now, double decayPerMilli) {
+            if (now >= lastUpdateMillis) {
+                double factor = Math.exp(-decayPerMilli * (now - lastUpdateMillis));
+                return new DecayState(weightedSum * factor + rating, weight * factor + 1, now);
+            }
+            // A rating stamped slightly in the past decays itself instead of the history
+            double factor = Math.exp(-decayPerMilli * (lastUpdateMillis - now));
+            return new DecayState(weightedSum + rating * factor, weight + factor, lastUpdateMillis);
+        }
+    }
+}
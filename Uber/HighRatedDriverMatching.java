@@ -5,12 +5,30 @@ import java.util.List;
 import Uber.Constants.VehicleType;
 
 public class HighRatedDriverMatching implements DriverMatchingStrategy {
+    private final DriverRatingAggregator ratingAggregator;
+
+    public HighRatedDriverMatching() {
+        this(null);
+    }
+
+    // With an aggregator, ratings come from its running aggregates instead of Driver.rating
+    public HighRatedDriverMatching(DriverRatingAggregator ratingAggregator) {
+        this.ratingAggregator = ratingAggregator;
+    }
+
     @Override
     public Driver findDriver(List<Driver> drivers, Location pickup, VehicleType type) {
         return drivers.stream()
                 .filter(d -> d.isAvailable() && d.getVehicle().getType() == type)
                 .filter(d -> d.getCurrentLocation().distanceTo(pickup) < 5.0) // within 5km
-                .max((d1, d2) -> Double.compare(d1.getRating(), d2.getRating()))
+                .max((d1, d2) -> Double.compare(ratingOf(d1), ratingOf(d2)))
                 .orElse(null);
     }
+
+    private double ratingOf(Driver driver) {
+        if (ratingAggregator == null) {
+            return driver.getRating();
+        }
+        return ratingAggregator.getDecayedAverage(driver.getId(), driver.getRating());
+    }
 }
\ No newline at end of file
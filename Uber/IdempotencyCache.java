@@ -0,0 +1,98 @@
+package Uber;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Recent request results by idempotency key, bounded in size and age.
+// Every entry has the same TTL, so insertion order is also expiry order and
+// eviction just pops the head of a FIFO queue. Entries removed early stay in
+// the queue until they reach the head but no longer count toward the bound.
+public class IdempotencyCache<T> {
+    private final Map<String, Entry<T>> entries;
+    private final Queue<Entry<T>> insertionOrder;
+    private final AtomicInteger live;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public IdempotencyCache(long ttlNanos, int maxEntries) {
+        this.entries = new ConcurrentHashMap<>();
+        this.insertionOrder = new ConcurrentLinkedQueue<>();
+        this.live = new AtomicInteger();
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    private static class Entry<T> {
+        private final String key;
+        private final CompletableFuture<T> result;
+        private final long expiresAtNanos;
+
+        Entry(String key, CompletableFuture<T> result, long expiresAtNanos) {
+            this.key = key;
+            this.result = result;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    public CompletableFuture<T> get(String key, long nowNanos) {
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos - nowNanos <= 0) {
+            discard(entry);
+            return null;
+        }
+        return entry.result;
+    }
+
+    // Returns the future already registered for the key, or null if `result` was registered
+    public CompletableFuture<T> putIfAbsent(String key, CompletableFuture<T> result, long nowNanos) {
+        Entry<T> entry = new Entry<>(key, result, nowNanos + ttlNanos);
+        while (true) {
+            Entry<T> existing = entries.putIfAbsent(key, entry);
+            if (existing == null) {
+                insertionOrder.add(entry);
+                live.incrementAndGet();
+                evict(nowNanos);
+                return null;
+            }
+            if (existing.expiresAtNanos - nowNanos > 0) {
+                return existing.result;
+            }
+            discard(existing);
+        }
+    }
+
+    public void remove(String key, CompletableFuture<T> result) {
+        Entry<T> entry = entries.get(key);
+        if (entry != null && entry.result == result) {
+            discard(entry);
+        }
+    }
+
+    private void discard(Entry<T> entry) {
+        if (entries.remove(entry.key, entry)) {
+            live.decrementAndGet();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long nowNanos) {
+        Entry<T> head;
+        while ((head = insertionOrder.peek()) != null
+                && (head.expiresAtNanos - nowNanos <= 0 || live.get() > maxEntries)) {
+            // Entries already removed were uncounted then, so popping them frees nothing
+            if (insertionOrder.remove(head)) {
+                discard(head);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package Uber;
+
+import Uber.Constants.NotificationAudience;
+import Uber.Constants.RideStatus;
+
+// Immutable notification captured at enqueue time so later ride updates don't leak in
+public class Notification {
+    private final NotificationAudience audience;
+    private final String recipientId;
+    private final String recipientName;
+    private final String rideId;
+    private final RideStatus status;
+    private final long enqueuedAtNanos;
+
+    public Notification(NotificationAudience audience, User recipient, Ride ride) {
+        this.audience = audience;
+        this.recipientId = recipient.getId();
+        this.recipientName = recipient.getName();
+        this.rideId = ride.getRideId();
+        this.status = ride.getStatus();
+        this.enqueuedAtNanos = System.nanoTime();
+    }
+
+    // Notifications for the same recipient and ride supersede each other
+    public String coalescingKey() {
+        return recipientId + ":" + rideId;
+    }
+
+    public String getMessage() {
+        if (audience == NotificationAudience.DRIVER) {
+            return "Notifying driver " + recipientName + " about ride " + rideId;
+        }
+        return "Notifying rider " + recipientName + " about ride " + rideId +
+                " - Status: " + status;
+    }
+
+    public NotificationAudience getAudience() {
+        return audience;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public String getRideId() {
+        return rideId;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public long getEnqueuedAtNanos() {
+        return enqueuedAtNanos;
+    }
+}
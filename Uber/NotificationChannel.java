@@ -0,0 +1,7 @@
+package Uber;
+
+import java.util.List;
+
+public interface NotificationChannel {
+    void deliver(List<Notification> batch);
+}
@@ -1,14 +1,158 @@
 package Uber;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import Uber.Constants.NotificationAudience;
+
+// Notifications are queued and delivered off the booking path by a background dispatcher
 public class NotificationService {
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int MAX_BATCH_SIZE = 256;
+    private static final long POLL_TIMEOUT_MILLIS = 50;
+
+    private final BlockingQueue<Notification> queue;
+    private final NotificationChannel driverChannel;
+    private final NotificationChannel riderChannel;
+    private final Thread dispatcher;
+    private volatile boolean running;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public NotificationService() {
+        this(new ConsoleNotificationChannel(), new ConsoleNotificationChannel(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public NotificationService(NotificationChannel driverChannel, NotificationChannel riderChannel,
+            int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.driverChannel = driverChannel;
+        this.riderChannel = riderChannel;
+        this.running = true;
+        this.dispatcher = new Thread(this::drain, "notification-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
     public void notifyDriver(Driver driver, Ride ride) {
-        System.out.println("Notifying driver " + driver.getName() +
-                " about ride " + ride.getRideId());
+        enqueue(new Notification(NotificationAudience.DRIVER, driver, ride));
     }
 
     public void notifyRider(Rider rider, Ride ride) {
-        System.out.println("Notifying rider " + rider.getName() +
-                " about ride " + ride.getRideId() +
-                " - Status: " + ride.getStatus());
+        enqueue(new Notification(NotificationAudience.RIDER, rider, ride));
+    }
+
+    private void enqueue(Notification notification) {
+        // When the queue is full (or we are shut down) the caller delivers
+        // itself, which slows producers down instead of dropping messages
+        if (!running || !queue.offer(notification)) {
+            dispatch(List.of(notification));
+        }
+    }
+
+    private void drain() {
+        List<Notification> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Notification delivery failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<Notification> batch) {
+        Map<String, Notification> toDrivers = new LinkedHashMap<>();
+        Map<String, Notification> toRiders = new LinkedHashMap<>();
+        for (Notification notification : batch) {
+            Map<String, Notification> target = notification.getAudience() == NotificationAudience.DRIVER
+                    ? toDrivers
+                    : toRiders;
+            // A later status update for the same ride replaces the earlier one
+            if (target.put(notification.coalescingKey(), notification) != null) {
+                coalesced.increment();
+            }
+        }
+        deliver(driverChannel, toDrivers);
+        deliver(riderChannel, toRiders);
+    }
+
+    private void deliver(NotificationChannel channel, Map<String, Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<Notification> batch = new ArrayList<>(notifications.values());
+        // Each channel fails on its own, so a driver outage never costs riders their updates
+        try {
+            channel.deliver(batch);
+        } catch (RuntimeException e) {
+            System.err.println("Notification delivery failed: " + e.getMessage());
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Notification notification : batch) {
+            long latency = now - notification.getEnqueuedAtNanos();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+        delivered.add(batch.size());
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything enqueued while the dispatcher was exiting is delivered here
+        List<Notification> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            dispatch(leftover);
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public double getAverageDeliveryLatencyMillis() {
+        long count = delivered.sum();
+        return count == 0 ? 0.0 : totalLatencyNanos.sum() / (count * 1_000_000.0);
+    }
+
+    public double getMaxDeliveryLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
     }
-}
\ No newline at end of file
+}
@@ -6,14 +6,19 @@ import Uber.Constants.PaymentStatus;
 
 public class Payment {
     private String paymentId;
-    private Ride ride;
+    private String rideId;
     private double amount;
-    private PaymentStatus status;
+    private volatile PaymentStatus status;
     private LocalDateTime timestamp;
 
     public Payment(String paymentId, Ride ride, double amount) {
+        this(paymentId, ride.getRideId(), amount);
+    }
+
+    // Used when payments are restored from the settlement outbox
+    public Payment(String paymentId, String rideId, double amount) {
         this.paymentId = paymentId;
-        this.ride = ride;
+        this.rideId = rideId;
         this.amount = amount;
         this.status = PaymentStatus.PENDING;
         this.timestamp = LocalDateTime.now();
@@ -24,7 +29,27 @@ public class Payment {
         this.status = PaymentStatus.COMPLETED;
     }
 
+    public void markFailed() {
+        this.status = PaymentStatus.FAILED;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getRideId() {
+        return rideId;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
     public PaymentStatus getStatus() {
         return status;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,9 @@
+package Uber;
+
+import java.util.List;
+
+// Settles a batch of payments. Implementations must treat the payment id as
+// an idempotency key: after a crash a batch may be sent again.
+public interface PaymentGateway {
+    void settle(List<Payment> batch);
+}
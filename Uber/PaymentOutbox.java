@@ -0,0 +1,160 @@
+package Uber;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// Append-only journal of payments awaiting settlement, one line per event:
+//   P|paymentId|rideId|amount|crc   payment accepted
+//   S|paymentId|crc                 settled by the gateway
+//   F|paymentId|crc                 dead-lettered after retries; still owed
+// crc is the CRC32 (hex) of everything before it on the line. Every append is
+// forced to disk before returning, so a payment that was acknowledged is
+// either settled or replayed on the next start; only S resolves a payment.
+public class PaymentOutbox implements Closeable {
+    private final Path file;
+    private final ReentrantLock lock;
+    private FileChannel channel;
+
+    public PaymentOutbox(Path file) throws IOException {
+        this.file = file;
+        this.lock = new ReentrantLock();
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = openForAppend(file);
+    }
+
+    // Returns payments that were accepted but never settled, dead-lettered ones
+    // included, and compacts the file down to just those records
+    public List<Payment> recover() throws IOException {
+        lock.lock();
+        try {
+            Map<String, Payment> pending = new LinkedHashMap<>();
+            String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            // Whatever follows the last newline is a record torn by a crash mid-write.
+            // It was never forced to disk in full, so it was never acknowledged.
+            int end = text.lastIndexOf('\n') + 1;
+            int skipped = 0;
+            try {
+                for (String line : text.substring(0, end).split("\n")) {
+                    String[] parts = line.isEmpty() ? new String[0] : unframe(line);
+                    if (parts == null) {
+                        // Unforced pages can reach the disk out of order; such records were never acknowledged
+                        skipped++;
+                    } else if (parts.length == 4 && parts[0].equals("P")) {
+                        pending.put(parts[1], new Payment(parts[1], parts[2], Double.parseDouble(parts[3])));
+                    } else if (parts.length == 2 && parts[0].equals("S")) {
+                        pending.remove(parts[1]);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                throw new IOException("Corrupt payment outbox " + file, e);
+            }
+            if (skipped > 0) {
+                System.err.println("Skipped " + skipped + " payment outbox record(s) failing their checksum");
+            }
+
+            Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+                for (Payment payment : pending.values()) {
+                    writer.write(pendingRecord(payment));
+                }
+            }
+            try (FileChannel sync = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+                sync.force(true);
+            }
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = openForAppend(file);
+            return new ArrayList<>(pending.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void appendPending(List<Payment> batch) throws IOException {
+        StringBuilder records = new StringBuilder(batch.size() * 64);
+        for (Payment payment : batch) {
+            records.append(pendingRecord(payment));
+        }
+        append(records);
+    }
+
+    public void appendOutcome(List<Payment> batch, boolean settled) throws IOException {
+        StringBuilder records = new StringBuilder(batch.size() * 40);
+        for (Payment payment : batch) {
+            records.append(frame((settled ? "S|" : "F|") + payment.getPaymentId()));
+        }
+        append(records);
+    }
+
+    // One write + one fsync per batch: this is where group commit pays off
+    private void append(CharSequence records) throws IOException {
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(records.toString());
+        lock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String pendingRecord(Payment payment) {
+        return frame("P|" + payment.getPaymentId() + "|" + payment.getRideId() + "|" + payment.getAmount());
+    }
+
+    private static String frame(String record) {
+        return record + "|" + Long.toHexString(checksum(record)) + "\n";
+    }
+
+    // Splits a line into its fields, or returns null if its checksum doesn't match
+    private static String[] unframe(String line) {
+        int split = line.lastIndexOf('|');
+        if (split < 0) {
+            return null;
+        }
+        String record = line.substring(0, split);
+        if (!Long.toHexString(checksum(record)).equals(line.substring(split + 1))) {
+            return null;
+        }
+        return record.split("\\|");
+    }
+
+    private static long checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static FileChannel openForAppend(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package Uber;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Two-stage settlement pipeline:
+//   journal: batches submitted payments into the outbox (one fsync per batch)
+//            and acknowledges them once durable
+//   settle:  sends durable payments to the gateway in batches, retrying with
+//            exponential backoff, and records the outcome in the outbox
+// Payments left unresolved by a crash are recovered from the outbox on start.
+// A batch that exhausts its retries is dead-lettered: it counts as failed but
+// stays owed in the outbox, so the next start sends it again.
+public class PaymentSettlementPipeline implements AutoCloseable {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int INTAKE_CAPACITY = 50_000;
+    private static final long POLL_TIMEOUT_MILLIS = 20;
+
+    private final PaymentOutbox outbox;
+    private final PaymentGateway gateway;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private final BlockingQueue<Submission> intake;
+    private final BlockingQueue<Payment> durable;
+    private final Thread journalThread;
+    private final Thread settlerThread;
+    private volatile boolean accepting;
+    private volatile boolean closing;
+
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    private static class Submission {
+        private final Payment payment;
+        private final CompletableFuture<Void> durable;
+
+        Submission(Payment payment) {
+            this.payment = payment;
+            this.durable = new CompletableFuture<>();
+        }
+    }
+
+    public PaymentSettlementPipeline(PaymentOutbox outbox, PaymentGateway gateway) throws IOException {
+        this(outbox, gateway, 5, 50, 5_000);
+    }
+
+    public PaymentSettlementPipeline(PaymentOutbox outbox, PaymentGateway gateway, int maxAttempts,
+            long baseBackoffMillis, long maxBackoffMillis) throws IOException {
+        this.outbox = outbox;
+        this.gateway = gateway;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.intake = new ArrayBlockingQueue<>(INTAKE_CAPACITY);
+        this.durable = new LinkedBlockingQueue<>(outbox.recover());
+        this.accepting = true;
+
+        this.journalThread = new Thread(this::journalLoop, "payment-journal");
+        this.settlerThread = new Thread(this::settleLoop, "payment-settler");
+        journalThread.setDaemon(true);
+        settlerThread.setDaemon(true);
+        journalThread.start();
+        settlerThread.start();
+    }
+
+    // Completes once the payment is durable in the outbox; blocks while the intake is full
+    public CompletableFuture<Void> submitAsync(Payment payment) {
+        if (!accepting) {
+            throw new IllegalStateException("Settlement pipeline is closed");
+        }
+        Submission submission = new Submission(payment);
+        try {
+            intake.put(submission);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            submission.durable.completeExceptionally(e);
+        }
+        return submission.durable;
+    }
+
+    public void submit(Payment payment) {
+        try {
+            submitAsync(payment).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Payment " + payment.getPaymentId() + " was not recorded",
+                    e.getCause());
+        }
+    }
+
+    private void journalLoop() {
+        List<Submission> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        List<Payment> payments = new ArrayList<>(MAX_BATCH_SIZE);
+        while (accepting || !intake.isEmpty()) {
+            try {
+                Submission first = intake.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                intake.drainTo(batch, MAX_BATCH_SIZE - 1);
+                for (Submission submission : batch) {
+                    payments.add(submission.payment);
+                }
+                try {
+                    outbox.appendPending(payments);
+                } catch (IOException e) {
+                    batch.forEach(s -> s.durable.completeExceptionally(new UncheckedIOException(e)));
+                    continue;
+                }
+                durable.addAll(payments);
+                batch.forEach(s -> s.durable.complete(null));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+                payments.clear();
+            }
+        }
+    }
+
+    private void settleLoop() {
+        List<Payment> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (journalThread.isAlive() || !durable.isEmpty()) {
+            try {
+                Payment first = durable.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                durable.drainTo(batch, MAX_BATCH_SIZE - 1);
+                if (!settleWithRetry(batch)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Returns false if the pipeline closed mid-retry; the batch then stays
+    // pending in the outbox and is picked up again on the next start
+    private boolean settleWithRetry(List<Payment> batch) throws InterruptedException {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                gateway.settle(batch);
+                batch.forEach(Payment::processPayment);
+                recordOutcome(batch, true);
+                settled.add(batch.size());
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt == maxAttempts) {
+                    break;
+                }
+                if (closing) {
+                    return false;
+                }
+                retries.increment();
+                Thread.sleep(backoffMillis(attempt));
+            }
+        }
+        // Dead-lettered, not dropped: the outbox keeps the batch owed until a later start settles it
+        batch.forEach(Payment::markFailed);
+        recordOutcome(batch, false);
+        failed.add(batch.size());
+        return true;
+    }
+
+    private long backoffMillis(int attempt) {
+        long exponential = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt - 1, 20));
+        // Full jitter keeps retries from many batches from lining up
+        return ThreadLocalRandom.current().nextLong(exponential / 2, exponential + 1);
+    }
+
+    private void recordOutcome(List<Payment> batch, boolean success) {
+        try {
+            outbox.appendOutcome(batch, success);
+        } catch (IOException e) {
+            // Without the outcome record the batch is replayed after restart;
+            // the gateway dedupes by payment id
+            System.err.println("Could not record settlement outcome: " + e.getMessage());
+        }
+    }
+
+    public long getSettledCount() {
+        return settled.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    public int getBacklog() {
+        return intake.size() + durable.size();
+    }
+
+    // Stops accepting, makes everything submitted durable, and lets the settler
+    // drain; anything still unsettled stays pending in the outbox
+    @Override
+    public void close() throws IOException {
+        accepting = false;
+        try {
+            journalThread.join();
+            closing = true;
+            settlerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        outbox.close();
+    }
+}
@@ -0,0 +1,147 @@
+package Uber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import Uber.Constants.VehicleType;
+
+// Fits new pooled requests into routes that are already moving. Candidate
+// routes are evaluated in parallel with fork/join; the winning insertion is
+// committed with CAS and re-evaluated if the route changed meanwhile.
+public class PooledRideMatcher {
+    private static final int DEFAULT_SEAT_CAPACITY = 3;
+    private static final int MAX_COMMIT_ATTEMPTS = 3;
+
+    private final Map<String, PooledRoute> routes;
+    private final double maxDetourKm;
+    private final double searchRadiusKm;
+    private final int parallelThreshold;
+    private final ForkJoinPool pool;
+
+    public PooledRideMatcher() {
+        this(2.0, 3.0, 256);
+    }
+
+    public PooledRideMatcher(double maxDetourKm, double searchRadiusKm, int parallelThreshold) {
+        this.routes = new ConcurrentHashMap<>();
+        this.maxDetourKm = maxDetourKm;
+        this.searchRadiusKm = searchRadiusKm;
+        this.parallelThreshold = parallelThreshold;
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    public PooledRoute.Insertion findBestInsertion(Location pickup, Location drop, VehicleType type) {
+        List<PooledRoute> candidates = new ArrayList<>(routes.values());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        return pool.invoke(new InsertionSearch(candidates, 0, candidates.size(), pickup, drop, type));
+    }
+
+    // Returns the driver whose route absorbed the ride, or null if none fits
+    public Driver tryInsert(Ride ride) {
+        for (int attempt = 0; attempt < MAX_COMMIT_ATTEMPTS; attempt++) {
+            PooledRoute.Insertion best = findBestInsertion(ride.getPickupLocation(),
+                    ride.getDropLocation(), ride.getVehicleType());
+            if (best == null) {
+                return null;
+            }
+            if (best.getRoute().commit(best, ride.getRideId(), ride.getPickupLocation(),
+                    ride.getDropLocation())) {
+                return best.getRoute().getDriver();
+            }
+        }
+        return null;
+    }
+
+    // Starts a pooled route for a driver that was just reserved for this ride
+    public void openRoute(Driver driver, Ride ride) {
+        PooledRoute route = new PooledRoute(driver, DEFAULT_SEAT_CAPACITY);
+        route.open(ride.getRideId(), ride.getPickupLocation(), ride.getDropLocation());
+        routes.put(driver.getId(), route);
+    }
+
+    public void onPickedUp(Ride ride) {
+        PooledRoute route = routes.get(ride.getDriver().getId());
+        if (route != null) {
+            route.pickedUp(ride.getRideId());
+        }
+    }
+
+    // Returns true if the driver still has pooled riders after this one leaves
+    public boolean onDropped(Ride ride) {
+        String driverId = ride.getDriver().getId();
+        PooledRoute route = routes.get(driverId);
+        if (route == null) {
+            return false;
+        }
+        if (route.dropped(ride.getRideId())) {
+            routes.remove(driverId, route);
+            return false;
+        }
+        return true;
+    }
+
+    public int getActiveRouteCount() {
+        return routes.size();
+    }
+
+    @SuppressWarnings("serial") // never serialized; RecursiveTask is Serializable by inheritance
+    private class InsertionSearch extends RecursiveTask<PooledRoute.Insertion> {
+        private final List<PooledRoute> candidates;
+        private final int from;
+        private final int to;
+        private final Location pickup;
+        private final Location drop;
+        private final VehicleType type;
+
+        InsertionSearch(List<PooledRoute> candidates, int from, int to, Location pickup,
+                Location drop, VehicleType type) {
+            this.candidates = candidates;
+            this.from = from;
+            this.to = to;
+            this.pickup = pickup;
+            this.drop = drop;
+            this.type = type;
+        }
+
+        @Override
+        protected PooledRoute.Insertion compute() {
+            if (to - from <= parallelThreshold) {
+                PooledRoute.Insertion best = null;
+                for (int i = from; i < to; i++) {
+                    best = better(best, evaluate(candidates.get(i)));
+                }
+                return best;
+            }
+            int mid = (from + to) >>> 1;
+            InsertionSearch left = new InsertionSearch(candidates, from, mid, pickup, drop, type);
+            left.fork();
+            PooledRoute.Insertion right = new InsertionSearch(candidates, mid, to, pickup, drop, type).compute();
+            return better(left.join(), right);
+        }
+
+        private PooledRoute.Insertion evaluate(PooledRoute route) {
+            Driver driver = route.getDriver();
+            if (driver.getVehicle().getType() != type
+                    || driver.getCurrentLocation().distanceTo(pickup) > searchRadiusKm) {
+                return null;
+            }
+            return route.bestInsertion(pickup, drop, maxDetourKm);
+        }
+
+        private PooledRoute.Insertion better(PooledRoute.Insertion a, PooledRoute.Insertion b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return a.getAddedKm() <= b.getAddedKm() ? a : b;
+        }
+    }
+}
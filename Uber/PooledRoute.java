@@ -0,0 +1,228 @@
+package Uber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Ordered pickup/drop stops of one pooled vehicle. The stop list is immutable
+// and replaced with CAS, so insertion search can read it without locking.
+public class PooledRoute {
+    private final Driver driver;
+    private final int seatCapacity;
+    private final AtomicReference<State> state;
+
+    public PooledRoute(Driver driver, int seatCapacity) {
+        this.driver = driver;
+        this.seatCapacity = seatCapacity;
+        this.state = new AtomicReference<>(new State(Collections.emptyList(), 0, false));
+    }
+
+    public static class Stop {
+        private final String rideId;
+        private final Location location;
+        private final boolean pickup;
+
+        public Stop(String rideId, Location location, boolean pickup) {
+            this.rideId = rideId;
+            this.location = location;
+            this.pickup = pickup;
+        }
+
+        public String getRideId() {
+            return rideId;
+        }
+
+        public Location getLocation() {
+            return location;
+        }
+
+        public boolean isPickup() {
+            return pickup;
+        }
+    }
+
+    // Snapshot of the route; onBoard counts riders already picked up
+    static class State {
+        final List<Stop> stops;
+        final int onBoard;
+        final boolean closed;
+
+        State(List<Stop> stops, int onBoard, boolean closed) {
+            this.stops = stops;
+            this.onBoard = onBoard;
+            this.closed = closed;
+        }
+    }
+
+    // Cheapest way to fit a new rider into a route snapshot
+    public static class Insertion {
+        private final PooledRoute route;
+        private final State snapshot;
+        private final int pickupIndex;
+        private final int dropIndex;
+        private final double addedKm;
+        private final double detourKm;
+
+        Insertion(PooledRoute route, State snapshot, int pickupIndex, int dropIndex, double addedKm,
+                double detourKm) {
+            this.route = route;
+            this.snapshot = snapshot;
+            this.pickupIndex = pickupIndex;
+            this.dropIndex = dropIndex;
+            this.addedKm = addedKm;
+            this.detourKm = detourKm;
+        }
+
+        public PooledRoute getRoute() {
+            return route;
+        }
+
+        // Extra distance the whole route drives to serve the new rider
+        public double getAddedKm() {
+            return addedKm;
+        }
+
+        // Extra distance imposed on riders already on the route
+        public double getDetourKm() {
+            return detourKm;
+        }
+    }
+
+    public Driver getDriver() {
+        return driver;
+    }
+
+    public List<Stop> getStops() {
+        return state.get().stops;
+    }
+
+    public boolean isClosed() {
+        return state.get().closed;
+    }
+
+    // Tries every (pickup, drop) position pair: O(n^2) with n tiny (2 x seats).
+    // Point 0 is the driver's position, point k is stop k-1; a stop inserted
+    // "after point i" goes between point i and point i+1.
+    public Insertion bestInsertion(Location pickup, Location drop, double maxDetourKm) {
+        State snapshot = state.get();
+        if (snapshot.closed) {
+            return null;
+        }
+        List<Stop> stops = snapshot.stops;
+        int n = stops.size();
+        Location[] points = new Location[n + 1];
+        int[] occupancy = new int[n + 1];
+        double[] drivenKm = new double[n + 1];
+        points[0] = driver.getCurrentLocation();
+        occupancy[0] = snapshot.onBoard;
+        for (int k = 1; k <= n; k++) {
+            Stop stop = stops.get(k - 1);
+            points[k] = stop.location;
+            occupancy[k] = occupancy[k - 1] + (stop.pickup ? 1 : -1);
+            drivenKm[k] = drivenKm[k - 1] + points[k - 1].distanceTo(points[k]);
+        }
+        double directKm = points[0].distanceTo(pickup);
+
+        // Cheapest total added distance whose detour for riders already on the
+        // route stays within the limit. Stops appended after the last existing
+        // stop don't delay anyone, so only insertions before it count as detour.
+        // The new rider's own wait is bounded the same way: the route may reach
+        // the pickup at most maxDetourKm later than driving there directly, so
+        // a rider is never simply queued behind everyone already on the route.
+        double bestCost = Double.MAX_VALUE;
+        double bestDetour = 0;
+        int bestPickup = -1;
+        int bestDrop = -1;
+        for (int i = 0; i <= n; i++) {
+            if (occupancy[i] >= seatCapacity) {
+                continue;
+            }
+            if (drivenKm[i] + points[i].distanceTo(pickup) - directKm > maxDetourKm) {
+                break; // later pickups only wait longer
+            }
+            double pickupCost = insertionCost(points, i, pickup);
+            for (int j = i; j <= n; j++) {
+                if (j > i && occupancy[j] >= seatCapacity) {
+                    break; // the new rider would be on board through a full segment
+                }
+                double cost;
+                double detour;
+                if (i == j) {
+                    cost = points[i].distanceTo(pickup) + pickup.distanceTo(drop)
+                            + (i < n ? drop.distanceTo(points[i + 1]) - points[i].distanceTo(points[i + 1]) : 0);
+                    detour = i < n ? cost : 0;
+                } else {
+                    double dropCost = insertionCost(points, j, drop);
+                    cost = pickupCost + dropCost;
+                    detour = pickupCost + (j < n ? dropCost : 0);
+                }
+                if (detour <= maxDetourKm && cost < bestCost) {
+                    bestCost = cost;
+                    bestDetour = detour;
+                    bestPickup = i;
+                    bestDrop = j;
+                }
+            }
+        }
+        if (bestPickup < 0) {
+            return null;
+        }
+        return new Insertion(this, snapshot, bestPickup, bestDrop, bestCost, bestDetour);
+    }
+
+    private static double insertionCost(Location[] points, int after, Location location) {
+        double cost = points[after].distanceTo(location);
+        if (after + 1 < points.length) {
+            cost += location.distanceTo(points[after + 1]) - points[after].distanceTo(points[after + 1]);
+        }
+        return cost;
+    }
+
+    // Applies the insertion only if the route hasn't changed since it was evaluated
+    public boolean commit(Insertion insertion, String rideId, Location pickup, Location drop) {
+        State snapshot = insertion.snapshot;
+        List<Stop> next = new ArrayList<>(snapshot.stops.size() + 2);
+        next.addAll(snapshot.stops);
+        next.add(insertion.pickupIndex, new Stop(rideId, pickup, true));
+        next.add(insertion.dropIndex + 1, new Stop(rideId, drop, false));
+        return state.compareAndSet(snapshot,
+                new State(Collections.unmodifiableList(next), snapshot.onBoard, false));
+    }
+
+    public void open(String rideId, Location pickup, Location drop) {
+        List<Stop> stops = List.of(new Stop(rideId, pickup, true), new Stop(rideId, drop, false));
+        state.set(new State(stops, 0, false));
+    }
+
+    public void pickedUp(String rideId) {
+        State current;
+        State next;
+        do {
+            current = state.get();
+            List<Stop> stops = new ArrayList<>(current.stops);
+            if (!stops.removeIf(s -> s.pickup && s.rideId.equals(rideId))) {
+                return;
+            }
+            next = new State(Collections.unmodifiableList(stops), current.onBoard + 1, current.closed);
+        } while (!state.compareAndSet(current, next));
+    }
+
+    // Removes the ride's stops; closes the route once nobody is left. Returns true if closed.
+    public boolean dropped(String rideId) {
+        State current;
+        State next;
+        do {
+            current = state.get();
+            if (current.stops.stream().noneMatch(s -> s.rideId.equals(rideId))) {
+                return current.closed;
+            }
+            List<Stop> stops = new ArrayList<>(current.stops);
+            boolean wasOnBoard = stops.stream().noneMatch(s -> s.pickup && s.rideId.equals(rideId));
+            stops.removeIf(s -> s.rideId.equals(rideId));
+            int onBoard = wasOnBoard ? current.onBoard - 1 : current.onBoard;
+            next = new State(Collections.unmodifiableList(stops), onBoard, stops.isEmpty());
+        } while (!state.compareAndSet(current, next));
+        return next.closed;
+    }
+}
@@ -0,0 +1,59 @@
+package Uber;
+
+import java.util.Random;
+
+import Uber.Constants.VehicleType;
+
+// Measures pooled insertion throughput with thousands of active routes,
+// sequential search vs fork/join search.
+// Usage: PoolingBenchmark [activeVehicles] [requests]
+public class PoolingBenchmark {
+    public static void main(String[] args) {
+        int vehicles = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+
+        System.out.println("Active pooled vehicles: " + vehicles + ", requests: " + requests);
+        run("sequential", new PooledRideMatcher(2.0, 3.0, Integer.MAX_VALUE), vehicles, requests);
+        run("fork/join", new PooledRideMatcher(2.0, 3.0, 256), vehicles, requests);
+    }
+
+    private static void run(String label, PooledRideMatcher matcher, int vehicles, int requests) {
+        Random random = new Random(11);
+        for (int i = 0; i < vehicles; i++) {
+            Vehicle vehicle = new Vehicle("V" + i, "KA01" + i, VehicleType.SEDAN, "Sedan", "White");
+            Driver driver = new Driver("D" + i, "Driver " + i, "000", "d" + i + "@example.com",
+                    "DL" + i, vehicle);
+            driver.updateLocation(randomLocation(random));
+            matcher.openRoute(driver, newRide("seed-" + i, random));
+        }
+
+        int pooled = 0;
+        double totalDetour = 0;
+        double totalAdded = 0;
+        long begin = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            Ride ride = newRide("req-" + i, random);
+            PooledRoute.Insertion best = matcher.findBestInsertion(ride.getPickupLocation(),
+                    ride.getDropLocation(), ride.getVehicleType());
+            if (best != null && best.getRoute().commit(best, ride.getRideId(),
+                    ride.getPickupLocation(), ride.getDropLocation())) {
+                pooled++;
+                totalDetour += best.getDetourKm();
+                totalAdded += best.getAddedKm();
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+        System.out.printf("%s: %.0f requests/s, %d pooled, avg detour %.2f km, avg added %.2f km%n",
+                label, requests / seconds, pooled, pooled == 0 ? 0 : totalDetour / pooled,
+                pooled == 0 ? 0 : totalAdded / pooled);
+    }
+
+    private static Ride newRide(String id, Random random) {
+        Rider rider = new Rider("R-" + id, "Rider", "000", "r@example.com");
+        return new Ride(id, rider, randomLocation(random), randomLocation(random), VehicleType.SEDAN);
+    }
+
+    private static Location randomLocation(Random random) {
+        return new Location(12.85 + random.nextDouble() * 0.25, 77.45 + random.nextDouble() * 0.30);
+    }
+}
@@ -0,0 +1,9 @@
+package Uber;
+
+public class RateLimitExceededException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public RateLimitExceededException(String riderId) {
+        super("Too many ride requests from rider " + riderId);
+    }
+}
@@ -1,8 +1,8 @@
 package Uber;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import Uber.Constants.RideStatus;
 import Uber.Constants.VehicleType;
@@ -14,13 +14,14 @@ public class Ride {
     private Location pickupLocation;
     private Location dropLocation;
     private VehicleType vehicleType;
-    private RideStatus status;
-    private double fare;
+    private final AtomicReference<RideStatus> status;
+    private volatile double estimatedFare;
+    private volatile double fare;
     private LocalDateTime requestTime;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
+    private volatile LocalDateTime startTime;
+    private volatile LocalDateTime endTime;
     private int riderRating;
-    private int driverRating;
+    private final AtomicInteger driverRating;
 
     public Ride(String rideId, Rider rider, Location pickup,
             Location drop, VehicleType vehicleType) {
@@ -29,32 +30,55 @@ public class Ride {
         this.pickupLocation = pickup;
         this.dropLocation = drop;
         this.vehicleType = vehicleType;
-        this.status = RideStatus.REQUESTED;
+        this.status = new AtomicReference<>(RideStatus.REQUESTED);
         this.requestTime = LocalDateTime.now();
+        this.driverRating = new AtomicInteger();
     }
 
-    public void assignDriver(Driver driver) {
+    // Status transitions are compare-and-set so concurrent callers can't both win
+    public boolean assignDriver(Driver driver) {
         this.driver = driver;
-        this.status = RideStatus.ACCEPTED;
+        return status.compareAndSet(RideStatus.REQUESTED, RideStatus.ACCEPTED);
     }
 
-    public void startRide() {
-        this.status = RideStatus.STARTED;
+    public boolean startRide() {
+        if (!status.compareAndSet(RideStatus.ACCEPTED, RideStatus.STARTED)) {
+            return false;
+        }
         this.startTime = LocalDateTime.now();
+        return true;
     }
 
-    public void completeRide(double fare) {
-        this.status = RideStatus.COMPLETED;
+    public boolean completeRide(double fare) {
+        if (!status.compareAndSet(RideStatus.STARTED, RideStatus.COMPLETED)) {
+            return false;
+        }
         this.endTime = LocalDateTime.now();
         this.fare = fare;
+        return true;
     }
 
-    public void cancelRide() {
-        this.status = RideStatus.CANCELLED;
+    public boolean cancelRide() {
+        RideStatus current = status.get();
+        while (current != RideStatus.COMPLETED && current != RideStatus.CANCELLED) {
+            if (status.compareAndSet(current, RideStatus.CANCELLED)) {
+                return true;
+            }
+            current = status.get();
+        }
+        return false;
     }
 
-    public void rateDriver(int rating) {
-        this.driverRating = rating;
+    // A ride can be rated once; returns false if it already has a rating
+    public boolean rateDriver(int rating) {
+        if (rating < 1 || rating > 5) {
+            throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        return driverRating.compareAndSet(0, rating);
+    }
+
+    public int getDriverRating() {
+        return driverRating.get();
     }
 
     public void rateRider(int rating) {
@@ -74,7 +98,7 @@ public class Ride {
     }
 
     public RideStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     public Location getPickupLocation() {
@@ -89,7 +113,27 @@ public class Ride {
         return fare;
     }
 
+    public double getEstimatedFare() {
+        return estimatedFare;
+    }
+
+    public void setEstimatedFare(double estimatedFare) {
+        this.estimatedFare = estimatedFare;
+    }
+
     public VehicleType getVehicleType() {
         return vehicleType;
     }
+
+    public LocalDateTime getRequestTime() {
+        return requestTime;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package Uber;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class RideExecutors {
+    private RideExecutors() {
+    }
+
+    // Virtual threads are looked up reflectively so the code still runs on JDKs without them
+    public static boolean virtualThreadsSupported() {
+        return virtualThreadFactoryMethod() != null;
+    }
+
+    public static ExecutorService virtualThreads() {
+        Method factory = virtualThreadFactoryMethod();
+        if (factory == null) {
+            throw new UnsupportedOperationException("Virtual threads need JDK 21 or newer");
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+
+    public static ExecutorService platformThreads(int threads) {
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    private static Method virtualThreadFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package Uber;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import Uber.Constants.RideStatus;
+
+// Ride history for one user. Only the most recent rides stay on the heap;
+// older ones are spilled to a temp file in column-oriented blocks:
+// [count][byteLength] rideIds.. riderIds.. driverIds.. fares.. statuses.. endTimes..
+// Queries return rides newest first and only read the blocks they need.
+// Spill files are deleted by close(), and whatever is left when the process
+// exits is removed by the next process to spill.
+public class RideHistory implements AutoCloseable {
+    private static final int DEFAULT_RECENT_LIMIT = 50;
+    private static final int BLOCK_SIZE = 128;
+    private static final Path SPILL_ROOT = Paths.get(System.getProperty("java.io.tmpdir"), "uber-ride-history");
+
+    private final String ownerId;
+    private final int recentLimit;
+    private final Deque<RideRecord> recent;
+    private final List<RideRecord> pending;
+    private final ReentrantLock lock;
+
+    private Path spillFile;
+    private long[] blockOffsets;
+    private int[] blockSizes;
+    private int blockCount;
+    private long spilledCount;
+
+    public RideHistory(String ownerId) {
+        this(ownerId, DEFAULT_RECENT_LIMIT);
+    }
+
+    public RideHistory(String ownerId, int recentLimit) {
+        if (recentLimit <= 0) {
+            throw new IllegalArgumentException("recentLimit must be positive");
+        }
+        this.ownerId = ownerId;
+        this.recentLimit = recentLimit;
+        this.recent = new ArrayDeque<>();
+        this.pending = new ArrayList<>(BLOCK_SIZE);
+        this.lock = new ReentrantLock();
+        this.blockOffsets = new long[8];
+        this.blockSizes = new int[8];
+    }
+
+    public void add(RideRecord record) {
+        lock.lock();
+        try {
+            recent.addLast(record);
+            if (recent.size() > recentLimit) {
+                pending.add(recent.removeFirst());
+                if (pending.size() == BLOCK_SIZE) {
+                    spill();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        lock.lock();
+        try {
+            return recent.size() + pending.size() + spilledCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Rides held on the heap, newest first
+    public List<RideRecord> getRecent() {
+        lock.lock();
+        try {
+            List<RideRecord> result = new ArrayList<>(recent);
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<RideRecord> getPage(int page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page request");
+        }
+        List<RideRecord> result = new ArrayList<>(pageSize);
+        Iterator<RideRecord> it = new NewestFirstIterator((long) page * pageSize);
+        while (it.hasNext() && result.size() < pageSize) {
+            result.add(it.next());
+        }
+        return result;
+    }
+
+    public Stream<RideRecord> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(new NewestFirstIterator(0), size(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    // Drops the whole history and deletes its spill file; for owners that leave
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            recent.clear();
+            pending.clear();
+            blockCount = 0;
+            spilledCount = 0;
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+                spillFile = null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete ride history for " + ownerId, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void spill() {
+        try {
+            if (spillFile == null) {
+                spillFile = Files.createTempFile(SpillDirectory.PATH, ownerId + "-", ".hist");
+            }
+            byte[] block = encodeBlock(pending);
+            long offset = Files.size(spillFile);
+            try (OutputStream out = Files.newOutputStream(spillFile, StandardOpenOption.APPEND)) {
+                out.write(block);
+            }
+            if (blockCount == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+                blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+            }
+            blockOffsets[blockCount] = offset;
+            blockSizes[blockCount] = pending.size();
+            blockCount++;
+            spilledCount += pending.size();
+            pending.clear();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill ride history for " + ownerId, e);
+        }
+    }
+
+    // Each process spills into a directory named by its pid, created on first
+    // spill. Creating it also removes the directories of processes that have
+    // exited, so files are reclaimed even after a crash without the JVM having
+    // to remember every file until exit.
+    private static final class SpillDirectory {
+        static final Path PATH = create();
+
+        private static Path create() {
+            long pid = ProcessHandle.current().pid();
+            try {
+                Files.createDirectories(SPILL_ROOT);
+                try (Stream<Path> entries = Files.list(SPILL_ROOT)) {
+                    for (Path entry : entries.collect(Collectors.toList())) {
+                        if (isAbandoned(entry.getFileName().toString(), pid)) {
+                            deleteRecursively(entry);
+                        }
+                    }
+                }
+                return Files.createDirectories(SPILL_ROOT.resolve(Long.toString(pid)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create ride history spill directory", e);
+            }
+        }
+
+        private static boolean isAbandoned(String name, long currentPid) {
+            long owner;
+            try {
+                owner = Long.parseLong(name);
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return owner != currentPid && !ProcessHandle.of(owner).map(ProcessHandle::isAlive).orElse(false);
+        }
+
+        private static void deleteRecursively(Path directory) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path path : files.sorted(Collections.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                // Best effort: the next process tries again
+            }
+        }
+    }
+
+    private static byte[] encodeBlock(List<RideRecord> records) throws IOException {
+        ByteArrayOutputStream columns = new ByteArrayOutputStream(records.size() * 64);
+        DataOutputStream out = new DataOutputStream(columns);
+        for (RideRecord r : records) {
+            out.writeUTF(r.getRideId());
+        }
+        for (RideRecord r : records) {
+            out.writeUTF(r.getRiderId());
+        }
+        for (RideRecord r : records) {
+            out.writeUTF(r.getDriverId());
+        }
+        for (RideRecord r : records) {
+            out.writeDouble(r.getFare());
+        }
+        for (RideRecord r : records) {
+            out.writeByte(r.getStatus().ordinal());
+        }
+        for (RideRecord r : records) {
+            out.writeLong(r.getEndTimeEpochSecond());
+        }
+        out.flush();
+
+        ByteArrayOutputStream block = new ByteArrayOutputStream(columns.size() + 8);
+        DataOutputStream header = new DataOutputStream(block);
+        header.writeInt(records.size());
+        header.writeInt(columns.size());
+        columns.writeTo(header);
+        header.flush();
+        return block.toByteArray();
+    }
+
+    // Returns the block oldest first, as it was written
+    private static RideRecord[] readBlock(Path file, long offset) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(offset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            int count = in.readInt();
+            in.readInt();
+
+            String[] rideIds = new String[count];
+            String[] riderIds = new String[count];
+            String[] driverIds = new String[count];
+            for (int i = 0; i < count; i++) {
+                rideIds[i] = in.readUTF();
+            }
+            for (int i = 0; i < count; i++) {
+                riderIds[i] = in.readUTF();
+            }
+            for (int i = 0; i < count; i++) {
+                driverIds[i] = in.readUTF();
+            }
+            double[] fares = new double[count];
+            for (int i = 0; i < count; i++) {
+                fares[i] = in.readDouble();
+            }
+            RideStatus[] statuses = new RideStatus[count];
+            RideStatus[] values = RideStatus.values();
+            for (int i = 0; i < count; i++) {
+                statuses[i] = values[in.readByte()];
+            }
+            RideRecord[] records = new RideRecord[count];
+            for (int i = 0; i < count; i++) {
+                records[i] = new RideRecord(rideIds[i], riderIds[i], driverIds[i], fares[i],
+                        statuses[i], in.readLong());
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read ride history block at " + offset, e);
+        }
+    }
+
+    // Walks heap segments first, then disk blocks from newest to oldest.
+    // Heap segments are copied up front (both are bounded); written blocks are
+    // immutable, so they are read lazily without holding the lock.
+    private class NewestFirstIterator implements Iterator<RideRecord> {
+        private final List<RideRecord> inMemory;
+        private final Path file;
+        private final long[] offsets;
+        private final int[] sizes;
+        private int memoryIndex;
+        private int blockIndex;
+        private RideRecord[] block;
+        private int positionInBlock;
+
+        NewestFirstIterator(long skip) {
+            lock.lock();
+            try {
+                inMemory = new ArrayList<>(recent.size() + pending.size());
+                inMemory.addAll(pending);
+                inMemory.addAll(recent);
+                Collections.reverse(inMemory);
+                file = spillFile;
+                offsets = Arrays.copyOf(blockOffsets, blockCount);
+                sizes = Arrays.copyOf(blockSizes, blockCount);
+            } finally {
+                lock.unlock();
+            }
+
+            long toSkip = skip;
+            memoryIndex = (int) Math.min(toSkip, inMemory.size());
+            toSkip -= memoryIndex;
+            blockIndex = offsets.length - 1;
+            // Whole blocks are skipped without touching the file
+            while (blockIndex >= 0 && toSkip >= sizes[blockIndex]) {
+                toSkip -= sizes[blockIndex];
+                blockIndex--;
+            }
+            positionInBlock = -1;
+            if (toSkip > 0 && blockIndex >= 0) {
+                loadBlock();
+                positionInBlock -= (int) toSkip;
+            }
+        }
+
+        private void loadBlock() {
+            block = readBlock(file, offsets[blockIndex]);
+            positionInBlock = block.length - 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (memoryIndex < inMemory.size()) {
+                return true;
+            }
+            while (positionInBlock < 0) {
+                if (block != null) {
+                    blockIndex--;
+                    block = null;
+                }
+                if (blockIndex < 0) {
+                    return false;
+                }
+                loadBlock();
+            }
+            return true;
+        }
+
+        @Override
+        public RideRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (memoryIndex < inMemory.size()) {
+                return inMemory.get(memoryIndex++);
+            }
+            return block[positionInBlock--];
+        }
+    }
+}
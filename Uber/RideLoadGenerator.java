@@ -0,0 +1,105 @@
+package Uber;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import Uber.Constants.VehicleType;
+
+// Compares request throughput on platform threads vs virtual threads.
+// Usage: RideLoadGenerator [sessions] [drivers] [ioMillis] [platformThreads]
+public class RideLoadGenerator {
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int drivers = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        int ioMillis = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        int platformThreads = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+
+        System.out.println("Sessions: " + sessions + ", drivers: " + drivers +
+                ", simulated I/O per quote: " + ioMillis + " ms");
+
+        RideService platformService = newService(drivers, ioMillis);
+        try (RideRequestExecutor executor =
+                RideRequestExecutor.withPlatformThreads(platformService, platformThreads)) {
+            run("platform(" + platformThreads + ")", executor, sessions);
+        }
+        platformService.shutdown();
+
+        if (!RideExecutors.virtualThreadsSupported()) {
+            System.out.println("virtual: skipped, needs JDK 21 or newer");
+            return;
+        }
+        RideService virtualService = newService(drivers, ioMillis);
+        try (RideRequestExecutor executor = RideRequestExecutor.withVirtualThreads(virtualService)) {
+            run("virtual", executor, sessions);
+        }
+        virtualService.shutdown();
+    }
+
+    private static RideService newService(int driverCount, int ioMillis) {
+        NotificationChannel discard = batch -> {
+        };
+        RideService service = new RideService(new NotificationService(discard, discard, 100_000));
+        // Stands in for a remote pricing call that blocks the calling thread
+        PricingStrategy standard = new StandardPricing();
+        service.setPricingStrategy((pickup, drop, type) -> {
+            sleep(ioMillis);
+            return standard.calculateFare(pickup, drop, type);
+        });
+
+        Random random = new Random(42);
+        for (int i = 0; i < driverCount; i++) {
+            Vehicle vehicle = new Vehicle("V" + i, "KA01" + i, VehicleType.SEDAN, "Sedan", "White");
+            Driver driver = new Driver("D" + i, "Driver " + i, "000", "d" + i + "@example.com",
+                    "DL" + i, vehicle);
+            driver.updateLocation(randomLocation(random));
+            service.registerDriver(driver);
+        }
+        return service;
+    }
+
+    private static void run(String label, RideRequestExecutor executor, int sessions) {
+        Random random = new Random(7);
+        LongAdder completed = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>(sessions);
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < sessions; i++) {
+            Rider rider = new Rider("R" + i, "Rider " + i, "000", "r" + i + "@example.com");
+            Location pickup = randomLocation(random);
+            Location drop = randomLocation(random);
+            inFlight.add(executor.requestRide(rider, pickup, drop, VehicleType.SEDAN)
+                    .thenCompose(ride -> executor.startRide(ride.getRideId())
+                            .thenCompose(ignored -> executor.completeRide(ride.getRideId())))
+                    .handle((ignored, error) -> {
+                        if (error == null) {
+                            completed.increment();
+                        } else {
+                            rejected.increment();
+                        }
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(inFlight.toArray(new CompletableFuture<?>[0])).join();
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        System.out.printf("%s: %d completed, %d rejected in %.2f s (%.0f sessions/s)%n",
+                label, completed.sum(), rejected.sum(), seconds, sessions / seconds);
+    }
+
+    private static Location randomLocation(Random random) {
+        // Roughly the Bengaluru city area
+        return new Location(12.85 + random.nextDouble() * 0.25, 77.45 + random.nextDouble() * 0.30);
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Uber;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import Uber.Constants.RideStatus;
+
+// Compact, immutable summary of a finished ride kept in ride history
+public class RideRecord {
+    private final String rideId;
+    private final String riderId;
+    private final String driverId;
+    private final double fare;
+    private final RideStatus status;
+    private final long endTimeEpochSecond;
+
+    public RideRecord(String rideId, String riderId, String driverId, double fare,
+            RideStatus status, long endTimeEpochSecond) {
+        this.rideId = rideId;
+        this.riderId = riderId;
+        this.driverId = driverId;
+        this.fare = fare;
+        this.status = status;
+        this.endTimeEpochSecond = endTimeEpochSecond;
+    }
+
+    public static RideRecord of(Ride ride) {
+        LocalDateTime end = ride.getEndTime() != null ? ride.getEndTime() : LocalDateTime.now();
+        return new RideRecord(ride.getRideId(), ride.getRider().getId(),
+                ride.getDriver() != null ? ride.getDriver().getId() : "",
+                ride.getFare(), ride.getStatus(), end.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    public String getRideId() {
+        return rideId;
+    }
+
+    public String getRiderId() {
+        return riderId;
+    }
+
+    public String getDriverId() {
+        return driverId;
+    }
+
+    public double getFare() {
+        return fare;
+    }
+
+    public RideStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getEndTime() {
+        return LocalDateTime.ofEpochSecond(endTimeEpochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public long getEndTimeEpochSecond() {
+        return endTimeEpochSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "RideRecord{" + rideId + ", fare=" + fare + ", status=" + status + "}";
+    }
+}
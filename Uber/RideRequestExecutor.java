@@ -0,0 +1,94 @@
+package Uber;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import Uber.Constants.VehicleType;
+
+// Runs each ride operation on its own request thread. Sub-steps of a request
+// are forked on the step executor and joined before the request continues,
+// so a failure in one cancels its sibling and nothing outlives the request.
+public class RideRequestExecutor implements AutoCloseable {
+    private final RideService rideService;
+    private final ExecutorService requestExecutor;
+    private final ExecutorService stepExecutor;
+
+    public RideRequestExecutor(RideService rideService, ExecutorService requestExecutor,
+            ExecutorService stepExecutor) {
+        this.rideService = rideService;
+        this.requestExecutor = requestExecutor;
+        this.stepExecutor = stepExecutor;
+    }
+
+    public static RideRequestExecutor withVirtualThreads(RideService rideService) {
+        ExecutorService executor = RideExecutors.virtualThreads();
+        return new RideRequestExecutor(rideService, executor, executor);
+    }
+
+    // Steps get their own pool so blocked requests can never starve the steps they wait on
+    public static RideRequestExecutor withPlatformThreads(RideService rideService, int threads) {
+        return new RideRequestExecutor(rideService, RideExecutors.platformThreads(threads),
+                RideExecutors.platformThreads(Math.max(2, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public CompletableFuture<Ride> requestRide(Rider rider, Location pickup, Location drop,
+            VehicleType vehicleType) {
+        return CompletableFuture.supplyAsync(
+                () -> handleRequest(rider, pickup, drop, vehicleType), requestExecutor);
+    }
+
+    public CompletableFuture<Void> startRide(String rideId) {
+        return CompletableFuture.runAsync(() -> rideService.startRide(rideId), requestExecutor);
+    }
+
+    public CompletableFuture<Void> completeRide(String rideId) {
+        return CompletableFuture.runAsync(() -> rideService.completeRide(rideId), requestExecutor);
+    }
+
+    private Ride handleRequest(Rider rider, Location pickup, Location drop, VehicleType vehicleType) {
+        Ride ride = rideService.createRide(rider, pickup, drop, vehicleType);
+
+        CompletableFuture<Driver> match = CompletableFuture.supplyAsync(
+                () -> rideService.matchDriver(ride), stepExecutor);
+        CompletableFuture<Double> quote = CompletableFuture.supplyAsync(
+                () -> rideService.quoteFare(ride), stepExecutor);
+
+        match.whenComplete((driver, error) -> {
+            if (error != null) {
+                quote.cancel(true);
+            }
+        });
+        quote.whenComplete((fare, error) -> {
+            if (error != null) {
+                match.thenAccept(rideService::releaseDriver);
+            }
+        });
+
+        try {
+            Driver driver = match.join();
+            ride.setEstimatedFare(quote.join());
+            rideService.confirmRide(ride, driver);
+            return ride;
+        } catch (CompletionException e) {
+            rideService.abandonRequest(ride);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        requestExecutor.shutdown();
+        stepExecutor.shutdown();
+        try {
+            requestExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            stepExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
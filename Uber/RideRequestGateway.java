@@ -0,0 +1,137 @@
+package Uber;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import Uber.Constants.VehicleType;
+
+// Front door for client ride requests. Retries carrying the same idempotency
+// key are answered from a TTL cache instead of minting a new ride, and each
+// rider is rate limited before the request ever reaches matching. Buckets of
+// riders who went idle are dropped by a background sweep, never on the
+// request path.
+public class RideRequestGateway implements AutoCloseable {
+    private static final long DEFAULT_TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final long MIN_SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final RideService rideService;
+    private final IdempotencyCache<Ride> recentRequests;
+    private final Map<String, TokenBucket> buckets;
+    private final double requestsPerSecond;
+    private final int burst;
+    private final ScheduledExecutorService sweeper;
+
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public RideRequestGateway(RideService rideService) {
+        this(rideService, 1.0, 5, DEFAULT_TTL_NANOS, DEFAULT_MAX_ENTRIES);
+    }
+
+    public RideRequestGateway(RideService rideService, double requestsPerSecond, int burst,
+            long ttlNanos, int maxEntries) {
+        this.rideService = rideService;
+        this.recentRequests = new IdempotencyCache<>(ttlNanos, maxEntries);
+        this.buckets = new ConcurrentHashMap<>();
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A bucket is idle once it has refilled, so sweeping about once per refill keeps the map small
+        long interval = Math.max(MIN_SWEEP_INTERVAL_MILLIS, (long) (burst * 1000 / requestsPerSecond));
+        sweeper.scheduleWithFixedDelay(this::sweepIdleBuckets, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Ride requestRide(String idempotencyKey, Rider rider, Location pickup, Location drop,
+            VehicleType vehicleType) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key is required");
+        }
+        long now = System.nanoTime();
+        String key = rider.getId() + ":" + idempotencyKey;
+
+        // Retries are answered before rate limiting so they never cost a token
+        CompletableFuture<Ride> cached = recentRequests.get(key, now);
+        if (cached != null) {
+            duplicates.increment();
+            return await(cached);
+        }
+
+        if (!bucketFor(rider.getId()).tryAcquire(now)) {
+            shed.increment();
+            throw new RateLimitExceededException(rider.getId());
+        }
+
+        CompletableFuture<Ride> result = new CompletableFuture<>();
+        CompletableFuture<Ride> inFlight = recentRequests.putIfAbsent(key, result, now);
+        if (inFlight != null) {
+            duplicates.increment();
+            return await(inFlight);
+        }
+
+        try {
+            Ride ride = rideService.requestRide(rider, pickup, drop, vehicleType);
+            result.complete(ride);
+            return ride;
+        } catch (RuntimeException e) {
+            // Failures aren't cached, so the client can retry with the same key
+            recentRequests.remove(key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private TokenBucket bucketFor(String riderId) {
+        TokenBucket bucket = buckets.get(riderId);
+        if (bucket != null) {
+            return bucket;
+        }
+        return buckets.computeIfAbsent(riderId, id -> new TokenBucket(requestsPerSecond, burst));
+    }
+
+    // An idle bucket is full, so dropping it is the same as keeping it, except
+    // that a request racing with the sweep may get one token from the dropped
+    // bucket and then start a fresh, full one
+    void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    }
+
+    private static Ride await(CompletableFuture<Ride> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    public int getTrackedRiderCount() {
+        return buckets.size();
+    }
+
+    @Override
+    public void close() {
+        sweeper.shutdownNow();
+    }
+}
@@ -1,27 +1,44 @@
 package Uber;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import Uber.Constants.RideStatus;
 import Uber.Constants.VehicleType;
 
 public class RideService {
+    private static final int MAX_MATCH_ATTEMPTS = 3;
+
     private Map<String, Ride> rides;
     private List<Driver> drivers;
-    private PricingStrategy pricingStrategy;
-    private DriverMatchingStrategy matchingStrategy;
+    private volatile PricingStrategy pricingStrategy;
+    private volatile DriverMatchingStrategy matchingStrategy;
     private NotificationService notificationService;
+    private final DriverRatingAggregator ratingAggregator;
+    private final PooledRideMatcher pooledMatcher;
+    private final SupplyHeatmap heatmap;
+    private volatile PaymentSettlementPipeline settlementPipeline;
 
     public RideService() {
+        this(new NotificationService());
+    }
+
+    public RideService(NotificationService notificationService) {
+        this(notificationService, new SupplyHeatmap());
+    }
+
+    public RideService(NotificationService notificationService, SupplyHeatmap heatmap) {
         this.rides = new ConcurrentHashMap<>();
-        this.drivers = new ArrayList<>();
+        this.drivers = new CopyOnWriteArrayList<>();
         this.pricingStrategy = new StandardPricing();
         this.matchingStrategy = new NearestDriverMatching();
-        this.notificationService = new NotificationService();
+        this.notificationService = notificationService;
+        this.ratingAggregator = new DriverRatingAggregator();
+        this.pooledMatcher = new PooledRideMatcher();
+        this.heatmap = heatmap;
     }
 
     public void setPricingStrategy(PricingStrategy strategy) {
@@ -32,67 +49,199 @@ public class RideService {
         this.matchingStrategy = strategy;
     }
 
+    // When set, completed rides are charged through the pipeline
+    public void setSettlementPipeline(PaymentSettlementPipeline pipeline) {
+        this.settlementPipeline = pipeline;
+    }
+
     public Ride requestRide(Rider rider, Location pickup, Location drop,
             VehicleType vehicleType) {
+        Ride ride = createRide(rider, pickup, drop, vehicleType);
+        Driver driver;
+        try {
+            // Quoted before matching so a pricing failure never holds a reserved driver
+            ride.setEstimatedFare(quoteFare(ride));
+            driver = matchDriver(ride);
+        } catch (RuntimeException e) {
+            abandonRequest(ride);
+            throw e;
+        }
+        confirmRide(ride, driver);
+        return ride;
+    }
+
+    // Shares an in-progress route when the detour is small enough, otherwise
+    // starts a new pooled route with a driver from the matching strategy
+    public Ride requestPooledRide(Rider rider, Location pickup, Location drop,
+            VehicleType vehicleType) {
+        Ride ride = createRide(rider, pickup, drop, vehicleType);
+        Driver driver;
+        boolean sharedRoute;
+        try {
+            // Quoted inside the try, as in requestRide, so a pricing failure closes the request
+            ride.setEstimatedFare(quoteFare(ride));
+            driver = pooledMatcher.tryInsert(ride);
+            sharedRoute = driver != null;
+            if (!sharedRoute) {
+                driver = matchDriver(ride);
+            }
+        } catch (RuntimeException e) {
+            abandonRequest(ride);
+            throw e;
+        }
+        if (!sharedRoute) {
+            pooledMatcher.openRoute(driver, ride);
+        }
+        confirmRide(ride, driver);
+        return ride;
+    }
+
+    // The steps below let RideRequestExecutor run matching and quoting in parallel
+
+    public Ride createRide(Rider rider, Location pickup, Location drop,
+            VehicleType vehicleType) {
         String rideId = UUID.randomUUID().toString();
         Ride ride = new Ride(rideId, rider, pickup, drop, vehicleType);
+        heatmap.onRequestOpened(ride);
+        return ride;
+    }
 
-        Driver driver = matchingStrategy.findDriver(drivers, pickup, vehicleType);
-        if (driver == null) {
-            throw new RuntimeException("No driver available");
+    // Called when a created ride is given up before confirmation
+    public void abandonRequest(Ride ride) {
+        heatmap.onRequestClosed(ride, false);
+    }
+
+    public Driver matchDriver(Ride ride) {
+        // Another request may reserve the matched driver first, so retry a few times
+        for (int attempt = 0; attempt < MAX_MATCH_ATTEMPTS; attempt++) {
+            Driver driver = matchingStrategy.findDriver(drivers, ride.getPickupLocation(),
+                    ride.getVehicleType());
+            if (driver == null) {
+                break;
+            }
+            if (driver.tryReserve()) {
+                heatmap.onDriverChanged(driver);
+                return driver;
+            }
         }
+        throw new RuntimeException("No driver available");
+    }
+
+    public double quoteFare(Ride ride) {
+        return pricingStrategy.calculateFare(ride.getPickupLocation(),
+                ride.getDropLocation(), ride.getVehicleType());
+    }
 
+    public void confirmRide(Ride ride, Driver driver) {
         ride.assignDriver(driver);
-        driver.setAvailable(false);
-        rides.put(rideId, ride);
+        rides.put(ride.getRideId(), ride);
+        heatmap.onRequestClosed(ride, true);
 
         notificationService.notifyDriver(driver, ride);
-        notificationService.notifyRider(rider, ride);
+        notificationService.notifyRider(ride.getRider(), ride);
+    }
 
-        return ride;
+    public void releaseDriver(Driver driver) {
+        driver.setAvailable(true);
+        heatmap.onDriverChanged(driver);
     }
 
     public void startRide(String rideId) {
         Ride ride = rides.get(rideId);
-        if (ride != null && ride.getStatus() == RideStatus.ACCEPTED) {
-            ride.startRide();
+        if (ride != null && ride.startRide()) {
+            pooledMatcher.onPickedUp(ride);
             notificationService.notifyRider(ride.getRider(), ride);
         }
     }
 
+    // Fails, leaving the ride started, if the settlement pipeline can't record
+    // the payment; the caller retries the completion
     public void completeRide(String rideId) {
         Ride ride = rides.get(rideId);
-        if (ride != null && ride.getStatus() == RideStatus.STARTED) {
-            double fare = pricingStrategy.calculateFare(
-                    ride.getPickupLocation(),
-                    ride.getDropLocation(),
-                    ride.getVehicleType());
-            ride.completeRide(fare);
-            ride.getDriver().setAvailable(true);
+        if (ride == null) {
+            return;
+        }
+        // Serialized with cancelRide so a payment is only recorded for a ride that completes
+        synchronized (ride) {
+            if (ride.getStatus() != RideStatus.STARTED) {
+                return;
+            }
+            double fare = quoteFare(ride);
+            PaymentSettlementPipeline pipeline = settlementPipeline;
+            if (pipeline != null) {
+                // Returns once the payment is durable; settlement happens in the background
+                pipeline.submit(new Payment(UUID.randomUUID().toString(), ride, fare));
+            }
+            if (!ride.completeRide(fare)) {
+                return;
+            }
+        }
+        if (!pooledMatcher.onDropped(ride)) {
+            releaseDriver(ride.getDriver());
+        }
 
-            ride.getRider().addRide(ride);
-            ride.getDriver().addRide(ride);
+        ride.getRider().addRide(ride);
+        ride.getDriver().addRide(ride);
 
-            notificationService.notifyRider(ride.getRider(), ride);
-            notificationService.notifyDriver(ride.getDriver(), ride);
-        }
+        notificationService.notifyRider(ride.getRider(), ride);
+        notificationService.notifyDriver(ride.getDriver(), ride);
     }
 
     public void cancelRide(String rideId) {
         Ride ride = rides.get(rideId);
-        if (ride != null) {
-            ride.cancelRide();
-            if (ride.getDriver() != null) {
-                ride.getDriver().setAvailable(true);
-            }
+        if (ride == null) {
+            return;
+        }
+        boolean cancelled;
+        synchronized (ride) {
+            cancelled = ride.cancelRide();
+        }
+        if (cancelled && ride.getDriver() != null && !pooledMatcher.onDropped(ride)) {
+            releaseDriver(ride.getDriver());
+        }
+    }
+
+    public void rateDriver(String rideId, int rating) {
+        Ride ride = rides.get(rideId);
+        if (ride != null && ride.getStatus() == RideStatus.COMPLETED && ride.rateDriver(rating)) {
+            Driver driver = ride.getDriver();
+            ratingAggregator.record(driver.getId(), rating);
+            driver.setRating(ratingAggregator.getDecayedAverage(driver.getId(), driver.getRating()));
         }
     }
 
     public void registerDriver(Driver driver) {
         drivers.add(driver);
+        heatmap.onDriverChanged(driver);
+    }
+
+    // Location updates go through here so the supply heatmap stays current
+    public void updateDriverLocation(Driver driver, Location location) {
+        driver.updateLocation(location);
+        heatmap.onDriverChanged(driver);
+    }
+
+    public SupplyHeatmap.Snapshot getSupplySnapshot() {
+        return heatmap.snapshot();
     }
 
     public Ride getRide(String rideId) {
         return rides.get(rideId);
     }
+
+    public PooledRideMatcher getPooledMatcher() {
+        return pooledMatcher;
+    }
+
+    public DriverRatingAggregator getRatingAggregator() {
+        return ratingAggregator;
+    }
+
+    public NotificationService getNotificationService() {
+        return notificationService;
+    }
+
+    public void shutdown() {
+        notificationService.shutdown();
+    }
 }
\ No newline at end of file
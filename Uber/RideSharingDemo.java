@@ -1,11 +1,21 @@
 package Uber;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import Uber.Constants.VehicleType;
 
 public class RideSharingDemo {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         // Initialize service
         RideService rideService = new RideService();
+        Path outboxDir = Files.createTempDirectory("uber-payments");
+        PaymentSettlementPipeline settlement = new PaymentSettlementPipeline(
+                new PaymentOutbox(outboxDir.resolve("outbox.log")),
+                batch -> batch.forEach(p -> System.out.println("Settled payment " + p.getPaymentId() +
+                        " of ₹" + p.getAmount() + " for ride " + p.getRideId())));
+        rideService.setSettlementPipeline(settlement);
 
         // Create drivers
         Vehicle vehicle1 = new Vehicle("V1", "KA01AB1234", VehicleType.SEDAN,
@@ -32,5 +42,19 @@ public class RideSharingDemo {
         // Complete ride
         rideService.completeRide(ride.getRideId());
         System.out.println("Ride completed. Fare: ₹" + ride.getFare());
+
+        // Rate driver
+        rideService.rateDriver(ride.getRideId(), 4);
+        System.out.println("Driver rating: " + driver1.getRating());
+
+        // Flush pending notifications before exiting
+        settlement.close();
+        System.out.println("Payments settled: " + settlement.getSettledCount() +
+                ", failed: " + settlement.getFailedCount());
+        rideService.shutdown();
+        NotificationService notifications = rideService.getNotificationService();
+        System.out.println("Notifications delivered: " + notifications.getDeliveredCount() +
+                ", coalesced: " + notifications.getCoalescedCount() +
+                ", avg latency: " + notifications.getAverageDeliveryLatencyMillis() + " ms");
     }
 }
\ No newline at end of file
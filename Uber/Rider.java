@@ -1,20 +1,21 @@
 package Uber;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class Rider extends User {
-    private List<Ride> rideHistory;
+    private final RideHistory rideHistory;
     private double rating;
 
     public Rider(String id, String name, String phone, String email) {
         super(id, name, phone, email);
-        this.rideHistory = new ArrayList<>();
+        this.rideHistory = new RideHistory(id);
         this.rating = 5.0;
     }
 
     public void addRide(Ride ride) {
-        rideHistory.add(ride);
+        rideHistory.add(RideRecord.of(ride));
+    }
+
+    public RideHistory getRideHistory() {
+        return rideHistory;
     }
 
     public double getRating() {
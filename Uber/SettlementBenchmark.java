@@ -0,0 +1,67 @@
+package Uber;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Pushes payments through the settlement pipeline against a stub gateway that
+// takes a few milliseconds per call and fails a small share of them.
+// Usage: SettlementBenchmark [payments] [gatewayMillis] [failurePercent]
+public class SettlementBenchmark {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long gatewayMillis = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        int failurePercent = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        PaymentGateway gateway = batch -> {
+            sleep(gatewayMillis);
+            if (ThreadLocalRandom.current().nextInt(100) < failurePercent) {
+                throw new IllegalStateException("Gateway timeout");
+            }
+        };
+
+        Path dir = Files.createTempDirectory("uber-settlement");
+        PaymentSettlementPipeline pipeline = new PaymentSettlementPipeline(
+                new PaymentOutbox(dir.resolve("outbox.log")), gateway, 5, 10, 1_000);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < payments; i++) {
+            pipeline.submitAsync(new Payment(UUID.randomUUID().toString(), "ride-" + i, 100 + i % 400));
+        }
+        while (pipeline.getSettledCount() + pipeline.getFailedCount() < payments) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pipeline.close();
+
+        System.out.printf("Settled %d, failed %d, retries %d in %.2f s%n", pipeline.getSettledCount(),
+                pipeline.getFailedCount(), pipeline.getRetryCount(), seconds);
+        System.out.printf("Throughput: %.0f payments/s (%.1f M payments/hour)%n",
+                payments / seconds, payments / seconds * 3600 / 1e6);
+
+        // Unbatched baseline: one gateway call per payment
+        int sample = Math.min(payments, 200);
+        long baselineStart = System.nanoTime();
+        for (int i = 0; i < sample; i++) {
+            try {
+                gateway.settle(List.of());
+            } catch (IllegalStateException e) {
+                // failures cost the same round trip
+            }
+        }
+        double perPayment = (System.nanoTime() - baselineStart) / 1e9 / sample;
+        System.out.printf("One call per payment would manage ~%.0f payments/hour%n", 3600 / perPayment);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
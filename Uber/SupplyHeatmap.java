@@ -0,0 +1,281 @@
+package Uber;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Live per-area counts of available drivers and open requests, kept up to
+// date incrementally by RideService instead of scanning drivers and rides.
+// The city is split into square grid cells; each cell also keeps per-minute
+// request counts for a sliding window. All updates are lock-free, so taking
+// a snapshot never blocks matching.
+public class SupplyHeatmap {
+    private static final double DEFAULT_CELL_DEGREES = 0.01; // ~1.1 km
+    private static final int DEFAULT_WINDOW_MINUTES = 15;
+
+    private final double cellDegrees;
+    private final int windowMinutes;
+    private final LongSupplier clockMillis;
+    private final Map<Long, CellCounters> cells;
+    // Where each driver is currently counted, or absent if not available
+    private final Map<String, Long> driverCells;
+    private final Map<String, Long> openRequests;
+
+    public SupplyHeatmap() {
+        this(System::currentTimeMillis);
+    }
+
+    // For callers on a clock other than wall time, such as DispatchSimulator
+    public SupplyHeatmap(LongSupplier clockMillis) {
+        this(DEFAULT_CELL_DEGREES, DEFAULT_WINDOW_MINUTES, clockMillis);
+    }
+
+    public SupplyHeatmap(double cellDegrees, int windowMinutes, LongSupplier clockMillis) {
+        if (cellDegrees <= 0 || windowMinutes <= 0) {
+            throw new IllegalArgumentException("Cell size and window must be positive");
+        }
+        this.cellDegrees = cellDegrees;
+        this.windowMinutes = windowMinutes;
+        this.clockMillis = clockMillis;
+        this.cells = new ConcurrentHashMap<>();
+        this.driverCells = new ConcurrentHashMap<>();
+        this.openRequests = new ConcurrentHashMap<>();
+    }
+
+    private static class CellCounters {
+        final AtomicInteger availableDrivers = new AtomicInteger();
+        final AtomicInteger openRequests = new AtomicInteger();
+        final MinuteWindow requests;
+        final MinuteWindow unmatched;
+
+        CellCounters(int windowMinutes) {
+            this.requests = new MinuteWindow(windowMinutes);
+            this.unmatched = new MinuteWindow(windowMinutes);
+        }
+    }
+
+    // Ring of per-minute counters. Each slot packs (minute << 24 | count) into
+    // one long, so rolling a slot over to a new minute and counting in it is a
+    // single atomic update.
+    private static class MinuteWindow {
+        private static final int COUNT_BITS = 24;
+        private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+        private final AtomicLongArray slots;
+
+        MinuteWindow(int minutes) {
+            this.slots = new AtomicLongArray(minutes);
+        }
+
+        void increment(long minute) {
+            int index = (int) (minute % slots.length());
+            slots.getAndUpdate(index, packed -> (packed >>> COUNT_BITS) == minute
+                    ? Math.min(packed + 1, (minute << COUNT_BITS) | COUNT_MASK)
+                    : (minute << COUNT_BITS) | 1);
+        }
+
+        long sum(long currentMinute) {
+            long total = 0;
+            for (int i = 0; i < slots.length(); i++) {
+                long packed = slots.get(i);
+                if (currentMinute - (packed >>> COUNT_BITS) < slots.length()) {
+                    total += packed & COUNT_MASK;
+                }
+            }
+            return total;
+        }
+    }
+
+    // Re-reads the driver's location and availability and moves its count.
+    // Updates for one driver are serialized by the map entry, so the counts
+    // always converge on the driver's latest state.
+    public void onDriverChanged(Driver driver) {
+        driverCells.compute(driver.getId(), (id, previousCell) -> {
+            Location location = driver.getCurrentLocation();
+            Long nextCell = driver.isAvailable() && location != null ? cellKey(location) : null;
+            if (previousCell != null && !previousCell.equals(nextCell)) {
+                counters(previousCell).availableDrivers.decrementAndGet();
+            }
+            if (nextCell != null && !nextCell.equals(previousCell)) {
+                counters(nextCell).availableDrivers.incrementAndGet();
+            }
+            return nextCell;
+        });
+    }
+
+    public void onRequestOpened(Ride ride) {
+        long cell = cellKey(ride.getPickupLocation());
+        if (openRequests.putIfAbsent(ride.getRideId(), cell) == null) {
+            CellCounters counters = counters(cell);
+            counters.openRequests.incrementAndGet();
+            counters.requests.increment(currentMinute());
+        }
+    }
+
+    // Safe to call more than once; only the first call for a ride counts
+    public void onRequestClosed(Ride ride, boolean matched) {
+        Long cell = openRequests.remove(ride.getRideId());
+        if (cell != null) {
+            CellCounters counters = counters(cell);
+            counters.openRequests.decrementAndGet();
+            if (!matched) {
+                counters.unmatched.increment(currentMinute());
+            }
+        }
+    }
+
+    // Counters are read one by one without a global lock, so the snapshot is
+    // per-cell consistent but may straddle concurrent updates across cells
+    public Snapshot snapshot() {
+        long minute = currentMinute();
+        Map<Long, CellStats> stats = new HashMap<>();
+        for (Map.Entry<Long, CellCounters> entry : cells.entrySet()) {
+            long key = entry.getKey();
+            CellCounters counters = entry.getValue();
+            CellStats cell = new CellStats(rowOf(key), colOf(key), cellDegrees,
+                    counters.availableDrivers.get(), counters.openRequests.get(),
+                    counters.requests.sum(minute), counters.unmatched.sum(minute));
+            if (!cell.isEmpty()) {
+                stats.put(key, cell);
+            }
+        }
+        return new Snapshot(clockMillis.getAsLong(), windowMinutes, cellDegrees, stats);
+    }
+
+    private CellCounters counters(long cell) {
+        return cells.computeIfAbsent(cell, k -> new CellCounters(windowMinutes));
+    }
+
+    private long currentMinute() {
+        return clockMillis.getAsLong() / 60_000;
+    }
+
+    private long cellKey(Location location) {
+        return cellKey(cellDegrees, location);
+    }
+
+    private static long cellKey(double cellDegrees, Location location) {
+        long row = (long) Math.floor(location.getLatitude() / cellDegrees);
+        long col = (long) Math.floor(location.getLongitude() / cellDegrees);
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static int rowOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    private static int colOf(long key) {
+        return (int) key;
+    }
+
+    public static class CellStats {
+        private final int row;
+        private final int col;
+        private final Location center;
+        private final int availableDrivers;
+        private final int openRequests;
+        private final long recentRequests;
+        private final long recentUnmatched;
+
+        CellStats(int row, int col, double cellDegrees, int availableDrivers, int openRequests,
+                long recentRequests, long recentUnmatched) {
+            this.row = row;
+            this.col = col;
+            this.center = new Location((row + 0.5) * cellDegrees, (col + 0.5) * cellDegrees);
+            this.availableDrivers = availableDrivers;
+            this.openRequests = openRequests;
+            this.recentRequests = recentRequests;
+            this.recentUnmatched = recentUnmatched;
+        }
+
+        boolean isEmpty() {
+            return availableDrivers == 0 && openRequests == 0 && recentRequests == 0 && recentUnmatched == 0;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        public Location getCenter() {
+            return center;
+        }
+
+        public int getAvailableDrivers() {
+            return availableDrivers;
+        }
+
+        public int getOpenRequests() {
+            return openRequests;
+        }
+
+        // Requests raised in this cell during the sliding window
+        public long getRecentRequests() {
+            return recentRequests;
+        }
+
+        // Requests in the window that could not be matched to a driver
+        public long getRecentUnmatched() {
+            return recentUnmatched;
+        }
+
+        // Recent demand per available driver; higher means undersupplied
+        public double getDemandPerDriver() {
+            return recentRequests / (double) Math.max(1, availableDrivers);
+        }
+    }
+
+    public static class Snapshot {
+        private final long takenAtMillis;
+        private final int windowMinutes;
+        private final double cellDegrees;
+        private final Map<Long, CellStats> cells;
+
+        Snapshot(long takenAtMillis, int windowMinutes, double cellDegrees, Map<Long, CellStats> cells) {
+            this.takenAtMillis = takenAtMillis;
+            this.windowMinutes = windowMinutes;
+            this.cellDegrees = cellDegrees;
+            this.cells = Collections.unmodifiableMap(cells);
+        }
+
+        public long getTakenAtMillis() {
+            return takenAtMillis;
+        }
+
+        public int getWindowMinutes() {
+            return windowMinutes;
+        }
+
+        public List<CellStats> getCells() {
+            return new ArrayList<>(cells.values());
+        }
+
+        public CellStats getCell(Location location) {
+            return cells.get(cellKey(cellDegrees, location));
+        }
+
+        public int getTotalAvailableDrivers() {
+            return cells.values().stream().mapToInt(CellStats::getAvailableDrivers).sum();
+        }
+
+        public int getTotalOpenRequests() {
+            return cells.values().stream().mapToInt(CellStats::getOpenRequests).sum();
+        }
+
+        public List<CellStats> getMostUndersupplied(int limit) {
+            List<CellStats> sorted = getCells();
+            sorted.sort(Comparator.comparingDouble(CellStats::getDemandPerDriver).reversed());
+            return sorted.subList(0, Math.min(limit, sorted.size()));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package Uber;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket expressed as GCRA: a single "theoretical arrival time" is
+// advanced with CAS, which is equivalent to refilling `ratePerSecond` tokens
+// up to `burst` but needs no lock and no refill bookkeeping.
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    }
+
+    public boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long start = tat == Long.MIN_VALUE || tat - nowNanos < 0 ? nowNanos : tat;
+            if (start - nowNanos > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(tat, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    // A bucket that has fully refilled carries no state worth keeping
+    public boolean isIdle(long nowNanos) {
+        long tat = theoreticalArrival.get();
+        return tat == Long.MIN_VALUE || tat - nowNanos <= 0;
+    }
+}